@@ -0,0 +1,81 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.TaskManager;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Добавление задач и подзадач: каждый замер получает заново заполненную доску
+ * из {@code boardSize} задач и эпика из {@code boardSize} подзадач и делает
+ * фиксированные {@value #ADDS} добавлений, так что размер доски за замер почти
+ * не меняется. Время — на одно добавление.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AddTaskBenchmark {
+    static final int ADDS = 1000;
+
+    @Param({Boards.IN_MEMORY, Boards.CONCURRENT, Boards.FILE_BACKED})
+    public String implementation;
+
+    @Param({"1000", "100000"})
+    public int boardSize;
+
+    private TaskManager manager;
+    private Path directory;
+    private int epicID;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        directory = Boards.createDirectory();
+        manager = Boards.create(implementation, directory);
+        Boards.addTasks(manager, boardSize);
+        epicID = Boards.addEpic(manager, boardSize)[0].getEpicID();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        Boards.close(manager, directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ADDS)
+    public Task addTask() {
+        Task last = null;
+        for (int i = 0; i < ADDS; i++) {
+            last = manager.addTask(new Task("Задача", "Описание"));
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ADDS)
+    public Subtask addSubtask() {
+        Subtask last = null;
+        for (int i = 0; i < ADDS; i++) {
+            last = manager.addSubtask(new Subtask("Подзадача", "Описание", epicID));
+        }
+        return last;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск всех бенчмарков: однопоточный прогон для всех реализаций и
+ * прогон ConcurrentTaskManager на 1, 4 и 8 потоках.
+ * Аргумент — регулярное выражение для отбора бенчмарков (по умолчанию все).
+ */
+public class BenchmarkRunner {
+    private static final int[] THREAD_COUNTS = {1, 4, 8};
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "tracker.benchmarks.*";
+
+        Options singleThreaded = new OptionsBuilder()
+                .include(include)
+                .threads(1)
+                .build();
+        new Runner(singleThreaded).run();
+
+        for (int threads : THREAD_COUNTS) {
+            Options concurrent = new OptionsBuilder()
+                    .include(TaskManagerBenchmark.class.getSimpleName())
+                    .include(AddTaskBenchmark.class.getSimpleName())
+                    .param("implementation", Boards.CONCURRENT)
+                    .threads(threads)
+                    .build();
+            new Runner(concurrent).run();
+        }
+    }
+}
\ No newline at end of file
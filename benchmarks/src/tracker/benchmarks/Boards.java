@@ -0,0 +1,79 @@
+package tracker.benchmarks;
+
+import tracker.controllers.ConcurrentTaskManager;
+import tracker.controllers.FileBackedTaskManager;
+import tracker.controllers.InMemoryHistoryManager;
+import tracker.controllers.InMemoryTaskManager;
+import tracker.controllers.Managers;
+import tracker.controllers.TaskManager;
+import tracker.model.Epic;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Создание и наполнение досок для бенчмарков.
+ */
+final class Boards {
+    static final String IN_MEMORY = "InMemoryTaskManager";
+    static final String CONCURRENT = "ConcurrentTaskManager";
+    static final String FILE_BACKED = "FileBackedTaskManager";
+
+    private Boards() {
+    }
+
+    static TaskManager create(String implementation, Path directory) {
+        switch (implementation) {
+            case IN_MEMORY:
+                return new InMemoryTaskManager(new InMemoryHistoryManager());
+            case CONCURRENT:
+                return new ConcurrentTaskManager(new InMemoryHistoryManager());
+            case FILE_BACKED:
+                return new FileBackedTaskManager(Managers.getDefaultHistory(), directory);
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+    static int[] addTasks(TaskManager manager, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = manager.addTask(new Task("Задача " + i, "Описание задачи " + i)).getId();
+        }
+        return ids;
+    }
+
+    static Subtask[] addEpic(TaskManager manager, int subtaskCount) {
+        Epic epic = manager.addEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask[] subtasks = new Subtask[subtaskCount];
+        for (int i = 0; i < subtaskCount; i++) {
+            subtasks[i] = manager.addSubtask(new Subtask("Подзадача " + i, "Описание подзадачи " + i, epic.getId()));
+        }
+        return subtasks;
+    }
+
+    static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("kanban-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void close(TaskManager manager, Path directory) {
+        if (manager instanceof FileBackedTaskManager) {
+            ((FileBackedTaskManager) manager).close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
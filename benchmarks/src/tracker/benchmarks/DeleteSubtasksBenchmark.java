@@ -0,0 +1,62 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.TaskManager;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовое удаление подзадач: каждый замер получает заново заполненную доску
+ * из {@code epicCount} эпиков по {@code subtasksPerEpic} подзадач.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeleteSubtasksBenchmark {
+    @Param({Boards.IN_MEMORY, Boards.CONCURRENT, Boards.FILE_BACKED})
+    public String implementation;
+
+    @Param({"100", "10000"})
+    public int epicCount;
+
+    @Param({"10", "100"})
+    public int subtasksPerEpic;
+
+    private TaskManager manager;
+    private Path directory;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        directory = Boards.createDirectory();
+        manager = Boards.create(implementation, directory);
+        for (int i = 0; i < epicCount; i++) {
+            Boards.addEpic(manager, subtasksPerEpic);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        Boards.close(manager, directory);
+    }
+
+    @Benchmark
+    public void deleteSubtasks() {
+        manager.deleteSubtasks();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.InMemoryHistoryManager;
+import tracker.controllers.InMemoryTaskManager;
+import tracker.model.Status;
+import tracker.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Смена статуса задачи и выборка готовых к работе: поддерживаемое графом множество
+ * готовых против пересчёта по всем задачам и их блокирующим. Каждая задача ждёт
+ * до трёх задач с меньшими ID.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DependencyBenchmark {
+    @Param({"10000", "100000"})
+    public int taskCount;
+
+    private InMemoryTaskManager manager;
+    private Task[] tasks;
+
+    @Setup
+    public void setUp() {
+        manager = new InMemoryTaskManager(new InMemoryHistoryManager());
+        tasks = new Task[taskCount];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < taskCount; i++) {
+            tasks[i] = manager.addTask(new Task("Задача " + i, ""));
+            for (int j = 0; j < 3 && i > 0; j++) {
+                manager.addDependency(tasks[i].getId(), tasks[random.nextInt(i)].getId());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Task> incremental() {
+        toggle();
+        return manager.getReadyTasks(50);
+    }
+
+    @Benchmark
+    public List<Task> recomputed() {
+        toggle();
+        List<Task> result = new ArrayList<>();
+        for (Task task : manager.getTasks()) {
+            if (task.getStatus() == Status.NEW && allDone(manager.getBlockers(task.getId()))) {
+                result.add(task);
+                if (result.size() == 50) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean allDone(int[] blockers) {
+        for (int id : blockers) {
+            // ID выдаются подряд с 1, без обращения к истории просмотров.
+            if (tasks[id - 1].getStatus() != Status.DONE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void toggle() {
+        Task task = tasks[ThreadLocalRandom.current().nextInt(tasks.length)];
+        task.setStatus(task.getStatus() == Status.DONE ? Status.NEW : Status.DONE);
+        manager.updateTask(task);
+    }
+
+}
\ No newline at end of file
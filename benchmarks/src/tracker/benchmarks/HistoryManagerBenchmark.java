@@ -0,0 +1,80 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.HistoryManager;
+import tracker.controllers.InMemoryHistoryManager;
+import tracker.model.Status;
+import tracker.model.Task;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции истории просмотров. Просматриваемые ID берутся из диапазона
+ * вдвое шире вместимости, так что примерно половина добавлений — повторные.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoryManagerBenchmark {
+    @Param({"InMemoryHistoryManager"})
+    public String implementation;
+
+    @Param({"10", "1000", "100000"})
+    public int capacity;
+
+    private HistoryManager historyManager;
+    private Task[] tasks;
+
+    @Setup
+    public void setUp() {
+        if (!"InMemoryHistoryManager".equals(implementation)) {
+            throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+        historyManager = new InMemoryHistoryManager(capacity);
+        tasks = new Task[capacity * 2];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Task(i + 1, "Задача " + i, "Описание " + i, Status.NEW);
+        }
+        for (int i = 0; i < capacity; i++) {
+            historyManager.add(tasks[i]);
+        }
+    }
+
+    @Benchmark
+    public void add() {
+        historyManager.add(tasks[ThreadLocalRandom.current().nextInt(tasks.length)]);
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Benchmark
+    public List<Task> addThenGetHistory() {
+        historyManager.add(tasks[ThreadLocalRandom.current().nextInt(tasks.length)]);
+        return historyManager.getHistory();
+    }
+
+    @Benchmark
+    public void removeAndAdd() {
+        Task task = tasks[ThreadLocalRandom.current().nextInt(tasks.length)];
+        historyManager.remove(task.getId());
+        historyManager.add(task);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package tracker.benchmarks;
+
+import tracker.controllers.ColumnarTaskManager;
+import tracker.controllers.InMemoryTaskManager;
+import tracker.controllers.IntHashMap;
+import tracker.controllers.Managers;
+import tracker.controllers.TaskManager;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Оценка памяти хранилища задач: сколько байт на запись занимает само
+ * отображение ID → задача (объекты задач создаются заранее и не учитываются),
+ * и сколько байт на задачу занимает менеджер целиком, вместе с задачами и строками.
+ * Замер грубый — по разнице занятой кучи после сборки мусора, поэтому
+ * запускать лучше с фиксированной кучей, например {@code -Xms4g -Xmx4g}.
+ * Аргумент — число задач (по умолчанию 1 000 000).
+ */
+public class MemoryFootprint {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Task[] tasks = new Task[count];
+        for (int i = 0; i < count; i++) {
+            tasks[i] = new Task(i + 1, "Задача", "Описание", Status.NEW);
+        }
+
+        report("HashMap<Integer, Task>", count, () -> {
+            Map<Integer, Task> map = new HashMap<>();
+            for (Task task : tasks) {
+                map.put(task.getId(), task);
+            }
+            return map;
+        });
+        report("IntHashMap<Task>", count, () -> {
+            IntHashMap<Task> map = new IntHashMap<>();
+            for (Task task : tasks) {
+                map.put(task.getId(), task);
+            }
+            return map;
+        });
+        report("InMemoryTaskManager", count, () -> fill(new InMemoryTaskManager(Managers.getDefaultHistory()), count));
+        report("ColumnarTaskManager", count, () -> fill(new ColumnarTaskManager(Managers.getDefaultHistory()), count));
+    }
+
+    // Доска из count задач: каждая десятая — эпик с четырьмя подзадачами, остальные — обычные задачи.
+    static TaskManager fill(TaskManager manager, int count) {
+        int epicID = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = i % 10;
+            if (slot == 0) {
+                epicID = manager.addEpic(new Epic("Эпик " + i, "Описание эпика " + i)).getId();
+            } else if (slot <= 4) {
+                manager.addSubtask(new Subtask("Подзадача " + i, "Описание подзадачи " + i, epicID));
+            } else {
+                manager.addTask(new Task("Задача " + i, "Описание задачи " + i));
+            }
+        }
+        return manager;
+    }
+
+    static void report(String name, int count, Supplier<Object> factory) {
+        long before = usedHeap();
+        Object store = factory.get();
+        long after = usedHeap();
+        System.out.printf("%-40s %,d entries: %,d bytes, %.1f bytes/entry%n",
+                name, count, after - before, (after - before) / (double) count);
+        Reference.reachabilityFence(store);
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.InMemoryHistoryManager;
+import tracker.controllers.InMemoryTaskManager;
+import tracker.controllers.TaskOverlapException;
+import tracker.model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Расписание: список по времени начала из упорядоченного индекса против сортировки
+ * при каждом вызове, и перенос задачи с проверкой пересечений. Задачи идут
+ * получасовыми слотами в случайном порядке, половина слотов свободна.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleBenchmark {
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Param({"10000", "100000"})
+    public int taskCount;
+
+    private InMemoryTaskManager manager;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        manager = new InMemoryTaskManager(new InMemoryHistoryManager());
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            slots.add(i * 2);
+        }
+        Collections.shuffle(slots);
+        tasks = new ArrayList<>();
+        for (int slot : slots) {
+            Task task = new Task("Задача " + slot, "");
+            task.setStartTime(ORIGIN.plusMinutes(30L * slot));
+            task.setDuration(Duration.ofMinutes(30));
+            tasks.add(manager.addTask(task));
+        }
+    }
+
+    @Benchmark
+    public List<Task> indexed() {
+        return manager.getPrioritizedTasks();
+    }
+
+    @Benchmark
+    public List<Task> sorted() {
+        List<Task> result = new ArrayList<>();
+        for (Task task : manager.getTasks()) {
+            if (task.getStartTime() != null) {
+                result.add(task);
+            }
+        }
+        result.sort(Comparator.comparing(Task::getStartTime));
+        return result;
+    }
+
+    @Benchmark
+    public Task reschedule() {
+        int index = ThreadLocalRandom.current().nextInt(tasks.size());
+        Task task = tasks.get(index);
+        // Сдвиг на четверть часа назад или вперёд: иногда упирается в соседа.
+        long shift = ThreadLocalRandom.current().nextBoolean() ? 15 : -15;
+        Task moved = new Task(task.getId(), task.getName(), "", task.getStatus());
+        moved.setStartTime(task.getStartTime().plusMinutes(shift));
+        moved.setDuration(task.getDuration());
+        try {
+            manager.updateTask(moved);
+            tasks.set(index, moved);
+            return moved;
+        } catch (TaskOverlapException e) {
+            return task;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.InMemoryHistoryManager;
+import tracker.controllers.InMemoryTaskManager;
+import tracker.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск задач по слову: инвертированный индекс менеджера против прежнего
+ * перебора копий всех задач со {@link String#contains}. В запросе — частое слово
+ * и начало редкого, которое целиком есть примерно у одной задачи из десяти тысяч.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final String[] WORDS = {"отчёт", "сервер", "релиз", "клиент", "оплата", "договор", "тест"};
+
+    @Param({"10000", "1000000"})
+    public int taskCount;
+
+    private InMemoryTaskManager manager;
+
+    @Setup
+    public void setUp() {
+        manager = new InMemoryTaskManager(new InMemoryHistoryManager());
+        for (int i = 0; i < taskCount; i++) {
+            String word = WORDS[i % WORDS.length];
+            manager.addTask(new Task("Задача " + word + " " + i, "Проверить " + word + " код" + i % 10_000));
+        }
+        // Первый поиск строит индекс — до замеров.
+        manager.search("", 1);
+    }
+
+    @Benchmark
+    public List<Task> indexed() {
+        return manager.search("пров код" + ThreadLocalRandom.current().nextInt(10_000), 50);
+    }
+
+    @Benchmark
+    public List<Task> linearScan() {
+        String word = "код" + ThreadLocalRandom.current().nextInt(10_000);
+        List<Task> result = new ArrayList<>();
+        for (Task task : manager.getTasks()) {
+            if (task.getName().toLowerCase().contains(word) || task.getDescription().toLowerCase().contains(word)) {
+                result.add(task);
+                if (result.size() == 50) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.model.Status;
+import tracker.model.Task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость идентичности задач в хеш-коллекциях и списках: ID — текущие
+ * {@link Task#equals}/{@link Task#hashCode}, CONTENT — прежние, по полям задачи.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskIdentityBenchmark {
+    @Param({"ID", "CONTENT"})
+    public String identity;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private Object[] keys;
+    private Set<Object> history;
+    private List<Object> subtasks;
+
+    @Setup
+    public void setUp() {
+        keys = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Task task = new Task(i + 1, "Задача с достаточно длинным названием " + i,
+                    "Описание задачи, которое заметно длиннее названия " + i, Status.NEW);
+            keys[i] = switch (identity) {
+                case "ID" -> task;
+                case "CONTENT" -> new ContentKey(task);
+                default -> throw new IllegalArgumentException("Unknown identity: " + identity);
+            };
+        }
+        history = new LinkedHashSet<>(List.of(keys));
+        subtasks = new ArrayList<>(List.of(keys));
+    }
+
+    /** Повторный просмотр: перенос задачи в конец истории. */
+    @Benchmark
+    public boolean historyDedup() {
+        Object key = keys[ThreadLocalRandom.current().nextInt(size)];
+        history.remove(key);
+        return history.add(key);
+    }
+
+    /** Удаление подзадачи из списка эпика поиском по equals. */
+    @Benchmark
+    public boolean subtaskRemoval() {
+        Object key = keys[ThreadLocalRandom.current().nextInt(size)];
+        subtasks.remove(key);
+        return subtasks.add(key);
+    }
+
+    /** Прежние equals/hashCode задачи: по ID, названию, описанию и статусу. */
+    private static final class ContentKey {
+        private final Task task;
+
+        ContentKey(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof ContentKey other)) return false;
+            return task.contentEquals(other.task);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(task.getName(), task.getDescription());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.TaskManager;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие операции менеджера на доске из {@code boardSize} задач и эпике
+ * из {@code boardSize} подзадач. Операции не меняют размер доски; добавление,
+ * которое её растит, замеряется в {@link AddTaskBenchmark}. Многопоточные
+ * прогоны имеют смысл только для ConcurrentTaskManager — см. {@link BenchmarkRunner}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskManagerBenchmark {
+    @Param({Boards.IN_MEMORY, Boards.CONCURRENT, Boards.FILE_BACKED})
+    public String implementation;
+
+    @Param({"1000", "100000"})
+    public int boardSize;
+
+    private TaskManager manager;
+    private Path directory;
+    private int[] taskIDs;
+    private Subtask[] subtasks;
+    private int epicID;
+
+    @Setup
+    public void setUp() {
+        directory = Boards.createDirectory();
+        manager = Boards.create(implementation, directory);
+        taskIDs = Boards.addTasks(manager, boardSize);
+        subtasks = Boards.addEpic(manager, boardSize);
+        epicID = subtasks[0].getEpicID();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Boards.close(manager, directory);
+    }
+
+    @Benchmark
+    public Subtask updateSubtaskOnLargeEpic() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Subtask stored = subtasks[random.nextInt(subtasks.length)];
+        Subtask update = new Subtask(stored.getId(), stored.getName(), stored.getDescription(),
+                random.nextBoolean() ? Status.DONE : Status.IN_PROGRESS, epicID);
+        return manager.updateSubtask(update);
+    }
+
+    @Benchmark
+    public Task getTaskByIDWithHistory() {
+        return manager.getTaskByID(taskIDs[ThreadLocalRandom.current().nextInt(taskIDs.length)]);
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return manager.getHistory();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package tracker.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tracker.controllers.IntHashMap;
+import tracker.model.Status;
+import tracker.model.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по ID в HashMap&lt;Integer, Task&gt; и в {@link IntHashMap}.
+ * ID плотные и идут подряд, как их выдаёт менеджер.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskStoreBenchmark {
+    @Param({"1000", "1000000", "5000000"})
+    public int size;
+
+    private Map<Integer, Task> hashMap;
+    private IntHashMap<Task> intHashMap;
+
+    @Setup
+    public void setUp() {
+        hashMap = new HashMap<>();
+        intHashMap = new IntHashMap<>();
+        for (int id = 1; id <= size; id++) {
+            Task task = new Task(id, "Задача", "Описание", Status.NEW);
+            hashMap.put(id, task);
+            intHashMap.put(id, task);
+        }
+    }
+
+    @Benchmark
+    public Task hashMapGet() {
+        return hashMap.get(1 + ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    public Task intHashMapGet() {
+        return intHashMap.get(1 + ThreadLocalRandom.current().nextInt(size));
+    }
+}
\ No newline at end of file
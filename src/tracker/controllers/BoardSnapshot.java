@@ -0,0 +1,169 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемый согласованный срез доски на момент вызова {@link TaskManager#snapshot()}.
+ * Хранит собственные копии задач в {@link PersistentIntMap}: новая версия среза
+ * разделяет с предыдущей всё, кроме изменённых путей, поэтому взять срез — O(1),
+ * а читать его можно из любого потока без блокировок. Методы чтения отдают
+ * свежие копии, так что изменить срез через них нельзя.
+ */
+public final class BoardSnapshot {
+    static final BoardSnapshot EMPTY = new BoardSnapshot(PersistentIntMap.empty(), PersistentIntMap.empty(),
+            PersistentIntMap.empty(), PersistentIntMap.empty());
+
+    private final PersistentIntMap<Task> tasks;
+    private final PersistentIntMap<Epic> epics;
+    private final PersistentIntMap<Subtask> subtasks;
+    private final PersistentIntMap<PersistentIntMap<Subtask>> epicSubtasks;
+
+    private BoardSnapshot(PersistentIntMap<Task> tasks, PersistentIntMap<Epic> epics,
+                          PersistentIntMap<Subtask> subtasks,
+                          PersistentIntMap<PersistentIntMap<Subtask>> epicSubtasks) {
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.epicSubtasks = epicSubtasks;
+    }
+
+    /**
+     * Срез по копиям из getTasks/getEpics/getSubtasks — O(n), для менеджеров
+     * без собственной поддержки срезов.
+     */
+    public static BoardSnapshot copyOf(TaskManager manager) {
+        BoardSnapshot snapshot = EMPTY;
+        for (Task task : manager.getTasks()) {
+            snapshot = snapshot.with(task);
+        }
+        for (Epic epic : manager.getEpics()) {
+            snapshot = snapshot.with(epic);
+        }
+        for (Subtask subtask : manager.getSubtasks()) {
+            snapshot = snapshot.with(subtask);
+        }
+        return snapshot;
+    }
+
+    public Task getTask(int id) {
+        return copy(tasks.get(id));
+    }
+
+    public Epic getEpic(int id) {
+        return copy(epics.get(id));
+    }
+
+    public Subtask getSubtask(int id) {
+        return copy(subtasks.get(id));
+    }
+
+    public List<Task> getTasks() {
+        return copies(tasks);
+    }
+
+    public List<Epic> getEpics() {
+        return copies(epics);
+    }
+
+    public List<Subtask> getSubtasks() {
+        return copies(subtasks);
+    }
+
+    public List<Subtask> getEpicSubtasks(int epicID) {
+        PersistentIntMap<Subtask> members = epicSubtasks.get(epicID);
+        return members == null ? Collections.emptyList() : copies(members);
+    }
+
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    public int getEpicCount() {
+        return epics.size();
+    }
+
+    public int getSubtaskCount() {
+        return subtasks.size();
+    }
+
+    /**
+     * Новая версия среза с копией задачи; исходный срез не меняется.
+     */
+    BoardSnapshot with(Task task) {
+        Task copy = task.copy();
+        switch (TaskType.of(task)) {
+            case SUBTASK:
+                Subtask subtask = (Subtask) copy;
+                PersistentIntMap<PersistentIntMap<Subtask>> members = epicSubtasks;
+                Subtask previous = subtasks.get(subtask.getId());
+                if (previous != null && previous.getEpicID() != subtask.getEpicID()) {
+                    members = withoutMember(members, previous);
+                }
+                PersistentIntMap<Subtask> epicMembers = members.get(subtask.getEpicID());
+                if (epicMembers == null) {
+                    epicMembers = PersistentIntMap.empty();
+                }
+                members = members.plus(subtask.getEpicID(), epicMembers.plus(subtask.getId(), subtask));
+                return new BoardSnapshot(tasks, epics, subtasks.plus(subtask.getId(), subtask), members);
+            case EPIC:
+                return new BoardSnapshot(tasks, epics.plus(copy.getId(), (Epic) copy), subtasks, epicSubtasks);
+            default:
+                return new BoardSnapshot(tasks.plus(copy.getId(), copy), epics, subtasks, epicSubtasks);
+        }
+    }
+
+    BoardSnapshot without(TaskType type, int id) {
+        switch (type) {
+            case SUBTASK:
+                Subtask previous = subtasks.get(id);
+                if (previous == null) {
+                    return this;
+                }
+                return new BoardSnapshot(tasks, epics, subtasks.minus(id), withoutMember(epicSubtasks, previous));
+            case EPIC:
+                return new BoardSnapshot(tasks, epics.minus(id), subtasks, epicSubtasks.minus(id));
+            default:
+                return new BoardSnapshot(tasks.minus(id), epics, subtasks, epicSubtasks);
+        }
+    }
+
+    BoardSnapshot cleared(TaskType type) {
+        switch (type) {
+            case SUBTASK:
+                return new BoardSnapshot(tasks, epics, PersistentIntMap.empty(), PersistentIntMap.empty());
+            case EPIC:
+                return new BoardSnapshot(tasks, PersistentIntMap.empty(), subtasks, epicSubtasks);
+            default:
+                return new BoardSnapshot(PersistentIntMap.empty(), epics, subtasks, epicSubtasks);
+        }
+    }
+
+    private static PersistentIntMap<PersistentIntMap<Subtask>> withoutMember(
+            PersistentIntMap<PersistentIntMap<Subtask>> members, Subtask subtask) {
+        PersistentIntMap<Subtask> epicMembers = members.get(subtask.getEpicID());
+        if (epicMembers == null) {
+            return members;
+        }
+        epicMembers = epicMembers.minus(subtask.getId());
+        return epicMembers.isEmpty() ? members.minus(subtask.getEpicID())
+                : members.plus(subtask.getEpicID(), epicMembers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> T copy(T task) {
+        return task == null ? null : (T) task.copy();
+    }
+
+    private static <T extends Task> List<T> copies(PersistentIntMap<T> map) {
+        List<T> result = new ArrayList<>(map.size());
+        map.forEach(task -> result.add(copy(task)));
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+package tracker.controllers;
+
+import tracker.model.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Файл вытесненных задач для {@link TieredTaskManager}. Запись — длина и группа
+ * задач в формате {@link TaskRecords} с версиями; ссылкой на запись служит её смещение.
+ * Записи только дописываются в конец; освобождённые учитываются как мусор, и владелец
+ * переписывает файл, когда мусора становится больше половины. Прочитанные группы
+ * держатся в небольшом кэше с вытеснением давно не читанных (LRU).
+ * Файл временный: при открытии он очищается, а при закрытии удаляется. Не потокобезопасен.
+ */
+final class ColdSegment implements AutoCloseable {
+    private static final int HEADER = Integer.BYTES;
+
+    private final Path path;
+    private final Map<Long, Task[]> cache;
+    private FileChannel channel;
+    private long size;
+    private long garbage;
+
+    ColdSegment(Path path, int cacheCapacity) {
+        this.path = path;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Task[]> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+        channel = open(path);
+    }
+
+    /**
+     * Дописывает группу задач и возвращает ссылку на запись.
+     */
+    long append(Task[] group) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(group.length);
+            for (Task task : group) {
+                TaskRecords.writeTask(out, task);
+                out.writeLong(task.getVersion());
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            buffer.putInt(0, buffer.limit() - HEADER);
+            long offset = size;
+            write(channel, buffer, offset);
+            size += buffer.limit();
+            return offset;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось записать вытесненные задачи в " + path, e);
+        }
+    }
+
+    /**
+     * Группа задач по ссылке. Возвращает общий для всех чтений массив из кэша:
+     * задачи в нём изменять нельзя.
+     */
+    Task[] read(long offset) {
+        Task[] group = cache.get(offset);
+        if (group != null) {
+            return group;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(readRecord(offset)));
+            group = new Task[in.readInt()];
+            for (int i = 0; i < group.length; i++) {
+                group[i] = TaskRecords.readTask(in);
+                group[i].setVersion(in.readLong());
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось прочитать вытесненные задачи из " + path, e);
+        }
+        cache.put(offset, group);
+        return group;
+    }
+
+    /**
+     * Помечает запись как мусор.
+     */
+    void release(long offset) {
+        cache.remove(offset);
+        try {
+            garbage += HEADER + readLength(offset);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось прочитать вытесненные задачи из " + path, e);
+        }
+    }
+
+    /**
+     * Освобождает все записи.
+     */
+    void clear() {
+        cache.clear();
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось очистить " + path, e);
+        }
+        size = 0;
+        garbage = 0;
+    }
+
+    boolean needsCompaction(long minSize) {
+        return size >= minSize && garbage * 2 > size;
+    }
+
+    /**
+     * Переписывает файл, оставляя только записи live, и возвращает их новые ссылки.
+     */
+    Map<Long, Long> compact(Collection<Long> live) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<Long, Long> moved = new HashMap<>();
+        try (FileChannel target = open(tmp)) {
+            long position = 0;
+            for (long offset : live) {
+                if (moved.containsKey(offset)) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER + readLength(offset));
+                read(channel, buffer, offset);
+                buffer.flip();
+                write(target, buffer, position);
+                moved.put(offset, position);
+                position += buffer.limit();
+            }
+            channel.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            size = position;
+            garbage = 0;
+            cache.clear();
+            return moved;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось переписать " + path, e);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось закрыть " + path, e);
+        }
+    }
+
+    private byte[] readRecord(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(readLength(offset));
+        read(channel, buffer, offset + HEADER);
+        return buffer.array();
+    }
+
+    private int readLength(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        read(channel, header, offset);
+        return header.getInt(0);
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось открыть " + path, e);
+        }
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment at " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
\ No newline at end of file
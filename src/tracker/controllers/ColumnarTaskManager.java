@@ -0,0 +1,674 @@
+package tracker.controllers;
+
+import tracker.events.Subscription;
+import tracker.events.TaskEvent;
+import tracker.events.TaskEventBus;
+import tracker.events.TaskEventListener;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Менеджер задач для очень больших досок: задачи хранятся не объектами, а по столбцам
+ * в параллельных массивах примитивов, где ID задачи — номер её ячейки. Названия и описания
+ * лежат в общем буфере UTF-8 ({@link Utf8Arena}), а подзадачи эпика связаны в кольцевой
+ * двусвязный список через массивы next/prev, головой которого служит ячейка самого эпика.
+ * Объекты Task/Epic/Subtask создаются только по запросу и не связаны с хранилищем:
+ * изменить задачу можно лишь через update*. Переданные в add* и update* объекты
+ * не сохраняются — менеджер только проставляет им ID и версию.
+ * Ячейки удалённых задач не переиспользуются, как и их ID. Не потокобезопасен;
+ * пакет операций применяется реализацией по умолчанию, без отката.
+ * Начало и длительность хранятся секундами и наносекундами; пересечения по времени
+ * не проверяются, а список по приоритету строится реализацией по умолчанию.
+ * События доски публикуются так же, как в {@link InMemoryTaskManager}.
+ */
+public class ColumnarTaskManager implements TaskManager {
+    private static final Status[] STATUSES = Status.values();
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final int DEFAULT_CAPACITY = 16;
+    // Буфер строк переписывается, когда мусор превышает половину, но не раньше этого размера.
+    private static final int MIN_COMPACT_SIZE = 1 << 16;
+    // Счётчики подзадач эпика: всего, в работе, выполнено.
+    private static final int TOTAL = 0;
+    private static final int IN_PROGRESS = 1;
+    private static final int DONE = 2;
+    // Секунды начала или длительности, когда значение не задано.
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final HistoryManager historyManager;
+    private final TaskEventBus events = new TaskEventBus();
+    private Utf8Arena strings = new Utf8Arena();
+    private final IntHashMap<int[]> epicCounters = new IntHashMap<>();
+    private final int[] typeCounts = new int[TYPES.length];
+
+    // Тип задачи в ячейке: 0 — пусто, иначе TaskType.ordinal() + 1.
+    private byte[] kinds;
+    private byte[] statuses;
+    private long[] versions;
+    private int[] names;
+    private int[] descriptions;
+    private int[] epicIDs;
+    private long[] startSeconds;
+    private int[] startNanos;
+    private long[] durationSeconds;
+    private int[] durationNanos;
+    private int[] next;
+    private int[] prev;
+
+    private int nextID = 1;
+
+    public ColumnarTaskManager(HistoryManager historyManager) {
+        this(historyManager, DEFAULT_CAPACITY);
+    }
+
+    public ColumnarTaskManager(HistoryManager historyManager, int expectedSize) {
+        this.historyManager = historyManager;
+        allocate(Math.max(expectedSize + 1, DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        int id = claimID();
+        write(id, TaskType.TASK, task);
+        task.setId(id);
+        task.setVersion(1);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.created(task));
+        }
+        return task;
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        int id = claimID();
+        write(id, TaskType.EPIC, epic);
+        next[id] = id;
+        prev[id] = id;
+        epicCounters.put(id, new int[3]);
+        epic.setId(id);
+        epic.setVersion(1);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.created(epic));
+        }
+        return epic;
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        int epicID = subtask.getEpicID();
+        checkEpic(epicID);
+        int id = claimID();
+        write(id, TaskType.SUBTASK, subtask);
+        link(epicID, id);
+        subtask.setId(id);
+        subtask.setVersion(1);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.created(subtask));
+        }
+        refreshEpicStatus(epicID);
+        return subtask;
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        int id = task.getId();
+        if (!holds(id, TaskType.TASK)) {
+            return null;
+        }
+        rewrite(id, task);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.updated(task));
+        }
+        return task;
+    }
+
+    /**
+     * Обновляет название и описание эпика и заменяет его подзадачи подзадачами
+     * из epic.getSubtasks(), как {@link InMemoryTaskManager#updateEpic(Epic)}.
+     * Переданные подзадачи должны уже принадлежать этому эпику и ссылаться на него:
+     * ID удалённых задач, задач других типов и подзадач других эпиков отклоняются.
+     * Подзадачи, которых нет в epic, удаляются вместе с их историей.
+     */
+    @Override
+    public Epic updateEpic(Epic epic) {
+        int id = epic.getId();
+        if (!holds(id, TaskType.EPIC)) {
+            return null;
+        }
+        for (Subtask subtask : epic.getSubtasks()) {
+            int subtaskID = subtask.getId();
+            if (!holds(subtaskID, TaskType.SUBTASK) || epicIDs[subtaskID] != id || subtask.getEpicID() != id) {
+                throw new IllegalArgumentException("Subtask " + subtaskID + " cannot be moved to epic " + id);
+            }
+        }
+        for (int subtaskID = next[id]; subtaskID != id; ) {
+            int following = next[subtaskID];
+            if (!epic.containsSubtask(subtaskID)) {
+                historyManager.remove(subtaskID);
+            }
+            free(subtaskID);
+            subtaskID = following;
+        }
+        next[id] = id;
+        prev[id] = id;
+        Arrays.fill(epicCounters.get(id), 0);
+        rewrite(id, epic);
+        for (Subtask subtask : epic.getSubtasks()) {
+            int subtaskID = subtask.getId();
+            write(subtaskID, TaskType.SUBTASK, subtask);
+            versions[subtaskID] = Math.max(subtask.getVersion(), 1);
+            link(id, subtaskID);
+        }
+        if (events.hasSubscribers()) {
+            epic.setStatus(statusAt(id));
+            events.publish(TaskEvent.updated(epic));
+        }
+        refreshEpicStatus(id);
+        epic.setStatus(statusAt(id));
+        return epic;
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        int id = subtask.getId();
+        if (!holds(id, TaskType.SUBTASK)) {
+            return null;
+        }
+        int oldEpicID = epicIDs[id];
+        int epicID = subtask.getEpicID();
+        if (epicID != oldEpicID) {
+            checkEpic(epicID);
+            unlink(id);
+            rewrite(id, subtask);
+            link(epicID, id);
+        } else {
+            int[] counters = epicCounters.get(epicID);
+            count(counters, statusAt(id), -1);
+            rewrite(id, subtask);
+            count(counters, statusAt(id), 1);
+        }
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.updated(subtask));
+        }
+        if (epicID != oldEpicID) {
+            refreshEpicStatus(oldEpicID);
+        }
+        refreshEpicStatus(epicID);
+        return subtask;
+    }
+
+    @Override
+    public Task compareAndUpdateTask(Task task, long expectedVersion) {
+        if (!holds(task.getId(), TaskType.TASK)) {
+            return null;
+        }
+        checkVersion(task.getId(), expectedVersion);
+        return updateTask(task);
+    }
+
+    @Override
+    public Epic compareAndUpdateEpic(Epic epic, long expectedVersion) {
+        if (!holds(epic.getId(), TaskType.EPIC)) {
+            return null;
+        }
+        checkVersion(epic.getId(), expectedVersion);
+        return updateEpic(epic);
+    }
+
+    @Override
+    public Subtask compareAndUpdateSubtask(Subtask subtask, long expectedVersion) {
+        if (!holds(subtask.getId(), TaskType.SUBTASK)) {
+            return null;
+        }
+        checkVersion(subtask.getId(), expectedVersion);
+        return updateSubtask(subtask);
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        return viewed(holds(id, TaskType.TASK) ? taskAt(id) : null);
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        return viewed(holds(id, TaskType.EPIC) ? epicAt(id) : null);
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        return viewed(holds(id, TaskType.SUBTASK) ? subtaskAt(id) : null);
+    }
+
+    @Override
+    public ArrayList<Task> getTasks() {
+        ArrayList<Task> result = new ArrayList<>(typeCounts[TaskType.TASK.ordinal()]);
+        for (int id = 1; id < nextID; id++) {
+            if (holds(id, TaskType.TASK)) {
+                result.add(taskAt(id));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ArrayList<Epic> getEpics() {
+        ArrayList<Epic> result = new ArrayList<>(typeCounts[TaskType.EPIC.ordinal()]);
+        for (int id = 1; id < nextID; id++) {
+            if (holds(id, TaskType.EPIC)) {
+                result.add(epicAt(id));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasks() {
+        ArrayList<Subtask> result = new ArrayList<>(typeCounts[TaskType.SUBTASK.ordinal()]);
+        for (int id = 1; id < nextID; id++) {
+            if (holds(id, TaskType.SUBTASK)) {
+                result.add(subtaskAt(id));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<Subtask> getEpicSubtasks(Epic epic) {
+        int epicID = epic.getId();
+        List<Subtask> result = new ArrayList<>();
+        if (holds(epicID, TaskType.EPIC)) {
+            for (int id = next[epicID]; id != epicID; id = next[id]) {
+                result.add(subtaskAt(id));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteTasks() {
+        clear(TaskType.TASK);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.cleared(TaskType.TASK));
+        }
+    }
+
+    @Override
+    public void deleteEpics() {
+        clear(TaskType.SUBTASK);
+        clear(TaskType.EPIC);
+        epicCounters.clear();
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.cleared(TaskType.SUBTASK));
+            events.publish(TaskEvent.cleared(TaskType.EPIC));
+        }
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        clear(TaskType.SUBTASK);
+        boolean publishing = events.hasSubscribers();
+        if (publishing) {
+            events.publish(TaskEvent.cleared(TaskType.SUBTASK));
+        }
+        for (int id = 1; id < nextID; id++) {
+            if (holds(id, TaskType.EPIC)) {
+                next[id] = id;
+                prev[id] = id;
+                Arrays.fill(epicCounters.get(id), 0);
+                Status previous = statusAt(id);
+                statuses[id] = (byte) Status.NEW.ordinal();
+                if (publishing && previous != Status.NEW) {
+                    events.publish(TaskEvent.epicStatusChanged(id, previous, Status.NEW));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deleteTaskByID(int id) {
+        if (holds(id, TaskType.TASK)) {
+            historyManager.remove(id);
+            free(id);
+            if (events.hasSubscribers()) {
+                events.publish(TaskEvent.deleted(TaskType.TASK, id));
+            }
+            compactIfNeeded();
+        }
+    }
+
+    @Override
+    public void deleteEpicByID(int id) {
+        if (!holds(id, TaskType.EPIC)) {
+            return;
+        }
+        boolean publishing = events.hasSubscribers();
+        for (int subtaskID = next[id]; subtaskID != id; ) {
+            int following = next[subtaskID];
+            historyManager.remove(subtaskID);
+            free(subtaskID);
+            if (publishing) {
+                events.publish(TaskEvent.deleted(TaskType.SUBTASK, subtaskID));
+            }
+            subtaskID = following;
+        }
+        historyManager.remove(id);
+        free(id);
+        epicCounters.remove(id);
+        if (publishing) {
+            events.publish(TaskEvent.deleted(TaskType.EPIC, id));
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public void deleteSubtaskByID(int id) {
+        if (!holds(id, TaskType.SUBTASK)) {
+            return;
+        }
+        int epicID = epicIDs[id];
+        unlink(id);
+        historyManager.remove(id);
+        free(id);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.deleted(TaskType.SUBTASK, id));
+        }
+        refreshEpicStatus(epicID);
+        compactIfNeeded();
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    /**
+     * События доставляются в отдельном потоке подписки, как в {@link InMemoryTaskManager}.
+     */
+    @Override
+    public Subscription subscribe(TaskEventListener listener) {
+        return events.subscribe(listener);
+    }
+
+    /**
+     * Выборка по столбцам: тип, статус и эпик проверяются по массивам,
+     * и объект задачи создаётся только для подходящих ячеек.
+     */
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        IntStream ids;
+        if (query.getEpicID() != null) {
+            int epicID = query.getEpicID();
+            if (!holds(epicID, TaskType.EPIC)) {
+                return Stream.empty();
+            }
+            IntStream.Builder members = IntStream.builder();
+            for (int id = next[epicID]; id != epicID; id = next[id]) {
+                members.add(id);
+            }
+            ids = members.build();
+        } else {
+            ids = IntStream.range(Math.max(query.getAfterID() + 1, 1), nextID).filter(id -> kinds[id] != 0);
+        }
+        TaskType type = query.getType();
+        Status status = query.getStatus();
+        Stream<Task> matches = ids
+                .filter(id -> (type == null || holds(id, type)) && (status == null || statusAt(id) == status))
+                .mapToObj(this::viewAt)
+                .filter(query::matches);
+        return matches.skip(query.getOffset()).limit(query.getLimit());
+    }
+
+    @Override
+    public int countTasks(TaskType type, Status status) {
+        int count = 0;
+        for (int id = 1; id < nextID; id++) {
+            if (kinds[id] != 0 && (type == null || holds(id, type)) && statusAt(id) == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Число хранимых задач всех типов.
+     */
+    public int size() {
+        return typeCounts[0] + typeCounts[1] + typeCounts[2];
+    }
+
+    private int claimID() {
+        int id = nextID++;
+        if (id >= kinds.length) {
+            grow(id + 1);
+        }
+        return id;
+    }
+
+    private void write(int id, TaskType type, Task task) {
+        kinds[id] = (byte) (type.ordinal() + 1);
+        typeCounts[type.ordinal()]++;
+        statuses[id] = (byte) task.getStatus().ordinal();
+        versions[id] = 1;
+        names[id] = strings.add(task.getName());
+        descriptions[id] = strings.add(task.getDescription());
+        if (type == TaskType.SUBTASK) {
+            epicIDs[id] = ((Subtask) task).getEpicID();
+        }
+        writeTimes(id, task);
+    }
+
+    // Сроки эпика выводятся из подзадач и не хранятся.
+    private void writeTimes(int id, Task task) {
+        LocalDateTime start = task instanceof Epic ? null : task.getStartTime();
+        Duration duration = task instanceof Epic ? null : task.getDuration();
+        startSeconds[id] = start == null ? NO_TIME : start.toEpochSecond(ZoneOffset.UTC);
+        startNanos[id] = start == null ? 0 : start.getNano();
+        durationSeconds[id] = duration == null ? NO_TIME : duration.getSeconds();
+        durationNanos[id] = duration == null ? 0 : duration.getNano();
+    }
+
+    private <T extends Task> T withTimes(int id, T task) {
+        if (startSeconds[id] != NO_TIME) {
+            task.setStartTime(LocalDateTime.ofEpochSecond(startSeconds[id], startNanos[id], ZoneOffset.UTC));
+        }
+        if (durationSeconds[id] != NO_TIME) {
+            task.setDuration(Duration.ofSeconds(durationSeconds[id], durationNanos[id]));
+        }
+        return task;
+    }
+
+    // Перезаписывает поля существующей задачи и увеличивает её версию.
+    private void rewrite(int id, Task task) {
+        strings.release(names[id]);
+        strings.release(descriptions[id]);
+        names[id] = strings.add(task.getName());
+        descriptions[id] = strings.add(task.getDescription());
+        if (kinds[id] != TaskType.EPIC.ordinal() + 1) {
+            statuses[id] = (byte) task.getStatus().ordinal();
+        }
+        if (task instanceof Subtask) {
+            epicIDs[id] = ((Subtask) task).getEpicID();
+        }
+        writeTimes(id, task);
+        task.setVersion(++versions[id]);
+        compactIfNeeded();
+    }
+
+    private void free(int id) {
+        typeCounts[kinds[id] - 1]--;
+        kinds[id] = 0;
+        strings.release(names[id]);
+        strings.release(descriptions[id]);
+        names[id] = Utf8Arena.NULL;
+        descriptions[id] = Utf8Arena.NULL;
+    }
+
+    private void clear(TaskType type) {
+        for (int id = 1; id < nextID; id++) {
+            if (holds(id, type)) {
+                historyManager.remove(id);
+                free(id);
+            }
+        }
+        compactIfNeeded();
+    }
+
+    // Добавляет подзадачу в конец списка эпика.
+    private void link(int epicID, int id) {
+        int last = prev[epicID];
+        prev[id] = last;
+        next[id] = epicID;
+        next[last] = id;
+        prev[epicID] = id;
+        count(epicCounters.get(epicID), statusAt(id), 1);
+    }
+
+    private void unlink(int id) {
+        next[prev[id]] = next[id];
+        prev[next[id]] = prev[id];
+        count(epicCounters.get(epicIDs[id]), statusAt(id), -1);
+    }
+
+    private static void count(int[] counters, Status status, int delta) {
+        counters[TOTAL] += delta;
+        if (status == Status.IN_PROGRESS) {
+            counters[IN_PROGRESS] += delta;
+        } else if (status == Status.DONE) {
+            counters[DONE] += delta;
+        }
+    }
+
+    private void refreshEpicStatus(int epicID) {
+        int[] counters = epicCounters.get(epicID);
+        Status status;
+        if (counters[IN_PROGRESS] > 0) {
+            status = Status.IN_PROGRESS;
+        } else if (counters[DONE] == counters[TOTAL]) {
+            status = Status.DONE;
+        } else {
+            status = Status.NEW;
+        }
+        Status previous = statusAt(epicID);
+        statuses[epicID] = (byte) status.ordinal();
+        if (previous != status && events.hasSubscribers()) {
+            events.publish(TaskEvent.epicStatusChanged(epicID, previous, status));
+        }
+    }
+
+    private void checkEpic(int epicID) {
+        if (!holds(epicID, TaskType.EPIC)) {
+            throw new IllegalArgumentException("Epic " + epicID + " does not exist");
+        }
+    }
+
+    private void checkVersion(int id, long expectedVersion) {
+        if (versions[id] != expectedVersion) {
+            throw new VersionConflictException(id, expectedVersion, versions[id]);
+        }
+    }
+
+    private boolean holds(int id, TaskType type) {
+        return id > 0 && id < nextID && kinds[id] == type.ordinal() + 1;
+    }
+
+    private Status statusAt(int id) {
+        return STATUSES[statuses[id]];
+    }
+
+    private <T extends Task> T viewed(T task) {
+        if (task != null) {
+            historyManager.add(task);
+        }
+        return task;
+    }
+
+    private Task viewAt(int id) {
+        return switch (TYPES[kinds[id] - 1]) {
+            case TASK -> taskAt(id);
+            case EPIC -> epicAt(id);
+            case SUBTASK -> subtaskAt(id);
+        };
+    }
+
+    private Task taskAt(int id) {
+        Task task = new Task(id, strings.get(names[id]), strings.get(descriptions[id]), statusAt(id));
+        task.setVersion(versions[id]);
+        return withTimes(id, task);
+    }
+
+    private Epic epicAt(int id) {
+        Epic epic = new Epic(id, strings.get(names[id]), strings.get(descriptions[id]));
+        epic.setStatus(statusAt(id));
+        epic.setVersion(versions[id]);
+        for (int subtaskID = next[id]; subtaskID != id; subtaskID = next[subtaskID]) {
+            epic.addSubtask(subtaskAt(subtaskID));
+        }
+        return epic;
+    }
+
+    private Subtask subtaskAt(int id) {
+        Subtask subtask = new Subtask(id, strings.get(names[id]), strings.get(descriptions[id]), statusAt(id),
+                epicIDs[id]);
+        subtask.setVersion(versions[id]);
+        return withTimes(id, subtask);
+    }
+
+    private void allocate(int capacity) {
+        kinds = new byte[capacity];
+        statuses = new byte[capacity];
+        versions = new long[capacity];
+        names = new int[capacity];
+        descriptions = new int[capacity];
+        epicIDs = new int[capacity];
+        startSeconds = new long[capacity];
+        startNanos = new int[capacity];
+        durationSeconds = new long[capacity];
+        durationNanos = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+    }
+
+    private void grow(int required) {
+        int capacity = (int) Math.min(Math.max(required, kinds.length + ((long) kinds.length >> 1)),
+                Integer.MAX_VALUE - 8);
+        kinds = Arrays.copyOf(kinds, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        epicIDs = Arrays.copyOf(epicIDs, capacity);
+        startSeconds = Arrays.copyOf(startSeconds, capacity);
+        startNanos = Arrays.copyOf(startNanos, capacity);
+        durationSeconds = Arrays.copyOf(durationSeconds, capacity);
+        durationNanos = Arrays.copyOf(durationNanos, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+
+    // Переносит живые строки в новый буфер, если больше половины старого — мусор.
+    private void compactIfNeeded() {
+        if (strings.size() < MIN_COMPACT_SIZE || strings.garbage() * 2 <= strings.size()) {
+            return;
+        }
+        Utf8Arena compacted = new Utf8Arena((int) (strings.size() - strings.garbage()));
+        for (int id = 1; id < nextID; id++) {
+            if (kinds[id] != 0) {
+                names[id] = compacted.add(strings.get(names[id]));
+                descriptions[id] = compacted.add(strings.get(descriptions[id]));
+            }
+        }
+        strings = compacted;
+    }
+}
\ No newline at end of file
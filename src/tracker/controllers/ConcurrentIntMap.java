@@ -0,0 +1,54 @@
+package tracker.controllers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потокобезопасное {@link IntMap} поверх {@link ConcurrentHashMap}: чтение без
+ * блокировок ценой упаковки ключей. Используется {@link ConcurrentTaskManager}.
+ */
+public class ConcurrentIntMap<V> implements IntMap<V> {
+    private final ConcurrentHashMap<Integer, V> map = new ConcurrentHashMap<>();
+    private final Collection<V> values = Collections.unmodifiableCollection(map.values());
+
+    @Override
+    public V get(int key) {
+        return map.get(key);
+    }
+
+    @Override
+    public V put(int key, V value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public V replace(int key, V value) {
+        return map.replace(key, value);
+    }
+
+    @Override
+    public V remove(int key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return values;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,434 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Потокобезопасный менеджер задач.
+ * Чтение по ID идёт без блокировок через {@link ConcurrentIntMap},
+ * ID выдаются атомарным счётчиком, а изменения эпика и его подзадач
+ * защищены блокировкой полосы, выбранной по ID эпика: операции над
+ * разными эпиками не конкурируют друг с другом. Добавление задач и эпиков
+ * берёт случайную полосу, так что любой писатель держит хотя бы одну.
+ * Полнотекстовый индекс и граф зависимостей строятся при первом обращении
+ * под всеми полосами, а до того не замедляют запись.
+ */
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final AtomicInteger nextID = new AtomicInteger(1);
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        this(historyManager, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentTaskManager(HistoryManager historyManager, int stripes) {
+        super(new CombiningHistoryManager(historyManager),
+                new ConcurrentIntMap<>(), new ConcurrentIntMap<>(), new ConcurrentIntMap<>(),
+                new StatusIndex(stripes));
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+        enableSnapshots();
+        setSearchSegments(stripes);
+    }
+
+    @Override
+    protected int getNextID() {
+        return nextID.getAndIncrement();
+    }
+
+    @Override
+    protected int peekNextID() {
+        return nextID.get();
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        ReentrantLock lock = anyLock();
+        lock.lock();
+        try {
+            return super.addTask(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        ReentrantLock lock = anyLock();
+        lock.lock();
+        try {
+            return super.addEpic(epic);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        ReentrantLock lock = lockFor(subtask.getEpicID());
+        lock.lock();
+        try {
+            return super.addSubtask(subtask);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            return super.updateEpic(epic);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        ReentrantLock[] pair = lockSubtask(subtask);
+        try {
+            return super.updateSubtask(subtask);
+        } finally {
+            unlock(pair);
+        }
+    }
+
+    /**
+     * Обновление задачи берёт полосу по её ID, чтобы номера версий
+     * конкурентных обновлений не совпадали.
+     */
+    @Override
+    public Task updateTask(Task task) {
+        ReentrantLock lock = lockFor(task.getId());
+        lock.lock();
+        try {
+            return super.updateTask(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Проверка версии и запись выполняются под той же блокировкой полосы, что и
+     * обычное обновление: глобальной блокировки нет, конкурируют только записи
+     * в одну полосу.
+     */
+    @Override
+    public Task compareAndUpdateTask(Task task, long expectedVersion) {
+        ReentrantLock lock = lockFor(task.getId());
+        lock.lock();
+        try {
+            return super.compareAndUpdateTask(task, expectedVersion);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Epic compareAndUpdateEpic(Epic epic, long expectedVersion) {
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            return super.compareAndUpdateEpic(epic, expectedVersion);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Epic updateEpicFields(Epic epic) {
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            return super.updateEpicFields(epic);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Epic compareAndUpdateEpicFields(Epic epic, long expectedVersion) {
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            return super.compareAndUpdateEpicFields(epic, expectedVersion);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask compareAndUpdateSubtask(Subtask subtask, long expectedVersion) {
+        ReentrantLock[] pair = lockSubtask(subtask);
+        try {
+            return super.compareAndUpdateSubtask(subtask, expectedVersion);
+        } finally {
+            unlock(pair);
+        }
+    }
+
+    @Override
+    public Collection<Subtask> getEpicSubtasks(Epic epic) {
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(super.getEpicSubtasks(epic)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Подзадачи эпика копируются под блокировкой его полосы, и поток читает уже копию.
+     */
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        if (query.getEpicID() == null) {
+            return super.query(query);
+        }
+        ReentrantLock lock = lockFor(query.getEpicID());
+        lock.lock();
+        try {
+            return super.query(query);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Пакет выполняется под всеми блокировками полос: для других изменений
+     * эпиков и подзадач он атомарен.
+     */
+    @Override
+    public List<MutationResult> applyBatch(List<Mutation> mutations) {
+        lockAll();
+        try {
+            return super.applyBatch(mutations);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteTasks() {
+        lockAll();
+        try {
+            super.deleteTasks();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteEpics() {
+        lockAll();
+        try {
+            super.deleteEpics();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        lockAll();
+        try {
+            super.deleteSubtasks();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public int recalculateEpicStatuses() {
+        lockAll();
+        try {
+            return super.recalculateEpicStatuses();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public List<Subtask> setSubtaskStatuses(Collection<Integer> epicIDs, Status status) {
+        lockAll();
+        try {
+            return super.setSubtaskStatuses(epicIDs, status);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void deleteTaskByID(int id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            super.deleteTaskByID(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteEpicByID(int id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            super.deleteEpicByID(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteSubtaskByID(int id) {
+        Subtask subtask = findSubtask(id);
+        if (subtask == null) {
+            return;
+        }
+        ReentrantLock lock = lockFor(subtask.getEpicID());
+        lock.lock();
+        try {
+            if (findSubtask(id) != null) {
+                super.deleteSubtaskByID(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void buildLazily(Runnable build) {
+        lockAll();
+        try {
+            build.run();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private ReentrantLock anyLock() {
+        return locks[ThreadLocalRandom.current().nextInt() & mask];
+    }
+
+    private ReentrantLock lockFor(int epicID) {
+        return locks[stripeOf(epicID)];
+    }
+
+    private int stripeOf(int epicID) {
+        int hash = epicID * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // Подзадача может переехать в другой эпик: берём обе полосы по возрастанию номера.
+    private ReentrantLock[] lockSubtask(Subtask subtask) {
+        Subtask oldSubtask = findSubtask(subtask.getId());
+        int stripe = stripeOf(subtask.getEpicID());
+        int oldStripe = oldSubtask == null ? stripe : stripeOf(oldSubtask.getEpicID());
+        ReentrantLock[] pair = {locks[Math.min(stripe, oldStripe)], locks[Math.max(stripe, oldStripe)]};
+        pair[0].lock();
+        pair[1].lock();
+        return pair;
+    }
+
+    private static void unlock(ReentrantLock[] pair) {
+        pair[1].unlock();
+        pair[0].unlock();
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    /**
+     * История с записью просмотров без ожидания: поток чтения кладёт просмотр в
+     * неблокирующую очередь и переносит очередь в историю, только если блокировка
+     * свободна. Иначе просмотр перенесёт текущий владелец блокировки, а удаление
+     * и чтение истории сначала дописывают всю очередь, так что порядок просмотров
+     * сохраняется.
+     */
+    private static class CombiningHistoryManager implements HistoryManager {
+        private final HistoryManager delegate;
+        private final ConcurrentLinkedQueue<Task> views = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private CombiningHistoryManager(HistoryManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void add(Task task) {
+            if (task == null) {
+                return;
+            }
+            views.offer(task);
+            // Просмотр, добавленный сразу после разблокировки, не должен остаться в очереди.
+            while (!views.isEmpty() && lock.tryLock()) {
+                try {
+                    drain();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void remove(int id) {
+            lock.lock();
+            try {
+                drain();
+                delegate.remove(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public List<Task> getHistory() {
+            lock.lock();
+            try {
+                drain();
+                return delegate.getHistory();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            Task task;
+            while ((task = views.poll()) != null) {
+                delegate.add(task);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package tracker.controllers;
+
+/**
+ * Зависимость не добавлена: блокирующая задача сама прямо или косвенно
+ * ждёт зависимую, и граф зависимостей получил бы цикл.
+ */
+public class DependencyCycleException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int taskId;
+    private final int blockerId;
+
+    public DependencyCycleException(int taskId, int blockerId) {
+        super("Task " + blockerId + " already depends on task " + taskId);
+        this.taskId = taskId;
+        this.blockerId = blockerId;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public int getBlockerId() {
+        return blockerId;
+    }
+}
\ No newline at end of file
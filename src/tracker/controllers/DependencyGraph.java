@@ -0,0 +1,290 @@
+package tracker.controllers;
+
+import tracker.model.Status;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Граф зависимостей «задача заблокирована задачей» между задачами любых типов.
+ * Смежность хранится массивами int в обе стороны: у каждой задачи — список
+ * блокирующих и список зависимых, а также число ещё не выполненных блокирующих.
+ * Готовые к работе задачи (статус NEW, все блокирующие выполнены) лежат в
+ * индексированном множестве: проверка и число готовых — O(1), а смена статуса
+ * задачи затрагивает только её прямых зависимых. Добавление зависимости, которая
+ * замкнула бы цикл, отклоняется обходом в глубину от зависимой задачи.
+ * Все методы синхронизированы.
+ */
+public class DependencyGraph {
+    private static final int[] EMPTY = new int[0];
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private final IntHashMap<Node> nodes = new IntHashMap<>();
+    private int[] ready = new int[16];
+    private int readyCount;
+    private long edgeCount;
+    // Метка текущего обхода при проверке циклов — вместо множества посещённых.
+    private int epoch;
+
+    /**
+     * Добавляет задачу или обновляет её статус, пересчитывая готовность прямых зависимых.
+     */
+    public synchronized void index(Task task) {
+        Node node = nodes.get(task.getId());
+        if (node == null) {
+            node = new Node(task.getId(), TaskType.of(task));
+            nodes.put(node.id, node);
+        }
+        Status previous = node.status;
+        Status status = task.getStatus();
+        if (previous == status) {
+            return;
+        }
+        node.status = status;
+        if (previous == Status.DONE || status == Status.DONE) {
+            int delta = status == Status.DONE ? -1 : 1;
+            for (int i = 0; i < node.dependentCount; i++) {
+                Node dependent = nodes.get(node.dependents[i]);
+                dependent.openBlockers += delta;
+                refresh(dependent);
+            }
+        }
+        refresh(node);
+    }
+
+    /**
+     * Удаляет задачу вместе со всеми её зависимостями.
+     */
+    public synchronized void remove(int id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return;
+        }
+        for (int i = 0; i < node.dependentCount; i++) {
+            Node dependent = nodes.get(node.dependents[i]);
+            dependent.removeBlocker(id);
+            if (node.status != Status.DONE) {
+                dependent.openBlockers--;
+            }
+            refresh(dependent);
+        }
+        for (int i = 0; i < node.blockerCount; i++) {
+            nodes.get(node.blockers[i]).removeDependent(id);
+        }
+        edgeCount -= node.blockerCount + node.dependentCount;
+        unready(node);
+    }
+
+    /**
+     * Удаляет все задачи типа вместе с их зависимостями.
+     */
+    public synchronized void clear(TaskType type) {
+        List<Node> cleared = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (TYPES[node.type] == type) {
+                cleared.add(node);
+            }
+        }
+        for (Node node : cleared) {
+            remove(node.id);
+        }
+    }
+
+    /**
+     * Задача taskId не может начаться, пока не выполнена blockerId. Обе задачи должны
+     * быть в графе. Повторное добавление той же зависимости ничего не меняет.
+     *
+     * @throws DependencyCycleException если blockerId прямо или косвенно ждёт taskId
+     */
+    public synchronized void addDependency(int taskId, int blockerId) {
+        Node task = require(taskId);
+        Node blocker = require(blockerId);
+        if (task.hasBlocker(blockerId)) {
+            return;
+        }
+        if (taskId == blockerId || reaches(task, blockerId)) {
+            throw new DependencyCycleException(taskId, blockerId);
+        }
+        task.addBlocker(blockerId);
+        blocker.addDependent(taskId);
+        edgeCount++;
+        if (blocker.status != Status.DONE) {
+            task.openBlockers++;
+            refresh(task);
+        }
+    }
+
+    /**
+     * Убирает зависимость; возвращает false, если её не было.
+     */
+    public synchronized boolean removeDependency(int taskId, int blockerId) {
+        Node task = nodes.get(taskId);
+        if (task == null || !task.removeBlocker(blockerId)) {
+            return false;
+        }
+        Node blocker = nodes.get(blockerId);
+        blocker.removeDependent(taskId);
+        edgeCount--;
+        if (blocker.status != Status.DONE) {
+            task.openBlockers--;
+            refresh(task);
+        }
+        return true;
+    }
+
+    public synchronized int[] getBlockers(int id) {
+        Node node = nodes.get(id);
+        return node == null ? EMPTY : Arrays.copyOf(node.blockers, node.blockerCount);
+    }
+
+    public synchronized int[] getDependents(int id) {
+        Node node = nodes.get(id);
+        return node == null ? EMPTY : Arrays.copyOf(node.dependents, node.dependentCount);
+    }
+
+    public synchronized boolean isReady(int id) {
+        Node node = nodes.get(id);
+        return node != null && node.readyIndex >= 0;
+    }
+
+    public synchronized int getReadyCount() {
+        return readyCount;
+    }
+
+    /**
+     * Не больше limit ID готовых задач в произвольном порядке, за O(limit).
+     */
+    public synchronized int[] getReady(int limit) {
+        return Arrays.copyOf(ready, Math.max(0, Math.min(limit, readyCount)));
+    }
+
+    public synchronized long getEdgeCount() {
+        return edgeCount;
+    }
+
+    private Node require(int id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            throw new IllegalArgumentException("Task " + id + " is not in the dependency graph");
+        }
+        return node;
+    }
+
+    // Достижима ли задача target из from по рёбрам «блокирует → зависимая».
+    private boolean reaches(Node from, int target) {
+        int mark = ++epoch;
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = from.id;
+        from.visited = mark;
+        while (size > 0) {
+            Node node = nodes.get(stack[--size]);
+            for (int i = 0; i < node.dependentCount; i++) {
+                int next = node.dependents[i];
+                if (next == target) {
+                    return true;
+                }
+                Node dependent = nodes.get(next);
+                if (dependent.visited != mark) {
+                    dependent.visited = mark;
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
+                    }
+                    stack[size++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void refresh(Node node) {
+        if (node.status == Status.NEW && node.openBlockers == 0) {
+            if (node.readyIndex < 0) {
+                if (readyCount == ready.length) {
+                    ready = Arrays.copyOf(ready, readyCount * 2);
+                }
+                node.readyIndex = readyCount;
+                ready[readyCount++] = node.id;
+            }
+        } else {
+            unready(node);
+        }
+    }
+
+    private void unready(Node node) {
+        int index = node.readyIndex;
+        if (index < 0) {
+            return;
+        }
+        int last = ready[--readyCount];
+        if (last != node.id) {
+            ready[index] = last;
+            nodes.get(last).readyIndex = index;
+        }
+        node.readyIndex = -1;
+    }
+
+    private static final class Node {
+        private final int id;
+        private final byte type;
+        private Status status;
+        private int[] blockers = EMPTY;
+        private int blockerCount;
+        private int[] dependents = EMPTY;
+        private int dependentCount;
+        private int openBlockers;
+        private int readyIndex = -1;
+        private int visited;
+
+        private Node(int id, TaskType type) {
+            this.id = id;
+            this.type = (byte) type.ordinal();
+        }
+
+        private boolean hasBlocker(int id) {
+            return indexOf(blockers, blockerCount, id) >= 0;
+        }
+
+        private void addBlocker(int id) {
+            if (blockerCount == blockers.length) {
+                blockers = Arrays.copyOf(blockers, Math.max(4, blockerCount * 2));
+            }
+            blockers[blockerCount++] = id;
+        }
+
+        private void addDependent(int id) {
+            if (dependentCount == dependents.length) {
+                dependents = Arrays.copyOf(dependents, Math.max(4, dependentCount * 2));
+            }
+            dependents[dependentCount++] = id;
+        }
+
+        private boolean removeBlocker(int id) {
+            int index = indexOf(blockers, blockerCount, id);
+            if (index < 0) {
+                return false;
+            }
+            blockers[index] = blockers[--blockerCount];
+            return true;
+        }
+
+        private void removeDependent(int id) {
+            int index = indexOf(dependents, dependentCount, id);
+            if (index >= 0) {
+                dependents[index] = dependents[--dependentCount];
+            }
+        }
+
+        private static int indexOf(int[] ids, int count, int id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,688 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Менеджер задач, сохраняющий состояние на диск.
+ * Каждое изменение дописывается в двоичный журнал {@value #LOG_FILE}, и метод
+ * возвращает управление только после fsync его записи. Пакет {@link #applyBatch}
+ * копит записи всех своих операций и выполняет один fsync в конце.
+ * Каждые {@code snapshotInterval} записей состояние целиком сохраняется в снимок
+ * {@value #SNAPSHOT_FILE}, а журнал обрезается, так что восстановление читает
+ * снимок и только хвост журнала.
+ *
+ * <p>Изменения и удаления пишутся в журнал до изменения памяти: если запись не
+ * удалась, состояние в памяти не меняется. Отклонённая после записи операция
+ * так же отклоняется при повторе журнала. Добавление пишется после, потому что
+ * ID выдаёт менеджер, и при ошибке записи добавленная задача удаляется. После
+ * первой ошибки журнала менеджер отклоняет любые изменения. Не потокобезопасен.
+ *
+ * <p>Зависимости между задачами пишутся в журнал при добавлении и удалении,
+ * а в снимок — списком блокирующих каждой задачи.
+ *
+ * <p>Просмотры не пишутся на диск при чтении: изменившаяся история дописывается
+ * одной записью перед следующим изменением, в снимок и при закрытии.
+ *
+ * <p>Запись журнала: длина, CRC32 и тело (номер записи, код операции, данные).
+ * Недописанный хвост после сбоя отбрасывается при восстановлении.
+ */
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    public static final String LOG_FILE = "tasks.log";
+    public static final String SNAPSHOT_FILE = "tasks.snapshot";
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+    private static final int SNAPSHOT_MAGIC = 0x4B424E53;
+    // Версия 4: записи задач с началом и длительностью, см. TaskRecords.
+    private static final int SNAPSHOT_VERSION = 4;
+    // Снимки этой версии и новее хранят зависимости.
+    private static final int SNAPSHOT_WITH_DEPENDENCIES = 3;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_DELETE = 3;
+    private static final byte OP_DELETE_ALL = 4;
+    // Просмотр по одному — только в журналах прежних версий.
+    private static final byte OP_VIEW = 5;
+    private static final byte OP_HISTORY = 6;
+    private static final byte OP_RESTORE = 7;
+    private static final byte OP_SET_STATUSES = 8;
+    private static final byte OP_DEPEND = 9;
+    private static final byte OP_UNDEPEND = 10;
+
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final int snapshotInterval;
+    private final HistoryManager history;
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    private final ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pendingBytes);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel log;
+    private OutputStream logStream;
+    private long sequence;
+    private int recordsSinceSnapshot;
+    // Глубина вложенности пакетов: внутри пакета записи копятся до общего fsync.
+    private int batchDepth;
+    private IOException failure;
+    private boolean historyChanged;
+
+    public FileBackedTaskManager(HistoryManager historyManager, Path directory) {
+        this(historyManager, directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public FileBackedTaskManager(HistoryManager historyManager, Path directory, int snapshotInterval) {
+        super(historyManager);
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        this.logPath = directory.resolve(LOG_FILE);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.snapshotInterval = snapshotInterval;
+        this.history = historyManager;
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(snapshotPath)) {
+                loadSnapshot();
+            }
+            long validLength = Files.exists(logPath) ? replayLog() : 0;
+            log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            log.truncate(validLength);
+            log.position(validLength);
+            logStream = Channels.newOutputStream(log);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось восстановить менеджер из " + directory, e);
+        }
+        historyChanged = false;
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        checkWritable();
+        return logAdded(super.addTask(task), super::deleteTaskByID);
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        checkWritable();
+        return logAdded(super.addEpic(epic), super::deleteEpicByID);
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        checkWritable();
+        return logAdded(super.addSubtask(subtask), super::deleteSubtaskByID);
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        return logged(OP_UPDATE, out -> TaskRecords.writeTask(out, task), () -> super.updateTask(task));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return logged(OP_UPDATE, out -> {
+            TaskRecords.writeTask(out, epic);
+            out.writeInt(epic.getSubtaskCount());
+            for (Subtask subtask : epic.getSubtasks()) {
+                TaskRecords.writeTask(out, subtask);
+            }
+        }, () -> super.updateEpic(epic));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return logged(OP_UPDATE, out -> TaskRecords.writeTask(out, subtask), () -> super.updateSubtask(subtask));
+    }
+
+    // Пишется сама операция: повтор даёт те же статусы и версии.
+    @Override
+    public List<Subtask> setSubtaskStatuses(Collection<Integer> epicIDs, Status status) {
+        return logged(OP_SET_STATUSES, out -> {
+            out.writeByte(status.ordinal());
+            out.writeInt(epicIDs.size());
+            for (int epicID : epicIDs) {
+                out.writeInt(epicID);
+            }
+        }, () -> super.setSubtaskStatuses(epicIDs, status));
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        Task task = super.getTaskByID(id);
+        if (task != null) {
+            historyChanged = true;
+        }
+        return task;
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        Epic epic = super.getEpicByID(id);
+        if (epic != null) {
+            historyChanged = true;
+        }
+        return epic;
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        Subtask subtask = super.getSubtaskByID(id);
+        if (subtask != null) {
+            historyChanged = true;
+        }
+        return subtask;
+    }
+
+    @Override
+    public void deleteTasks() {
+        logged(OP_DELETE_ALL, out -> out.writeByte(TaskRecords.TASK), () -> {
+            super.deleteTasks();
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteEpics() {
+        logged(OP_DELETE_ALL, out -> out.writeByte(TaskRecords.EPIC), () -> {
+            super.deleteEpics();
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        logged(OP_DELETE_ALL, out -> out.writeByte(TaskRecords.SUBTASK), () -> {
+            super.deleteSubtasks();
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteTaskByID(int id) {
+        logDelete(TaskRecords.TASK, id, () -> super.deleteTaskByID(id));
+    }
+
+    @Override
+    public void deleteEpicByID(int id) {
+        logDelete(TaskRecords.EPIC, id, () -> super.deleteEpicByID(id));
+    }
+
+    @Override
+    public void deleteSubtaskByID(int id) {
+        logDelete(TaskRecords.SUBTASK, id, () -> super.deleteSubtaskByID(id));
+    }
+
+    @Override
+    public void addDependency(int taskId, int blockerId) {
+        logged(OP_DEPEND, out -> {
+            out.writeInt(taskId);
+            out.writeInt(blockerId);
+        }, () -> {
+            super.addDependency(taskId, blockerId);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean removeDependency(int taskId, int blockerId) {
+        return logged(OP_UNDEPEND, out -> {
+            out.writeInt(taskId);
+            out.writeInt(blockerId);
+        }, () -> super.removeDependency(taskId, blockerId));
+    }
+
+    /**
+     * Операции пакета пишутся в журнал по отдельности, но с одним fsync в конце.
+     * Пакет атомарен в памяти, но не между сбоями: журнал хранит его операции
+     * и отмены по отдельности, и сбой посреди пакета восстанавливает его начало.
+     * Если не удался итоговый fsync, пакет остаётся в памяти, а менеджер
+     * перестаёт принимать изменения.
+     */
+    @Override
+    public List<MutationResult> applyBatch(List<Mutation> mutations) {
+        checkWritable();
+        batchDepth++;
+        try {
+            return super.applyBatch(mutations);
+        } finally {
+            if (--batchDepth == 0) {
+                sync();
+                compactIfDue();
+            }
+        }
+    }
+
+    /**
+     * Возвращённая при откате пакета задача пишется в журнал с ID и версией.
+     */
+    @Override
+    protected void reinstate(Task task) {
+        long version = task.getVersion() + 1;
+        logged(OP_RESTORE, out -> {
+            TaskRecords.writeTask(out, task);
+            out.writeLong(version);
+        }, () -> {
+            super.reinstate(task);
+            return null;
+        });
+    }
+
+    /**
+     * Дописывает изменившуюся историю просмотров и выполняет fsync.
+     */
+    public void flush() {
+        checkWritable();
+        try {
+            appendHistoryIfChanged();
+            writePending();
+        } catch (IOException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Сохраняет снимок всего состояния и обрезает журнал.
+     */
+    public void compact() {
+        checkWritable();
+        try {
+            writePending();
+            writeSnapshot();
+            log.truncate(0);
+            log.force(true);
+            recordsSinceSnapshot = 0;
+        } catch (IOException e) {
+            failure = e;
+            throw new ManagerSaveException("Не удалось сохранить снимок " + snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (failure == null) {
+                appendHistoryIfChanged();
+                writePending();
+            }
+            log.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось закрыть журнал " + logPath, e);
+        }
+    }
+
+    private void logDelete(byte kind, int id, Runnable change) {
+        logged(OP_DELETE, out -> {
+            out.writeByte(kind);
+            out.writeInt(id);
+        }, () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    // Запись журнала до изменения памяти; снимок — только после него, иначе он потеряет изменение.
+    private <T> T logged(byte op, RecordWriter writer, Supplier<T> change) {
+        append(op, writer);
+        try {
+            return change.get();
+        } finally {
+            compactIfDue();
+        }
+    }
+
+    private <T extends Task> T logAdded(T added, IntConsumer undo) {
+        try {
+            append(OP_ADD, out -> TaskRecords.writeTask(out, added));
+        } catch (ManagerSaveException e) {
+            undo.accept(added.getId());
+            throw e;
+        }
+        compactIfDue();
+        return added;
+    }
+
+    private void append(byte op, RecordWriter writer) {
+        checkWritable();
+        try {
+            appendHistoryIfChanged();
+            writeRecord(op, writer);
+            recordsSinceSnapshot++;
+            if (batchDepth == 0) {
+                writePending();
+            }
+        } catch (IOException e) {
+            throw failed(e);
+        }
+    }
+
+    private void sync() {
+        checkWritable();
+        try {
+            writePending();
+        } catch (IOException e) {
+            throw failed(e);
+        }
+    }
+
+    private void compactIfDue() {
+        if (batchDepth == 0 && failure == null && recordsSinceSnapshot >= snapshotInterval) {
+            compact();
+        }
+    }
+
+    // История пишется целиком: она ограничена ёмкостью HistoryManager.
+    private void appendHistoryIfChanged() throws IOException {
+        if (historyChanged) {
+            historyChanged = false;
+            List<Task> viewed = history.getHistory();
+            writeRecord(OP_HISTORY, out -> {
+                out.writeInt(viewed.size());
+                for (Task task : viewed) {
+                    out.writeByte(TaskRecords.kindOf(task));
+                    out.writeInt(task.getId());
+                }
+            });
+        }
+    }
+
+    private void writeRecord(byte op, RecordWriter writer) throws IOException {
+        recordBytes.reset();
+        recordOut.writeLong(++sequence);
+        recordOut.writeByte(op);
+        writer.write(recordOut);
+        crc.reset();
+        crc.update(recordBytes.toByteArray(), 0, recordBytes.size());
+        pendingOut.writeInt(recordBytes.size());
+        pendingOut.writeInt((int) crc.getValue());
+        recordBytes.writeTo(pendingOut);
+    }
+
+    private void checkWritable() {
+        if (failure != null) {
+            throw new ManagerSaveException("Журнал " + logPath + " недоступен для записи", failure);
+        }
+    }
+
+    // Неясно, что из буфера дошло до диска: дальнейшие изменения отклоняются.
+    private ManagerSaveException failed(IOException e) {
+        failure = e;
+        return new ManagerSaveException("Не удалось записать журнал " + logPath, e);
+    }
+
+    private void writePending() throws IOException {
+        if (pendingBytes.size() > 0) {
+            pendingBytes.writeTo(logStream);
+            pendingBytes.reset();
+            log.force(false);
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path tmp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(peekNextID());
+            writeAll(out, getTasks());
+            writeAll(out, getEpics());
+            writeAll(out, getSubtasks());
+            historyChanged = false;
+            List<Task> viewed = history.getHistory();
+            out.writeInt(viewed.size());
+            for (Task task : viewed) {
+                out.writeByte(TaskRecords.kindOf(task));
+                out.writeInt(task.getId());
+            }
+            writeDependencies(out);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeDependencies(DataOutput out) throws IOException {
+        List<Task> blocked = new ArrayList<>();
+        List<int[]> blockers = new ArrayList<>();
+        for (List<? extends Task> tasks : List.of(getTasks(), getEpics(), getSubtasks())) {
+            for (Task task : tasks) {
+                int[] ids = getBlockers(task.getId());
+                if (ids.length > 0) {
+                    blocked.add(task);
+                    blockers.add(ids);
+                }
+            }
+        }
+        out.writeInt(blocked.size());
+        for (int i = 0; i < blocked.size(); i++) {
+            out.writeInt(blocked.get(i).getId());
+            out.writeInt(blockers.get(i).length);
+            for (int id : blockers.get(i)) {
+                out.writeInt(id);
+            }
+        }
+    }
+
+    private static void writeAll(DataOutput out, List<? extends Task> tasks) throws IOException {
+        out.writeInt(tasks.size());
+        for (Task task : tasks) {
+            TaskRecords.writeTask(out, task);
+            out.writeLong(task.getVersion());
+        }
+    }
+
+    private void loadSnapshot() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (version < 2 || version > SNAPSHOT_VERSION) {
+                throw new ManagerSaveException("Неизвестный формат снимка " + snapshotPath);
+            }
+            sequence = in.readLong();
+            int nextID = in.readInt();
+            for (int section = 0; section < 3; section++) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    // Версии журнал не хранит: повтор записей после снимка увеличивает их так же, как при работе.
+                    Task task = TaskRecords.readTask(in);
+                    task.setVersion(in.readLong());
+                    restoreTask(task);
+                }
+            }
+            setNextID(nextID);
+            int historySize = in.readInt();
+            for (int i = 0; i < historySize; i++) {
+                replayView(in.readByte(), in.readInt());
+            }
+            if (version >= SNAPSHOT_WITH_DEPENDENCIES) {
+                for (int count = in.readInt(); count > 0; count--) {
+                    int taskId = in.readInt();
+                    for (int i = in.readInt(); i > 0; i--) {
+                        super.addDependency(taskId, in.readInt());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Применяет записи журнала новее снимка и возвращает длину корректной части файла.
+     */
+    private long replayLog() throws IOException {
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long recordSequence = record.readLong();
+                if (recordSequence > sequence) {
+                    applyRecord(record.readByte(), record);
+                    sequence = recordSequence;
+                    recordsSinceSnapshot++;
+                }
+                validLength += 8 + payload.length;
+            }
+        }
+        return validLength;
+    }
+
+    private void applyRecord(byte op, DataInputStream in) throws IOException {
+        switch (op) {
+            case OP_ADD:
+                replayAdd(TaskRecords.readTask(in));
+                break;
+            case OP_UPDATE:
+                try {
+                    replayUpdate(TaskRecords.readTask(in), in);
+                } catch (IllegalArgumentException | TaskOverlapException e) {
+                    // Запись сделана до изменения, которое затем было отклонено.
+                }
+                break;
+            case OP_DELETE:
+                replayDelete(in.readByte(), in.readInt());
+                break;
+            case OP_DELETE_ALL:
+                replayDeleteAll(in.readByte());
+                break;
+            case OP_VIEW:
+                replayView(in.readByte(), in.readInt());
+                break;
+            case OP_RESTORE:
+                Task restored = TaskRecords.readTask(in);
+                restored.setVersion(in.readLong());
+                restoreTask(restored);
+                break;
+            case OP_SET_STATUSES:
+                Status status = Status.values()[in.readByte()];
+                List<Integer> epicIDs = new ArrayList<>();
+                for (int count = in.readInt(); count > 0; count--) {
+                    epicIDs.add(in.readInt());
+                }
+                super.setSubtaskStatuses(epicIDs, status);
+                break;
+            case OP_DEPEND:
+                int taskId = in.readInt();
+                int blockerId = in.readInt();
+                try {
+                    super.addDependency(taskId, blockerId);
+                } catch (IllegalArgumentException | DependencyCycleException e) {
+                    // Зависимость была отклонена уже после записи.
+                }
+                break;
+            case OP_UNDEPEND:
+                super.removeDependency(in.readInt(), in.readInt());
+                break;
+            case OP_HISTORY:
+                for (Task task : history.getHistory()) {
+                    history.remove(task.getId());
+                }
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    replayView(in.readByte(), in.readInt());
+                }
+                break;
+            default:
+                throw new ManagerSaveException("Неизвестная операция в журнале: " + op);
+        }
+    }
+
+    // ID берётся из журнала: неудачные добавления тоже расходуют ID, но в журнал не попадают.
+    private void replayAdd(Task task) {
+        task.setVersion(1);
+        restoreTask(task);
+    }
+
+    private void replayUpdate(Task task, DataInputStream in) throws IOException {
+        if (task instanceof Subtask) {
+            super.updateSubtask((Subtask) task);
+        } else if (task instanceof Epic) {
+            Epic epic = (Epic) task;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                epic.addSubtask((Subtask) TaskRecords.readTask(in));
+            }
+            super.updateEpic(epic);
+        } else {
+            super.updateTask(task);
+        }
+    }
+
+    private void replayDelete(byte kind, int id) {
+        if (kind == TaskRecords.SUBTASK) {
+            super.deleteSubtaskByID(id);
+        } else if (kind == TaskRecords.EPIC) {
+            super.deleteEpicByID(id);
+        } else {
+            super.deleteTaskByID(id);
+        }
+    }
+
+    private void replayDeleteAll(byte kind) {
+        if (kind == TaskRecords.SUBTASK) {
+            super.deleteSubtasks();
+        } else if (kind == TaskRecords.EPIC) {
+            super.deleteEpics();
+        } else {
+            super.deleteTasks();
+        }
+    }
+
+    private void replayView(byte kind, int id) {
+        if (kind == TaskRecords.SUBTASK) {
+            super.getSubtaskByID(id);
+        } else if (kind == TaskRecords.EPIC) {
+            super.getEpicByID(id);
+        } else {
+            super.getTaskByID(id);
+        }
+    }
+
+    private interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+}
\ No newline at end of file
@@ -5,5 +5,6 @@ import java.util.List;
 
 public interface HistoryManager {
     void add(Task task);
+    void remove(int id);
     List<Task> getHistory();
 }
\ No newline at end of file
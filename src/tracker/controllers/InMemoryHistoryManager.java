@@ -1,22 +1,118 @@
 package tracker.controllers;
 
 import tracker.model.Task;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * История просмотров на основе индекса по ID и двусвязного списка.
+ * Добавление, удаление дубликата и удаление по ID выполняются за O(1),
+ * а {@link #getHistory()} отдаёт кэшированный неизменяемый снимок,
+ * который пересобирается только после изменения истории.
+ */
 public class InMemoryHistoryManager implements HistoryManager {
-    private final List<Task> history = new ArrayList<>();
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private final Map<Integer, Node> index = new HashMap<>();
+    private final int capacity;
+    private Node head;
+    private Node tail;
+    private List<Task> snapshot;
+
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
 
     @Override
     public void add(Task task) {
-        history.add(task);
-        if (history.size() > 10) {
-            history.remove(0);
+        if (task == null) {
+            return;
+        }
+        Node node = index.remove(task.getId());
+        if (node != null) {
+            unlink(node);
+        }
+        linkLast(new Node(task));
+        if (index.size() > capacity) {
+            index.remove(head.task.getId());
+            unlink(head);
+        }
+        snapshot = null;
+    }
+
+    @Override
+    public void remove(int id) {
+        Node node = index.remove(id);
+        if (node != null) {
+            unlink(node);
+            snapshot = null;
         }
     }
 
     @Override
     public List<Task> getHistory() {
-        return new ArrayList<>(history);
+        if (snapshot == null) {
+            Task[] tasks = new Task[index.size()];
+            int i = 0;
+            for (Node node = head; node != null; node = node.next) {
+                tasks[i++] = node.task;
+            }
+            snapshot = Collections.unmodifiableList(Arrays.asList(tasks));
+        }
+        return snapshot;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void linkLast(Node node) {
+        node.prev = tail;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        index.put(node.task.getId(), node);
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static class Node {
+        private final Task task;
+        private Node prev;
+        private Node next;
+
+        private Node(Task task) {
+            this.task = task;
+        }
     }
 }
\ No newline at end of file
@@ -1,102 +1,290 @@
 package tracker.controllers;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import tracker.events.Subscription;
+import tracker.events.TaskEvent;
+import tracker.events.TaskEventBus;
+import tracker.events.TaskEventListener;
 import tracker.model.Task;
 import tracker.model.Epic;
 import tracker.model.Subtask;
 import tracker.model.Status;
+import tracker.model.TaskType;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    private final Map<Integer, Task> tasks = new HashMap<>();
-    private final Map<Integer, Epic> epics = new HashMap<>();
-    private final Map<Integer, Subtask> subtasks = new HashMap<>();
+    private final IntMap<Task> tasks;
+    private final IntMap<Epic> epics;
+    private final IntMap<Subtask> subtasks;
     private final HistoryManager historyManager;
+    private final StatusIndex statusIndex;
+    private final TaskEventBus events = new TaskEventBus();
+    private final LongAdder versionConflicts = new LongAdder();
+    private final ScheduleIndex schedule = new ScheduleIndex();
+    // Текущая версия среза доски; null, пока срезы не запрашивали.
+    private volatile AtomicReference<BoardSnapshot> snapshot;
+    // Изменения среза в текущей операции потока; null вне операции. Операция
+    // публикует их одной заменой, чтобы срез не видел её промежуточных шагов.
+    private final ThreadLocal<List<UnaryOperator<BoardSnapshot>>> boardChanges = new ThreadLocal<>();
+    // Полнотекстовый индекс; null, пока поиск не вызывали.
+    private volatile SearchIndex searchIndex;
+    private int searchSegments = 1;
+    // Граф зависимостей, включается первой добавленной зависимостью.
+    private volatile DependencyGraph dependencies;
 
     private int nextID = 1;
+    // Эпики, статус которых нужно пересчитать в конце текущего пакета; null вне пакета.
+    private IntHashMap<Epic> pendingEpics;
 
     public InMemoryTaskManager(HistoryManager historyManager) {
+        this(historyManager, new IntHashMap<>(), new IntHashMap<>(), new IntHashMap<>(), new StatusIndex());
+    }
+
+    protected InMemoryTaskManager(HistoryManager historyManager, IntMap<Task> tasks, IntMap<Epic> epics,
+                                  IntMap<Subtask> subtasks, StatusIndex statusIndex) {
         this.historyManager = historyManager;
+        this.statusIndex = statusIndex;
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
     }
 
-    private int getNextID() {
+    protected int getNextID() {
         return nextID++;
     }
 
+    // Задача без начала получает ID, не заходя в расписание: оно синхронизировано.
+    private void assignID(Task task) {
+        if (task.getStartTime() == null) {
+            task.setId(getNextID());
+        } else {
+            schedule.add(task, this::getNextID);
+        }
+    }
+
     @Override
     public Task addTask(Task task) {
-        task.setId(getNextID());
+        assignID(task);
+        task.setVersion(1);
         tasks.put(task.getId(), task);
+        stored(task);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.created(task));
+        }
         return task;
     }
 
     @Override
     public Epic addEpic(Epic epic) {
         epic.setId(getNextID());
+        epic.setVersion(1);
         epics.put(epic.getId(), epic);
+        stored(epic);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.created(epic));
+        }
         return epic;
     }
 
     @Override
     public Subtask addSubtask(Subtask subtask) {
-        subtask.setId(getNextID());
-        Epic epic = epics.get(subtask.getEpicID());
-        epic.addSubtask(subtask);
-        subtasks.put(subtask.getId(), subtask);
-        updateEpicStatus(epic);
-        return subtask;
+        boolean began = beginBoardChange();
+        try {
+            // Эпик проверяется до выдачи ID, чтобы отказ не расходовал номер.
+            Epic epic = epics.get(subtask.getEpicID());
+            if (epic == null) {
+                throw new IllegalArgumentException("Epic " + subtask.getEpicID() + " does not exist");
+            }
+            assignID(subtask);
+            subtask.setVersion(1);
+            epic.addSubtask(subtask);
+            subtasks.put(subtask.getId(), subtask);
+            stored(subtask);
+            if (events.hasSubscribers()) {
+                events.publish(TaskEvent.created(subtask));
+            }
+            updateEpicStatus(epic);
+            return subtask;
+        } finally {
+            publishBoard(began);
+        }
     }
 
     @Override
     public Task updateTask(Task task) {
-        Integer taskID = task.getId();
-        if (taskID == null || !tasks.containsKey(taskID)) {
+        if (!tasks.containsKey(task.getId())) {
+            return null;
+        }
+        schedule.index(task);
+        Task oldTask = tasks.replace(task.getId(), task);
+        if (oldTask == null) {
+            schedule.remove(task.getId());
             return null;
         }
-        tasks.replace(taskID, task);
+        task.setVersion(oldTask.getVersion() + 1);
+        stored(task);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.updated(task));
+        }
         return task;
     }
 
     @Override
     public Epic updateEpic(Epic epic) {
-        Integer epicID = epic.getId();
-        if (epicID == null || !epics.containsKey(epicID)) {
-            return null;
-        }
-        Epic oldEpic = epics.get(epicID);
-        ArrayList<Subtask> oldEpicSubtaskList = oldEpic.getSubtaskList();
-        if (!oldEpicSubtaskList.isEmpty()) {
-            for (Subtask subtask : oldEpicSubtaskList) {
-                subtasks.remove(subtask.getId());
+        boolean began = beginBoardChange();
+        try {
+            int epicID = epic.getId();
+            if (!epics.containsKey(epicID)) {
+                return null;
             }
-        }
-        epics.replace(epicID, epic);
-        ArrayList<Subtask> newEpicSubtaskList = epic.getSubtaskList();
-        if (!newEpicSubtaskList.isEmpty()) {
-            for (Subtask subtask : newEpicSubtaskList) {
+            Epic oldEpic = epics.get(epicID);
+            scheduleAll(epic.getSubtasks(), oldEpic);
+            epic.setVersion(oldEpic.getVersion() + 1);
+            for (Subtask subtask : oldEpic.getSubtasks()) {
+                // Оставшиеся в эпике подзадачи сохраняют свои зависимости.
+                if (!epic.containsSubtask(subtask.getId())) {
+                    subtasks.remove(subtask.getId());
+                    removed(TaskType.SUBTASK, subtask.getId());
+                }
+            }
+            epics.put(epicID, epic);
+            for (Subtask subtask : epic.getSubtasks()) {
                 subtasks.put(subtask.getId(), subtask);
+                stored(subtask);
+            }
+            if (events.hasSubscribers()) {
+                events.publish(TaskEvent.updated(epic));
             }
+            updateEpicStatus(epic);
+            return epic;
+        } finally {
+            publishBoard(began);
+        }
+    }
+
+    // Ставит в расписание подзадачи нового эпика; при пересечении возвращает прежние.
+    private void scheduleAll(Collection<Subtask> incoming, Epic oldEpic) {
+        List<Subtask> indexed = new ArrayList<>();
+        try {
+            for (Subtask subtask : incoming) {
+                schedule.index(subtask);
+                indexed.add(subtask);
+            }
+        } catch (TaskOverlapException e) {
+            for (Subtask subtask : indexed) {
+                Subtask previous = oldEpic.getSubtask(subtask.getId());
+                if (previous == null) {
+                    schedule.remove(subtask.getId());
+                } else {
+                    schedule.index(previous);
+                }
+            }
+            throw e;
         }
-        updateEpicStatus(epic);
-        return epic;
     }
 
     @Override
     public Subtask updateSubtask(Subtask subtask) {
-        Integer subtaskID = subtask.getId();
-        if (subtaskID == null || !subtasks.containsKey(subtaskID)) {
+        boolean began = beginBoardChange();
+        try {
+            int subtaskID = subtask.getId();
+            if (!subtasks.containsKey(subtaskID)) {
+                return null;
+            }
+            if (!epics.containsKey(subtask.getEpicID())) {
+                throw new IllegalArgumentException("Epic " + subtask.getEpicID() + " does not exist");
+            }
+            schedule.index(subtask);
+            Subtask oldSubtask = subtasks.get(subtaskID);
+            subtask.setVersion(oldSubtask.getVersion() + 1);
+            subtasks.put(subtaskID, subtask);
+            stored(subtask);
+            if (events.hasSubscribers()) {
+                events.publish(TaskEvent.updated(subtask));
+            }
+            Epic epic = epics.get(subtask.getEpicID());
+            if (oldSubtask.getEpicID() != subtask.getEpicID()) {
+                Epic oldEpic = epics.get(oldSubtask.getEpicID());
+                oldEpic.removeSubtask(subtaskID);
+                updateEpicStatus(oldEpic);
+                epic.addSubtask(subtask);
+            } else {
+                epic.replaceSubtask(subtask);
+            }
+            updateEpicStatus(epic);
+            return subtask;
+        } finally {
+            publishBoard(began);
+        }
+    }
+
+    @Override
+    public Task compareAndUpdateTask(Task task, long expectedVersion) {
+        Task current = tasks.get(task.getId());
+        if (current == null) {
             return null;
         }
-        int epicID = subtask.getEpicID();
-        Subtask oldSubtask = subtasks.get(subtaskID);
-        subtasks.replace(subtaskID, subtask);
-        Epic epic = epics.get(epicID);
-        ArrayList<Subtask> subtaskList = epic.getSubtaskList();
-        subtaskList.remove(oldSubtask);
-        subtaskList.add(subtask);
-        epic.setSubtaskList(subtaskList);
-        updateEpicStatus(epic);
-        return subtask;
+        checkVersion(current, expectedVersion);
+        return updateTask(task);
+    }
+
+    @Override
+    public Epic compareAndUpdateEpic(Epic epic, long expectedVersion) {
+        Epic current = epics.get(epic.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateEpic(epic);
+    }
+
+    /**
+     * Подзадачи берутся у сохранённого эпика в том же вызове, так что под
+     * блокировкой эпика обновление не теряет добавленные параллельно подзадачи.
+     */
+    @Override
+    public Epic updateEpicFields(Epic epic) {
+        Epic current = epics.get(epic.getId());
+        if (current == null) {
+            return null;
+        }
+        epic.clearSubtasks();
+        for (Subtask subtask : current.getSubtasks()) {
+            epic.addSubtask(subtask);
+        }
+        return updateEpic(epic);
+    }
+
+    @Override
+    public Epic compareAndUpdateEpicFields(Epic epic, long expectedVersion) {
+        Epic current = epics.get(epic.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateEpicFields(epic);
+    }
+
+    @Override
+    public Subtask compareAndUpdateSubtask(Subtask subtask, long expectedVersion) {
+        Subtask current = subtasks.get(subtask.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateSubtask(subtask);
+    }
+
+    /**
+     * Число условных обновлений, отклонённых из-за устаревшей версии.
+     */
+    public long getVersionConflicts() {
+        return versionConflicts.sum();
     }
 
     @Override
@@ -142,54 +330,200 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     @Override
-    public ArrayList<Subtask> getEpicSubtasks(Epic epic) {
-        return epic.getSubtaskList();
+    public Collection<Subtask> getEpicSubtasks(Epic epic) {
+        return epic.getSubtasks();
     }
 
     @Override
     public void deleteTasks() {
+        for (Task task : tasks.values()) {
+            historyManager.remove(task.getId());
+        }
         tasks.clear();
+        cleared(TaskType.TASK);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.cleared(TaskType.TASK));
+        }
     }
 
     @Override
     public void deleteEpics() {
-        epics.clear();
-        subtasks.clear();
+        boolean began = beginBoardChange();
+        try {
+            for (Epic epic : epics.values()) {
+                historyManager.remove(epic.getId());
+            }
+            for (Subtask subtask : subtasks.values()) {
+                historyManager.remove(subtask.getId());
+            }
+            epics.clear();
+            subtasks.clear();
+            cleared(TaskType.EPIC);
+            cleared(TaskType.SUBTASK);
+            if (events.hasSubscribers()) {
+                events.publish(TaskEvent.cleared(TaskType.SUBTASK));
+                events.publish(TaskEvent.cleared(TaskType.EPIC));
+            }
+        } finally {
+            publishBoard(began);
+        }
     }
 
     @Override
     public void deleteSubtasks() {
-        subtasks.clear();
-        for (Epic epic : epics.values()) {
-            epic.clearSubtasks();
-            epic.setStatus(Status.NEW);
+        boolean began = beginBoardChange();
+        try {
+            for (Subtask subtask : subtasks.values()) {
+                historyManager.remove(subtask.getId());
+            }
+            subtasks.clear();
+            cleared(TaskType.SUBTASK);
+            boolean publishing = events.hasSubscribers();
+            if (publishing) {
+                events.publish(TaskEvent.cleared(TaskType.SUBTASK));
+            }
+            Epic[] all = epics.values().toArray(new Epic[0]);
+            boolean[] changed = new boolean[all.length];
+            ParallelBulk.forEachIndex(all.length, i -> {
+                all[i].clearSubtasks();
+                changed[i] = refreshEpicStatus(all[i], Status.NEW, publishing);
+            });
+            storedChanged(all, changed, List.of());
+        } finally {
+            publishBoard(began);
+        }
+    }
+
+    /**
+     * Пересчитывает статусы всех эпиков по текущим статусам их подзадач — например,
+     * после массового изменения подзадач на месте, в обход updateSubtask. Эпики
+     * обрабатываются параллельно на общем пуле fork/join. Возвращает число эпиков,
+     * у которых сменился статус.
+     */
+    public int recalculateEpicStatuses() {
+        Epic[] all = epics.values().toArray(new Epic[0]);
+        boolean[] changed = new boolean[all.length];
+        boolean[] recounted = new boolean[all.length];
+        boolean publishing = events.hasSubscribers();
+        ParallelBulk.forEachIndex(all.length, i -> {
+            Epic epic = all[i];
+            if (epic.recountStatuses()) {
+                recounted[i] = true;
+                for (Subtask subtask : epic.getSubtasks()) {
+                    statusIndex.index(subtask);
+                }
+            }
+            changed[i] = refreshEpicStatus(epic, epic.calculateStatus(), publishing);
+        });
+        List<Subtask> restated = new ArrayList<>();
+        for (int i = 0; i < all.length; i++) {
+            if (recounted[i]) {
+                restated.addAll(all[i].getSubtasks());
+            }
+        }
+        return storedChanged(all, changed, restated);
+    }
+
+    /**
+     * Переводит все подзадачи указанных эпиков в статус status и пересчитывает
+     * статусы эпиков. Эпики обрабатываются параллельно, несуществующие ID
+     * пропускаются. Версия растёт у каждой изменённой подзадачи и у эпика,
+     * если сменился его статус. Возвращает подзадачи, статус которых изменился.
+     */
+    public List<Subtask> setSubtaskStatuses(Collection<Integer> epicIDs, Status status) {
+        Epic[] selected = epicIDs.stream().distinct().map(epics::get).filter(Objects::nonNull).toArray(Epic[]::new);
+        boolean[] changed = new boolean[selected.length];
+        Subtask[][] updated = new Subtask[selected.length][];
+        boolean publishing = events.hasSubscribers();
+        ParallelBulk.forEachIndex(selected.length, i -> {
+            Epic epic = selected[i];
+            List<Subtask> epicUpdated = new ArrayList<>();
+            for (Subtask subtask : epic.getSubtasks()) {
+                if (subtask.getStatus() != status) {
+                    subtask.setStatus(status);
+                    subtask.setVersion(subtask.getVersion() + 1);
+                    epic.replaceSubtask(subtask);
+                    statusIndex.index(subtask);
+                    epicUpdated.add(subtask);
+                    if (publishing) {
+                        events.publish(TaskEvent.updated(subtask));
+                    }
+                }
+            }
+            updated[i] = epicUpdated.toArray(new Subtask[0]);
+            changed[i] = refreshEpicStatus(epic, epic.calculateStatus(), publishing);
+            if (changed[i]) {
+                epic.setVersion(epic.getVersion() + 1);
+            }
+        });
+        List<Subtask> result = new ArrayList<>();
+        for (Subtask[] epicUpdated : updated) {
+            Collections.addAll(result, epicUpdated);
         }
+        storedChanged(selected, changed, result);
+        return result;
     }
 
     @Override
     public void deleteTaskByID(int id) {
-        tasks.remove(id);
+        if (tasks.remove(id) == null) {
+            return;
+        }
+        removed(TaskType.TASK, id);
+        historyManager.remove(id);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.deleted(TaskType.TASK, id));
+        }
     }
 
     @Override
     public void deleteEpicByID(int id) {
-        ArrayList<Subtask> epicSubtasks = epics.get(id).getSubtaskList();
-        epics.remove(id);
-        for (Subtask subtask : epicSubtasks) {
-            subtasks.remove(subtask.getId());
+        boolean began = beginBoardChange();
+        try {
+            Epic removedEpic = epics.remove(id);
+            if (removedEpic == null) {
+                return;
+            }
+            Collection<Subtask> epicSubtasks = removedEpic.getSubtasks();
+            removed(TaskType.EPIC, id);
+            historyManager.remove(id);
+            boolean publishing = events.hasSubscribers();
+            for (Subtask subtask : epicSubtasks) {
+                subtasks.remove(subtask.getId());
+                removed(TaskType.SUBTASK, subtask.getId());
+                historyManager.remove(subtask.getId());
+                if (publishing) {
+                    events.publish(TaskEvent.deleted(TaskType.SUBTASK, subtask.getId()));
+                }
+            }
+            if (publishing) {
+                events.publish(TaskEvent.deleted(TaskType.EPIC, id));
+            }
+        } finally {
+            publishBoard(began);
         }
     }
 
     @Override
     public void deleteSubtaskByID(int id) {
-        Subtask subtask = subtasks.get(id);
-        int epicID = subtask.getEpicID();
-        subtasks.remove(id);
-        Epic epic = epics.get(epicID);
-        ArrayList<Subtask> subtaskList = epic.getSubtaskList();
-        subtaskList.remove(subtask);
-        epic.setSubtaskList(subtaskList);
-        updateEpicStatus(epic);
+        boolean began = beginBoardChange();
+        try {
+            Subtask subtask = subtasks.remove(id);
+            if (subtask == null) {
+                return;
+            }
+            int epicID = subtask.getEpicID();
+            removed(TaskType.SUBTASK, id);
+            historyManager.remove(id);
+            if (events.hasSubscribers()) {
+                events.publish(TaskEvent.deleted(TaskType.SUBTASK, id));
+            }
+            Epic epic = epics.get(epicID);
+            epic.removeSubtask(id);
+            updateEpicStatus(epic);
+        } finally {
+            publishBoard(began);
+        }
     }
 
     @Override
@@ -197,23 +531,538 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
-    private void updateEpicStatus(Epic epic) {
-        ArrayList<Subtask> subtasks = epic.getSubtaskList();
-        int doneCount = 0;
+    /**
+     * Выборка без копирования хранилищ: ID перебираются подряд от ключа запроса
+     * до последнего выданного, и задачи ищутся по ним, пока не наберётся лимит.
+     * Фильтр по статусу проверяется на лету, а индекс статусов лишь отсекает
+     * за O(1) выборки без совпадений. Подзадачи эпика копируются из эпика
+     * в порядке ID, как того требует ключ {@link TaskQuery#after(int)}.
+     */
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        Stream<? extends Task> source;
+        if (query.getEpicID() != null) {
+            Epic epic = epics.get(query.getEpicID());
+            if (epic == null) {
+                return Stream.empty();
+            }
+            source = subtasksByID(epic);
+        } else if (query.getStatus() != null && statusIndex.count(query.getType(), query.getStatus()) == 0) {
+            return Stream.empty();
+        } else {
+            TaskType type = query.getType();
+            source = IntStream.range(Math.max(query.getAfterID() + 1, 1), peekNextID())
+                    .mapToObj(id -> findByType(id, type))
+                    .filter(Objects::nonNull);
+        }
+        Stream<Task> matches = source.filter(query::matches).map(Task.class::cast);
+        return matches.skip(query.getOffset()).limit(query.getLimit());
+    }
 
-        for (Subtask subtask : subtasks) {
-            if (subtask.getStatus() == Status.IN_PROGRESS) {
-                epic.setStatus(Status.IN_PROGRESS);
-                return;
-            } else if (subtask.getStatus() == Status.DONE) {
-                doneCount++;
+    // Копия подзадач эпика в порядке ID: поток не должен читать живой список эпика.
+    // Обычно это порядок добавления; переезд подзадачи между эпиками или откат
+    // пакета его нарушают, и тогда копия сортируется.
+    private static Stream<Subtask> subtasksByID(Epic epic) {
+        List<Subtask> members = new ArrayList<>(epic.getSubtasks());
+        int previous = 0;
+        for (Subtask subtask : members) {
+            if (subtask.getId() < previous) {
+                members.sort(Comparator.comparingInt(Task::getId));
+                break;
+            }
+            previous = subtask.getId();
+        }
+        return members.stream();
+    }
+
+    @Override
+    public int countTasks(TaskType type, Status status) {
+        return statusIndex.count(type, status);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskType type, Status status) {
+        return statusIndex.list(type, status);
+    }
+
+    /**
+     * Поиск по инвертированному индексу. Первый вызов строит индекс по текущему
+     * состоянию за O(n), после чего менеджер обновляет его при каждом изменении.
+     */
+    @Override
+    public List<Task> search(String query, int limit) {
+        SearchIndex index = searchIndex;
+        if (index == null) {
+            buildLazily(this::enableSearch);
+            index = searchIndex;
+        }
+        return index.search(query, limit);
+    }
+
+    /**
+     * Задачи и подзадачи с заданным началом по возрастанию времени начала —
+     * копия упорядоченного расписания за O(n), без сортировки.
+     */
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return schedule.list();
+    }
+
+    /**
+     * Задача taskId не может начаться, пока не выполнена blockerId. Первый вызов
+     * строит граф по текущему состоянию за O(n), после чего менеджер обновляет
+     * готовность задач при каждой смене статуса.
+     *
+     * @throws IllegalArgumentException если одной из задач нет
+     * @throws DependencyCycleException если blockerId прямо или косвенно ждёт taskId
+     */
+    public void addDependency(int taskId, int blockerId) {
+        dependencies().addDependency(taskId, blockerId);
+    }
+
+    public boolean removeDependency(int taskId, int blockerId) {
+        DependencyGraph graph = dependencies;
+        return graph != null && graph.removeDependency(taskId, blockerId);
+    }
+
+    /**
+     * ID задач, которые блокируют задачу id.
+     */
+    public int[] getBlockers(int id) {
+        DependencyGraph graph = dependencies;
+        return graph == null ? new int[0] : graph.getBlockers(id);
+    }
+
+    /**
+     * Не больше limit задач со статусом NEW, все блокирующие которых выполнены,
+     * в произвольном порядке. Без добавленных зависимостей готова любая новая задача.
+     */
+    public List<Task> getReadyTasks(int limit) {
+        List<Task> result = new ArrayList<>();
+        for (int id : dependencies().getReady(limit)) {
+            Task task = findByType(id, null);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    public int countReadyTasks() {
+        return dependencies().getReadyCount();
+    }
+
+    /**
+     * Применяет пакет атомарно, пересчитывая статус каждого затронутого эпика один
+     * раз в конце. Если операция бросает исключение, уже применённые операции пакета
+     * отменяются в обратном порядке: добавленное удаляется, изменённое и удалённое
+     * возвращается к состоянию до пакета с прежними ID. Версии при откате растут,
+     * как при обычном изменении, а подписчики получают события отмены. Зависимости
+     * удалённых задач при откате не возвращаются. Срез доски меняется одной заменой
+     * в конце пакета и не показывает его промежуточные и отменённые шаги.
+     */
+    @Override
+    public List<MutationResult> applyBatch(List<Mutation> mutations) {
+        boolean outermost = pendingEpics == null;
+        if (outermost) {
+            pendingEpics = new IntHashMap<>();
+        }
+        boolean began = beginBoardChange();
+        try {
+            List<MutationResult> results = new ArrayList<>(mutations.size());
+            List<Runnable> undo = new ArrayList<>();
+            for (Mutation mutation : mutations) {
+                Task before = stateBefore(mutation);
+                MutationResult result = mutation.applyTo(this);
+                if (result.getError() != null) {
+                    for (int i = undo.size() - 1; i >= 0; i--) {
+                        undo.get(i).run();
+                    }
+                    results.replaceAll(MutationResult::rolledBack);
+                    results.add(result);
+                    while (results.size() < mutations.size()) {
+                        results.add(MutationResult.skipped(mutations.get(results.size())));
+                    }
+                    return results;
+                }
+                if (result.isApplied()) {
+                    Runnable step = undoStep(mutation, before, result);
+                    if (step != null) {
+                        undo.add(step);
+                    }
+                }
+                results.add(result);
+            }
+            return results;
+        } finally {
+            if (outermost) {
+                IntHashMap<Epic> affected = pendingEpics;
+                pendingEpics = null;
+                for (Epic epic : affected.values()) {
+                    if (epics.get(epic.getId()) == epic) {
+                        updateEpicStatus(epic);
+                    }
+                }
             }
+            publishBoard(began);
+        }
+    }
+
+
+    /**
+     * Возвращает удалённую задачу с прежним ID — при откате пакета.
+     * Версия растёт, как при изменении.
+     */
+    protected void reinstate(Task task) {
+        task.setVersion(task.getVersion() + 1);
+        restoreTask(task);
+        if (events.hasSubscribers()) {
+            events.publish(TaskEvent.created(task));
+        }
+    }
+
+    // Копия того, что операция изменит или удалит; эпик — вместе с копиями подзадач.
+    private Task stateBefore(Mutation mutation) {
+        switch (mutation.getType()) {
+            case UPDATE_TASK:
+            case DELETE_TASK:
+                Task task = tasks.get(mutation.getId());
+                return task == null ? null : task.copy();
+            case UPDATE_SUBTASK:
+            case DELETE_SUBTASK:
+                Subtask subtask = subtasks.get(mutation.getId());
+                return subtask == null ? null : subtask.copy();
+            case UPDATE_EPIC:
+            case DELETE_EPIC:
+                Epic epic = epics.get(mutation.getId());
+                if (epic == null) {
+                    return null;
+                }
+                Epic copy = new Epic(epic.getId(), epic.getName(), epic.getDescription());
+                copy.setStatus(epic.getStatus());
+                copy.setVersion(epic.getVersion());
+                for (Subtask member : epic.getSubtasks()) {
+                    copy.addSubtask(member.copy());
+                }
+                return copy;
+            default:
+                return null;
+        }
+    }
+
+    private Runnable undoStep(Mutation mutation, Task before, MutationResult result) {
+        switch (mutation.getType()) {
+            case ADD_TASK:
+                return () -> deleteTaskByID(result.getTask().getId());
+            case ADD_EPIC:
+                return () -> deleteEpicByID(result.getTask().getId());
+            case ADD_SUBTASK:
+                return () -> deleteSubtaskByID(result.getTask().getId());
+            case UPDATE_TASK:
+                return () -> updateTask(before);
+            case UPDATE_SUBTASK:
+                return () -> updateSubtask((Subtask) before);
+            case UPDATE_EPIC:
+                return () -> updateEpic((Epic) before);
+            case DELETE_TASK:
+            case DELETE_SUBTASK:
+                return before == null ? null : () -> reinstate(before);
+            case DELETE_EPIC:
+                if (before == null) {
+                    return null;
+                }
+                return () -> {
+                    List<Subtask> members = new ArrayList<>(((Epic) before).getSubtasks());
+                    reinstate(before);
+                    for (Subtask member : members) {
+                        reinstate(member);
+                    }
+                };
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * События доставляются пачками в отдельном потоке подписки и не задерживают
+     * изменения доски: при переполнении буфера подписчика события отбрасываются.
+     */
+    @Override
+    public Subscription subscribe(TaskEventListener listener) {
+        return events.subscribe(listener);
+    }
+
+    protected Subtask findSubtask(int id) {
+        return subtasks.get(id);
+    }
+
+    private Task findByType(int id, TaskType type) {
+        if (type == TaskType.TASK) {
+            return tasks.get(id);
+        }
+        if (type == TaskType.EPIC) {
+            return epics.get(id);
+        }
+        if (type == TaskType.SUBTASK) {
+            return subtasks.get(id);
+        }
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        return task != null ? task : subtasks.get(id);
+    }
+
+    protected int peekNextID() {
+        return nextID;
+    }
+
+    protected void setNextID(int nextID) {
+        this.nextID = nextID;
+    }
+
+    /**
+     * Кладёт задачу в хранилище с уже назначенным ID — для восстановления
+     * состояния из файла. Эпик подзадачи должен быть восстановлен раньше неё.
+     */
+    protected void restoreTask(Task task) {
+        boolean began = beginBoardChange();
+        try {
+            if (task.getVersion() == 0) {
+                task.setVersion(1);
+            }
+            schedule.index(task);
+            if (task instanceof Subtask) {
+                Subtask subtask = (Subtask) task;
+                subtasks.put(subtask.getId(), subtask);
+                Epic epic = epics.get(subtask.getEpicID());
+                epic.addSubtask(subtask);
+                updateEpicStatus(epic);
+            } else if (task instanceof Epic) {
+                epics.put(task.getId(), (Epic) task);
+            } else {
+                tasks.put(task.getId(), task);
+            }
+            stored(task);
+            if (task.getId() >= nextID) {
+                nextID = task.getId() + 1;
+            }
+        } finally {
+            publishBoard(began);
+        }
+    }
+
+    /**
+     * Срез доски за O(1). Первый вызов строит срез по текущему состоянию за O(n),
+     * после чего менеджер поддерживает его при каждом изменении. Операция, например
+     * добавление подзадачи вместе с новым статусом эпика, попадает в срез целиком.
+     */
+    @Override
+    public BoardSnapshot snapshot() {
+        AtomicReference<BoardSnapshot> current = snapshot;
+        if (current == null) {
+            enableSnapshots();
+            current = snapshot;
         }
+        return current.get();
+    }
+
+    /**
+     * Включает поддержку среза доски. Для потокобезопасных наследников вызывается
+     * из конструктора, до появления конкурирующих писателей.
+     */
+    protected final void enableSnapshots() {
+        if (snapshot == null) {
+            snapshot = new AtomicReference<>(BoardSnapshot.copyOf(this));
+        }
+    }
+
+    /**
+     * Задаёт число сегментов полнотекстового индекса, который строится при первом поиске.
+     */
+    protected final void setSearchSegments(int segmentCount) {
+        searchSegments = segmentCount;
+    }
+
+    /**
+     * Строит ленивую вторичную структуру по текущему состоянию. Потокобезопасные
+     * наследники переопределяют метод, чтобы на время построения исключить писателей:
+     * иначе изменение между обходом хранилищ и публикацией структуры потеряется.
+     */
+    protected void buildLazily(Runnable build) {
+        build.run();
+    }
+
+    private void enableSearch() {
+        if (searchIndex == null) {
+            SearchIndex index = new SearchIndex(searchSegments);
+            Stream.<List<? extends Task>>of(getTasks(), getEpics(), getSubtasks())
+                    .<Task>flatMap(List::stream)
+                    .forEach(index::index);
+            searchIndex = index;
+        }
+    }
+
+    private void enableDependencies() {
+        if (dependencies == null) {
+            DependencyGraph graph = new DependencyGraph();
+            Stream.<List<? extends Task>>of(getTasks(), getEpics(), getSubtasks())
+                    .<Task>flatMap(List::stream)
+                    .forEach(graph::index);
+            dependencies = graph;
+        }
+    }
 
-        if (doneCount == subtasks.size()) {
-            epic.setStatus(Status.DONE);
+    private DependencyGraph dependencies() {
+        DependencyGraph graph = dependencies;
+        if (graph == null) {
+            buildLazily(this::enableDependencies);
+            graph = dependencies;
+        }
+        return graph;
+    }
+
+    // Точки уведомления вторичных структур об изменениях хранилища.
+    private void stored(Task task) {
+        statusIndex.index(task);
+        SearchIndex index = searchIndex;
+        if (index != null) {
+            index.index(task);
+        }
+        DependencyGraph graph = dependencies;
+        if (graph != null) {
+            graph.index(task);
+        }
+        changeBoard(board -> board.with(task));
+    }
+
+    private void removed(TaskType type, int id) {
+        statusIndex.remove(type, id);
+        schedule.remove(id);
+        SearchIndex index = searchIndex;
+        if (index != null) {
+            index.remove(type, id);
+        }
+        DependencyGraph graph = dependencies;
+        if (graph != null) {
+            graph.remove(id);
+        }
+        changeBoard(board -> board.without(type, id));
+    }
+
+    private void cleared(TaskType type) {
+        statusIndex.clear(type);
+        schedule.clear(type);
+        SearchIndex index = searchIndex;
+        if (index != null) {
+            index.clear(type);
+        }
+        DependencyGraph graph = dependencies;
+        if (graph != null) {
+            graph.clear(type);
+        }
+        changeBoard(board -> board.cleared(type));
+    }
+
+    private void changeBoard(UnaryOperator<BoardSnapshot> change) {
+        AtomicReference<BoardSnapshot> current = snapshot;
+        if (current == null) {
+            return;
+        }
+        List<UnaryOperator<BoardSnapshot>> pending = boardChanges.get();
+        if (pending != null) {
+            pending.add(change);
         } else {
-            epic.setStatus(Status.NEW);
+            current.updateAndGet(change);
+        }
+    }
+
+    // Начинает операцию из нескольких изменений среза; false, если она вложена в другую.
+    private boolean beginBoardChange() {
+        if (snapshot == null || boardChanges.get() != null) {
+            return false;
+        }
+        boardChanges.set(new ArrayList<>());
+        return true;
+    }
+
+    private void publishBoard(boolean began) {
+        if (!began) {
+            return;
+        }
+        List<UnaryOperator<BoardSnapshot>> pending = boardChanges.get();
+        boardChanges.remove();
+        if (!pending.isEmpty()) {
+            snapshot.updateAndGet(board -> {
+                for (UnaryOperator<BoardSnapshot> change : pending) {
+                    board = change.apply(board);
+                }
+                return board;
+            });
+        }
+    }
+
+    private void checkVersion(Task current, long expectedVersion) {
+        if (current.getVersion() != expectedVersion) {
+            versionConflicts.increment();
+            throw new VersionConflictException(current.getId(), expectedVersion, current.getVersion());
+        }
+    }
+
+    /**
+     * Обновляет статус эпика при параллельном проходе: индекс статусов потокобезопасен,
+     * а срез доски обновляется потом одной заменой в {@link #storedChanged}.
+     */
+    private boolean refreshEpicStatus(Epic epic, Status status, boolean publishing) {
+        Status previous = epic.getStatus();
+        if (previous == status) {
+            return false;
+        }
+        epic.setStatus(status);
+        statusIndex.index(epic);
+        if (publishing) {
+            events.publish(TaskEvent.epicStatusChanged(epic.getId(), previous, status));
+        }
+        return true;
+    }
+
+    private int storedChanged(Epic[] all, boolean[] changed, List<Subtask> changedSubtasks) {
+        List<Epic> changedEpics = new ArrayList<>();
+        for (int i = 0; i < all.length; i++) {
+            if (changed[i]) {
+                changedEpics.add(all[i]);
+            }
+        }
+        DependencyGraph graph = dependencies;
+        if (graph != null) {
+            changedEpics.forEach(graph::index);
+            changedSubtasks.forEach(graph::index);
+        }
+        if (!(changedEpics.isEmpty() && changedSubtasks.isEmpty())) {
+            changeBoard(board -> {
+                for (Epic epic : changedEpics) {
+                    board = board.with(epic);
+                }
+                for (Subtask subtask : changedSubtasks) {
+                    board = board.with(subtask);
+                }
+                return board;
+            });
+        }
+        return changedEpics.size();
+    }
+
+    private void updateEpicStatus(Epic epic) {
+        if (pendingEpics != null) {
+            pendingEpics.put(epic.getId(), epic);
+            return;
+        }
+        Status previous = epic.getStatus();
+        epic.setStatus(epic.calculateStatus());
+        stored(epic);
+        if (previous != epic.getStatus() && events.hasSubscribers()) {
+            events.publish(TaskEvent.epicStatusChanged(epic.getId(), previous, epic.getStatus()));
         }
+        assert epic.verifyStatusCounters() : "Status counters diverged for epic " + epic.getId();
     }
 }
\ No newline at end of file
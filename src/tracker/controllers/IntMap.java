@@ -0,0 +1,33 @@
+package tracker.controllers;
+
+import java.util.Collection;
+
+/**
+ * Отображение с ключами int без упаковки в Integer — хранилище задач менеджера.
+ * Значения null не допускаются.
+ */
+public interface IntMap<V> {
+    V get(int key);
+    V put(int key, V value);
+    V remove(int key);
+    boolean containsKey(int key);
+    int size();
+    void clear();
+
+    /**
+     * Значения в виде представления: отражает изменения отображения, но само
+     * изменяться не должно.
+     */
+    Collection<V> values();
+
+    /**
+     * Заменяет значение, только если ключ уже есть. Возвращает прежнее значение или null.
+     */
+    default V replace(int key, V value) {
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package tracker.controllers;
+
+public class ManagerSaveException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ManagerSaveException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ManagerSaveException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
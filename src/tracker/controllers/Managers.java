@@ -1,11 +1,43 @@
 package tracker.controllers;
 
+import tracker.metrics.MetricsTaskManager;
+
+import java.nio.file.Path;
+
 public class Managers {
     public static TaskManager getDefault() {
         return new InMemoryTaskManager(getDefaultHistory());
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager(getDefaultHistory());
+    }
+
+    public static ColumnarTaskManager getColumnar() {
+        return new ColumnarTaskManager(getDefaultHistory());
+    }
+
+    public static FileBackedTaskManager getFileBacked(Path directory) {
+        return new FileBackedTaskManager(getDefaultHistory(), directory);
+    }
+
+    public static TieredTaskManager getTiered(Path directory) {
+        return new TieredTaskManager(getDefaultHistory(), directory.resolve("cold.segment"));
+    }
+
+    public static MetricsTaskManager getInstrumented(TaskManager taskManager) {
+        return new MetricsTaskManager(taskManager);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
+
+    public static HistoryManager getDefaultHistory(int capacity) {
+        return new InMemoryHistoryManager(capacity);
+    }
+
+    public static UserHistoryManager getUserHistory() {
+        return new UserHistoryManager();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,442 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Двоичный снимок доски, читаемый через {@link MappedByteBuffer}.
+ *
+ * <p>Файл состоит из заголовка, записей фиксированной длины {@value #RECORD_SIZE} байт,
+ * отсортированных по ID, таблицы строк (смещения и UTF-8 данные, одинаковые строки
+ * хранятся один раз), списков подзадач эпиков в виде массивов номеров записей, истории
+ * и зависимостей: число задач с блокирующими, затем для каждой её ID, число
+ * блокирующих и их ID, как в снимке {@link FileBackedTaskManager}.
+ * Открытие снимка ничего не разбирает: поиск по ID — бинарный поиск по записям,
+ * а объекты задач создаются по первому обращению и кэшируются.
+ * Размер файла ограничен 2 ГБ — пределом одного отображения.
+ * Снимки прежних версий тоже читаются: первой (записи по 28 байт, без начала
+ * и длительности) и второй (52 байта, без версии задачи и зависимостей).
+ */
+public class MappedBoardSnapshot {
+    public static final int RECORD_SIZE = 60;
+
+    private static final int MAGIC = 0x4B424D53;
+    private static final int VERSION = 3;
+    private static final int UNVERSIONED_VERSION = 2;
+    private static final int UNVERSIONED_RECORD_SIZE = 52;
+    private static final int UNTIMED_VERSION = 1;
+    private static final int UNTIMED_RECORD_SIZE = 28;
+    // Секунды начала или длительности, когда значение не задано.
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int HEADER_SIZE = 40;
+    private static final int NO_STRING = -1;
+    private static final Status[] STATUSES = Status.values();
+
+    // Смещения полей внутри записи.
+    private static final int ID = 0;
+    private static final int KIND = 4;
+    private static final int STATUS = 5;
+    private static final int EPIC_ID = 8;
+    private static final int NAME = 12;
+    private static final int DESCRIPTION = 16;
+    private static final int ADJACENCY_START = 20;
+    private static final int ADJACENCY_COUNT = 24;
+    private static final int START_SECONDS = 28;
+    private static final int START_NANOS = 36;
+    private static final int DURATION_SECONDS = 40;
+    private static final int DURATION_NANOS = 48;
+    private static final int VERSION_NUMBER = 52;
+
+    private final ByteBuffer buffer;
+    private final boolean timed;
+    private final boolean versioned;
+    private final int recordSize;
+    private final int nextID;
+    private final int recordCount;
+    private final int recordsOffset;
+    private final int stringCount;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final int adjacencyOffset;
+    private final int historyOffset;
+    private final int dependenciesOffset;
+    private final Task[] materialized;
+
+    private MappedBoardSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int version = buffer.getInt(0) == MAGIC ? buffer.getInt(4) : -1;
+        if (version < UNTIMED_VERSION || version > VERSION) {
+            throw new ManagerSaveException("Неизвестный формат снимка доски");
+        }
+        timed = version >= UNVERSIONED_VERSION;
+        versioned = version == VERSION;
+        recordSize = versioned ? RECORD_SIZE : timed ? UNVERSIONED_RECORD_SIZE : UNTIMED_RECORD_SIZE;
+        nextID = buffer.getInt(8);
+        recordCount = buffer.getInt(12);
+        stringCount = buffer.getInt(16);
+        recordsOffset = HEADER_SIZE;
+        stringOffsetsOffset = buffer.getInt(20);
+        stringDataOffset = buffer.getInt(24);
+        adjacencyOffset = buffer.getInt(28);
+        historyOffset = buffer.getInt(32);
+        dependenciesOffset = versioned ? buffer.getInt(36) : 0;
+        materialized = new Task[recordCount];
+    }
+
+    public static MappedBoardSnapshot open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedBoardSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось открыть снимок " + file, e);
+        }
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    public int getNextID() {
+        return nextID;
+    }
+
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Статус задачи прямо из записи, без создания объекта. Null, если ID нет.
+     */
+    public Status getStatus(int id) {
+        int index = indexOf(id);
+        return index < 0 ? null : STATUSES[buffer.get(recordAt(index) + STATUS)];
+    }
+
+    /**
+     * ID подзадач эпика из списка смежности. Пустой массив, если это не эпик.
+     */
+    public int[] getEpicSubtaskIDs(int epicID) {
+        int index = indexOf(epicID);
+        if (index < 0) {
+            return new int[0];
+        }
+        int record = recordAt(index);
+        int start = buffer.getInt(record + ADJACENCY_START);
+        int[] ids = new int[buffer.getInt(record + ADJACENCY_COUNT)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getInt(recordAt(buffer.getInt(adjacencyOffset + (start + i) * 4)) + ID);
+        }
+        return ids;
+    }
+
+    /**
+     * Задача по ID; объект создаётся при первом обращении. Null, если ID нет.
+     */
+    public Task get(int id) {
+        int index = indexOf(id);
+        return index < 0 ? null : materialize(index);
+    }
+
+    /**
+     * ID задач, которые блокируют задачу id, — проходом по разделу зависимостей.
+     * Пустой массив, если их нет.
+     */
+    public int[] getBlockers(int id) {
+        if (!versioned) {
+            return new int[0];
+        }
+        int position = dependenciesOffset + 4;
+        for (int count = buffer.getInt(dependenciesOffset); count > 0; count--) {
+            int blockerCount = buffer.getInt(position + 4);
+            if (buffer.getInt(position) == id) {
+                int[] blockers = new int[blockerCount];
+                for (int i = 0; i < blockerCount; i++) {
+                    blockers[i] = buffer.getInt(position + 8 + i * 4);
+                }
+                return blockers;
+            }
+            position += 8 + blockerCount * 4;
+        }
+        return new int[0];
+    }
+
+    /**
+     * Восстанавливает всё состояние снимка в пустой менеджер, включая nextID,
+     * версии задач, историю и зависимости.
+     */
+    public void loadInto(InMemoryTaskManager manager) {
+        for (int kind = TaskRecords.TASK; kind <= TaskRecords.SUBTASK; kind++) {
+            for (int i = 0; i < recordCount; i++) {
+                if (buffer.get(recordAt(i) + KIND) == kind) {
+                    manager.restoreTask(decode(i));
+                }
+            }
+        }
+        manager.setNextID(nextID);
+        int historySize = buffer.getInt(historyOffset);
+        for (int i = 0; i < historySize; i++) {
+            int record = recordAt(buffer.getInt(historyOffset + 4 + i * 4));
+            int id = buffer.getInt(record + ID);
+            switch (buffer.get(record + KIND)) {
+                case TaskRecords.SUBTASK:
+                    manager.getSubtaskByID(id);
+                    break;
+                case TaskRecords.EPIC:
+                    manager.getEpicByID(id);
+                    break;
+                default:
+                    manager.getTaskByID(id);
+            }
+        }
+        if (versioned) {
+            int position = dependenciesOffset + 4;
+            for (int count = buffer.getInt(dependenciesOffset); count > 0; count--) {
+                int taskId = buffer.getInt(position);
+                int blockerCount = buffer.getInt(position + 4);
+                for (int i = 0; i < blockerCount; i++) {
+                    manager.addDependency(taskId, buffer.getInt(position + 8 + i * 4));
+                }
+                position += 8 + blockerCount * 4;
+            }
+        }
+    }
+
+    public static void write(InMemoryTaskManager manager, Path file) {
+        List<Task> all = new ArrayList<>(manager.getTasks());
+        all.addAll(manager.getEpics());
+        all.addAll(manager.getSubtasks());
+        all.sort(Comparator.comparingInt(Task::getId));
+
+        Map<Integer, Integer> indexByID = new HashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            indexByID.put(all.get(i).getId(), i);
+        }
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int stringBytes = 0;
+        int adjacencySize = 0;
+        int[] nameRefs = new int[all.size()];
+        int[] descriptionRefs = new int[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            Task task = all.get(i);
+            for (int field = 0; field < 2; field++) {
+                String value = field == 0 ? task.getName() : task.getDescription();
+                int ref = NO_STRING;
+                if (value != null) {
+                    Integer existing = stringIndex.get(value);
+                    if (existing == null) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        existing = strings.size();
+                        strings.add(bytes);
+                        stringIndex.put(value, existing);
+                        stringBytes += bytes.length;
+                    }
+                    ref = existing;
+                }
+                if (field == 0) {
+                    nameRefs[i] = ref;
+                } else {
+                    descriptionRefs[i] = ref;
+                }
+            }
+            if (task instanceof Epic) {
+                adjacencySize += ((Epic) task).getSubtaskCount();
+            }
+        }
+        List<Task> history = manager.getHistory();
+        List<int[]> dependencies = new ArrayList<>();
+        long dependencyBytes = 4;
+        for (Task task : all) {
+            int[] blockers = manager.getBlockers(task.getId());
+            if (blockers.length > 0) {
+                dependencies.add(blockers);
+                dependencyBytes += 8 + blockers.length * 4L;
+            } else {
+                dependencies.add(null);
+            }
+        }
+
+        long stringOffsetsOffset = HEADER_SIZE + (long) all.size() * RECORD_SIZE;
+        long stringDataOffset = stringOffsetsOffset + (strings.size() + 1L) * 4;
+        long adjacencyOffset = stringDataOffset + stringBytes;
+        long historyOffset = adjacencyOffset + adjacencySize * 4L;
+        long dependenciesOffset = historyOffset + 4 + history.size() * 4L;
+        long size = dependenciesOffset + dependencyBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new ManagerSaveException("Снимок доски больше 2 ГБ: " + size + " байт");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(VERSION).putInt(manager.peekNextID()).putInt(all.size())
+                    .putInt(strings.size()).putInt((int) stringOffsetsOffset).putInt((int) stringDataOffset)
+                    .putInt((int) adjacencyOffset).putInt((int) historyOffset).putInt((int) dependenciesOffset);
+
+            int adjacencyPosition = 0;
+            for (int i = 0; i < all.size(); i++) {
+                Task task = all.get(i);
+                int start = 0;
+                int count = 0;
+                int epicID = -1;
+                if (task instanceof Subtask) {
+                    epicID = ((Subtask) task).getEpicID();
+                } else if (task instanceof Epic) {
+                    start = adjacencyPosition;
+                    for (Subtask subtask : ((Epic) task).getSubtasks()) {
+                        out.putInt((int) adjacencyOffset + adjacencyPosition * 4, indexByID.get(subtask.getId()));
+                        adjacencyPosition++;
+                        count++;
+                    }
+                }
+                out.putInt(task.getId()).put(TaskRecords.kindOf(task)).put((byte) task.getStatus().ordinal())
+                        .putShort((short) 0).putInt(epicID).putInt(nameRefs[i]).putInt(descriptionRefs[i])
+                        .putInt(start).putInt(count);
+                // Сроки эпика выводятся из подзадач и не пишутся.
+                LocalDateTime startTime = task instanceof Epic ? null : task.getStartTime();
+                Duration duration = task instanceof Epic ? null : task.getDuration();
+                out.putLong(startTime == null ? NO_TIME : startTime.toEpochSecond(ZoneOffset.UTC))
+                        .putInt(startTime == null ? 0 : startTime.getNano())
+                        .putLong(duration == null ? NO_TIME : duration.getSeconds())
+                        .putInt(duration == null ? 0 : duration.getNano())
+                        .putLong(task.getVersion());
+            }
+
+            int offset = 0;
+            for (byte[] bytes : strings) {
+                out.putInt(offset);
+                offset += bytes.length;
+            }
+            out.putInt(offset);
+            for (byte[] bytes : strings) {
+                out.put(bytes);
+            }
+
+            out.position((int) historyOffset);
+            out.putInt(history.size());
+            for (Task task : history) {
+                out.putInt(indexByID.get(task.getId()));
+            }
+            out.putInt((int) dependencies.stream().filter(Objects::nonNull).count());
+            for (int i = 0; i < all.size(); i++) {
+                int[] blockers = dependencies.get(i);
+                if (blockers != null) {
+                    out.putInt(all.get(i).getId()).putInt(blockers.length);
+                    for (int blocker : blockers) {
+                        out.putInt(blocker);
+                    }
+                }
+            }
+            out.force();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось записать снимок " + file, e);
+        }
+    }
+
+    private int indexOf(int id) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleID = buffer.getInt(recordAt(middle) + ID);
+            if (middleID < id) {
+                low = middle + 1;
+            } else if (middleID > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int recordAt(int index) {
+        return recordsOffset + index * recordSize;
+    }
+
+    private Task materialize(int index) {
+        Task task = materialized[index];
+        if (task == null) {
+            task = decode(index);
+            if (task instanceof Epic) {
+                Epic epic = (Epic) task;
+                int record = recordAt(index);
+                int start = buffer.getInt(record + ADJACENCY_START);
+                int count = buffer.getInt(record + ADJACENCY_COUNT);
+                for (int i = 0; i < count; i++) {
+                    epic.addSubtask((Subtask) materialize(buffer.getInt(adjacencyOffset + (start + i) * 4)));
+                }
+            }
+            materialized[index] = task;
+        }
+        return task;
+    }
+
+    private Task decode(int index) {
+        int record = recordAt(index);
+        int id = buffer.getInt(record + ID);
+        Status status = STATUSES[buffer.get(record + STATUS)];
+        String name = string(buffer.getInt(record + NAME));
+        String description = string(buffer.getInt(record + DESCRIPTION));
+        Task task;
+        switch (buffer.get(record + KIND)) {
+            case TaskRecords.SUBTASK:
+                task = new Subtask(id, name, description, status, buffer.getInt(record + EPIC_ID));
+                break;
+            case TaskRecords.EPIC:
+                Epic epic = new Epic(id, name, description);
+                epic.setStatus(status);
+                if (versioned) {
+                    epic.setVersion(buffer.getLong(record + VERSION_NUMBER));
+                }
+                return epic;
+            default:
+                task = new Task(id, name, description, status);
+        }
+        if (versioned) {
+            task.setVersion(buffer.getLong(record + VERSION_NUMBER));
+        }
+        if (timed) {
+            long startSeconds = buffer.getLong(record + START_SECONDS);
+            if (startSeconds != NO_TIME) {
+                task.setStartTime(LocalDateTime.ofEpochSecond(startSeconds, buffer.getInt(record + START_NANOS),
+                        ZoneOffset.UTC));
+            }
+            long durationSeconds = buffer.getLong(record + DURATION_SECONDS);
+            if (durationSeconds != NO_TIME) {
+                task.setDuration(Duration.ofSeconds(durationSeconds, buffer.getInt(record + DURATION_NANOS)));
+            }
+        }
+        return task;
+    }
+
+    private String string(int ref) {
+        if (ref == NO_STRING || ref >= stringCount) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsetsOffset + ref * 4);
+        int end = buffer.getInt(stringOffsetsOffset + (ref + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringDataOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
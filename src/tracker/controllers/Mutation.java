@@ -0,0 +1,124 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+/**
+ * Одна операция пакета для {@link TaskManager#applyBatch(java.util.List)}.
+ */
+public class Mutation {
+    public enum Type {
+        ADD_TASK,
+        ADD_EPIC,
+        ADD_SUBTASK,
+        UPDATE_TASK,
+        UPDATE_EPIC,
+        UPDATE_SUBTASK,
+        DELETE_TASK,
+        DELETE_EPIC,
+        DELETE_SUBTASK
+    }
+
+    private final Type type;
+    private final Task task;
+    private final int id;
+
+    private Mutation(Type type, Task task, int id) {
+        this.type = type;
+        this.task = task;
+        this.id = id;
+    }
+
+    public static Mutation addTask(Task task) {
+        return new Mutation(Type.ADD_TASK, task, 0);
+    }
+
+    public static Mutation addEpic(Epic epic) {
+        return new Mutation(Type.ADD_EPIC, epic, 0);
+    }
+
+    public static Mutation addSubtask(Subtask subtask) {
+        return new Mutation(Type.ADD_SUBTASK, subtask, 0);
+    }
+
+    public static Mutation updateTask(Task task) {
+        return new Mutation(Type.UPDATE_TASK, task, task.getId());
+    }
+
+    public static Mutation updateEpic(Epic epic) {
+        return new Mutation(Type.UPDATE_EPIC, epic, epic.getId());
+    }
+
+    public static Mutation updateSubtask(Subtask subtask) {
+        return new Mutation(Type.UPDATE_SUBTASK, subtask, subtask.getId());
+    }
+
+    public static Mutation deleteTask(int id) {
+        return new Mutation(Type.DELETE_TASK, null, id);
+    }
+
+    public static Mutation deleteEpic(int id) {
+        return new Mutation(Type.DELETE_EPIC, null, id);
+    }
+
+    public static Mutation deleteSubtask(int id) {
+        return new Mutation(Type.DELETE_SUBTASK, null, id);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Выполняет операцию через обычные методы менеджера.
+     */
+    public MutationResult applyTo(TaskManager manager) {
+        try {
+            switch (type) {
+                case ADD_TASK:
+                    return MutationResult.of(this, manager.addTask(task));
+                case ADD_EPIC:
+                    return MutationResult.of(this, manager.addEpic((Epic) task));
+                case ADD_SUBTASK:
+                    return MutationResult.of(this, manager.addSubtask((Subtask) task));
+                case UPDATE_TASK:
+                    return MutationResult.of(this, manager.updateTask(task));
+                case UPDATE_EPIC:
+                    return MutationResult.of(this, manager.updateEpic((Epic) task));
+                case UPDATE_SUBTASK:
+                    return MutationResult.of(this, manager.updateSubtask((Subtask) task));
+                case DELETE_TASK:
+                    manager.deleteTaskByID(id);
+                    return MutationResult.deleted(this);
+                case DELETE_EPIC:
+                    manager.deleteEpicByID(id);
+                    return MutationResult.deleted(this);
+                case DELETE_SUBTASK:
+                    manager.deleteSubtaskByID(id);
+                    return MutationResult.deleted(this);
+                default:
+                    throw new IllegalStateException("Unknown mutation type: " + type);
+            }
+        } catch (RuntimeException e) {
+            return MutationResult.failed(this, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Mutation{" +
+                "type=" + type +
+                ", id=" + id +
+                ", task=" + task +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package tracker.controllers;
+
+import tracker.model.Task;
+
+/**
+ * Результат одной операции пакета: применена ли она, итоговая задача
+ * (для добавления и обновления) и ошибка, если операция упала.
+ * Обновление несуществующей задачи не применяется, но ошибкой не считается.
+ * Если пакет откатился из-за ошибки другой операции, результат помечен
+ * {@link #isRolledBack()}: операция отменена или не выполнялась.
+ */
+public class MutationResult {
+    private final Mutation mutation;
+    private final boolean applied;
+    private final Task task;
+    private final RuntimeException error;
+    private final boolean rolledBack;
+
+    private MutationResult(Mutation mutation, boolean applied, Task task, RuntimeException error,
+                           boolean rolledBack) {
+        this.mutation = mutation;
+        this.applied = applied;
+        this.task = task;
+        this.error = error;
+        this.rolledBack = rolledBack;
+    }
+
+    static MutationResult of(Mutation mutation, Task task) {
+        return new MutationResult(mutation, task != null, task, null, false);
+    }
+
+    static MutationResult deleted(Mutation mutation) {
+        return new MutationResult(mutation, true, null, null, false);
+    }
+
+    static MutationResult failed(Mutation mutation, RuntimeException error) {
+        return new MutationResult(mutation, false, null, error, false);
+    }
+
+    static MutationResult rolledBack(MutationResult result) {
+        return new MutationResult(result.mutation, false, result.task, null, true);
+    }
+
+    static MutationResult skipped(Mutation mutation) {
+        return new MutationResult(mutation, false, null, null, true);
+    }
+
+    public Mutation getMutation() {
+        return mutation;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public RuntimeException getError() {
+        return error;
+    }
+
+    public boolean isRolledBack() {
+        return rolledBack;
+    }
+
+    @Override
+    public String toString() {
+        return "MutationResult{" +
+                "type=" + mutation.getType() +
+                ", applied=" + applied +
+                ", task=" + task +
+                ", error=" + error +
+                ", rolledBack=" + rolledBack +
+                '}';
+    }
+}
\ No newline at end of file
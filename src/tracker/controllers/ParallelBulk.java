@@ -0,0 +1,53 @@
+package tracker.controllers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Параллельный обход диапазона индексов на общем пуле fork/join. Диапазон
+ * делится пополам, пока куски больше {@link #LEAF_SIZE}; короткие диапазоны
+ * обходятся в вызывающем потоке без накладных расходов на задачи.
+ */
+final class ParallelBulk {
+    static final int LEAF_SIZE = 2048;
+
+    private ParallelBulk() {
+    }
+
+    static void forEachIndex(int size, IntConsumer action) {
+        if (size <= LEAF_SIZE) {
+            for (int i = 0; i < size; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new Range(0, size, action));
+    }
+
+    private static final class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        private Range(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(from, middle, action), new Range(middle, to, action));
+        }
+    }
+}
\ No newline at end of file
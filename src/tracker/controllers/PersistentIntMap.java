@@ -0,0 +1,200 @@
+package tracker.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Неизменяемое отображение с ключами int — префиксное дерево с ветвлением 32
+ * и сжатием узлов битовой маской. Изменение возвращает новую версию, копируя
+ * только путь от корня до ключа (не больше 7 узлов), остальное дерево общее
+ * со старой версией. Поэтому любую версию можно хранить и читать без блокировок.
+ */
+public final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Node node = root;
+        int shift = 0;
+        while (node != null) {
+            int bit = bit(key, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = node.children[node.index(bit)];
+            if (child instanceof Entry) {
+                Entry entry = (Entry) child;
+                return entry.key == key ? (V) entry.value : null;
+            }
+            node = (Node) child;
+            shift += BITS;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public PersistentIntMap<V> plus(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("PersistentIntMap does not support null values");
+        }
+        boolean[] added = new boolean[1];
+        Node newRoot = put(root == null ? Node.EMPTY : root, key, value, 0, added);
+        return new PersistentIntMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    public PersistentIntMap<V> minus(int key) {
+        if (root == null || !containsKey(key)) {
+            return this;
+        }
+        Object newRoot = remove(root, key, 0);
+        if (newRoot instanceof Entry) {
+            newRoot = Node.EMPTY.with(bit(((Entry) newRoot).key, 0), newRoot);
+        }
+        return size == 1 ? empty() : new PersistentIntMap<>((Node) newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        if (root != null) {
+            root.forEach(entry -> action.accept((V) entry.value));
+        }
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach(values::add);
+        return values;
+    }
+
+    private static int bit(int key, int shift) {
+        return 1 << ((key >>> shift) & MASK);
+    }
+
+    private static Node put(Node node, int key, Object value, int shift, boolean[] added) {
+        int bit = bit(key, shift);
+        if ((node.bitmap & bit) == 0) {
+            added[0] = true;
+            return node.with(bit, new Entry(key, value));
+        }
+        int index = node.index(bit);
+        Object child = node.children[index];
+        if (child instanceof Entry) {
+            Entry entry = (Entry) child;
+            if (entry.key == key) {
+                return node.replace(index, new Entry(key, value));
+            }
+            added[0] = true;
+            Node branch = Node.EMPTY.with(bit(entry.key, shift + BITS), entry);
+            return node.replace(index, put(branch, key, value, shift + BITS, added));
+        }
+        return node.replace(index, put((Node) child, key, value, shift + BITS, added));
+    }
+
+    // Возвращает новый узел, одиночную запись (если в поддереве осталась одна) или null.
+    private static Object remove(Node node, int key, int shift) {
+        int bit = bit(key, shift);
+        int index = node.index(bit);
+        Object child = node.children[index];
+        Object newChild = child instanceof Entry ? null : remove((Node) child, key, shift + BITS);
+        if (newChild == null) {
+            Node without = node.without(bit, index);
+            if (without.children.length == 0) {
+                return null;
+            }
+            if (without.children.length == 1 && without.children[0] instanceof Entry) {
+                return without.children[0];
+            }
+            return without;
+        }
+        Node replaced = node.replace(index, newChild);
+        if (replaced.children.length == 1 && newChild instanceof Entry) {
+            return newChild;
+        }
+        return replaced;
+    }
+
+    private static final class Entry {
+        private final int key;
+        private final Object value;
+
+        private Entry(int key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class Node {
+        private static final Node EMPTY = new Node(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private Node with(int bit, Object child) {
+            int index = index(bit);
+            Object[] copy = new Object[children.length + 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            copy[index] = child;
+            System.arraycopy(children, index, copy, index + 1, children.length - index);
+            return new Node(bitmap | bit, copy);
+        }
+
+        private Node without(int bit, int index) {
+            Object[] copy = new Object[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+            return new Node(bitmap & ~bit, copy);
+        }
+
+        private Node replace(int index, Object child) {
+            Object[] copy = children.clone();
+            copy[index] = child;
+            return new Node(bitmap, copy);
+        }
+
+        private void forEach(Consumer<Entry> action) {
+            for (Object child : children) {
+                if (child instanceof Entry) {
+                    action.accept((Entry) child);
+                } else {
+                    ((Node) child).forEach(action);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Расписание задач и подзадач с заданным началом, упорядоченное по времени начала.
+ * Интервалы [начало, окончание) сохранённых задач не пересекаются, поэтому
+ * вместо дерева интервалов достаточно дерева по началу: новый интервал может
+ * пересечься только с ближайшими соседями слева и справа, и проверка занимает
+ * O(log n). Две задачи с одним началом пересекаются всегда, даже нулевой длины.
+ * Эпики в расписание не входят: их сроки выводятся из подзадач.
+ * Изменения расписания синхронизированы, но задачи без начала, которых нет
+ * в расписании, монитор не берут: запись без сроков не конкурирует за него.
+ * Для этого изменения одной задачи вызывающий должен упорядочивать сам.
+ */
+public class ScheduleIndex {
+    private final TreeMap<LocalDateTime, Task> byStart = new TreeMap<>();
+    // Начало, с которым задача учтена: объект могут изменить на месте до обновления.
+    // Читается без монитора, чтобы проверять, учтена ли задача.
+    private final IntMap<LocalDateTime> scheduled = new ConcurrentIntMap<>();
+
+    /**
+     * Ставит задачу в расписание или переносит её, заменяя прежнее время.
+     * Задача без начала из расписания убирается.
+     *
+     * @throws TaskOverlapException если время задачи пересекается с другой задачей;
+     *                              расписание при этом не меняется
+     */
+    public void index(Task task) {
+        if (task instanceof Epic) {
+            return;
+        }
+        int id = task.getId();
+        LocalDateTime start = task.getStartTime();
+        if (start == null) {
+            remove(id);
+            return;
+        }
+        synchronized (this) {
+            checkFree(id, start, task.getEndTime());
+            removeScheduled(id);
+            byStart.put(start, task);
+            scheduled.put(id, start);
+        }
+    }
+
+    /**
+     * Назначает ID новой задаче и ставит её в расписание. Задача с началом
+     * получает ID из ids только после проверки пересечений, так что отклонённая
+     * задача номера не расходует. ID, с которым задача пришла (например, из файла),
+     * при проверке не учитывается: новая задача не может занимать чужой интервал
+     * как свой.
+     *
+     * @throws TaskOverlapException если время задачи пересекается с другой задачей
+     */
+    public void add(Task task, IntSupplier ids) {
+        LocalDateTime start = task instanceof Epic ? null : task.getStartTime();
+        if (start == null) {
+            task.setId(ids.getAsInt());
+            return;
+        }
+        synchronized (this) {
+            checkFree(0, start, task.getEndTime());
+            task.setId(ids.getAsInt());
+            byStart.put(start, task);
+            scheduled.put(task.getId(), start);
+        }
+    }
+
+    public void remove(int id) {
+        if (scheduled.containsKey(id)) {
+            synchronized (this) {
+                removeScheduled(id);
+            }
+        }
+    }
+
+    /**
+     * Убирает из расписания все задачи типа.
+     */
+    public synchronized void clear(TaskType type) {
+        if (scheduled.isEmpty()) {
+            return;
+        }
+        Iterator<Task> iterator = byStart.values().iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            if (TaskType.of(task) == type) {
+                scheduled.remove(task.getId());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Задачи расписания по возрастанию начала, без сортировки: O(n) на копию.
+     */
+    public synchronized List<Task> list() {
+        return new ArrayList<>(byStart.values());
+    }
+
+    public synchronized int size() {
+        return byStart.size();
+    }
+
+    private void removeScheduled(int id) {
+        LocalDateTime start = scheduled.remove(id);
+        if (start != null) {
+            byStart.remove(start);
+        }
+    }
+
+    // Соседи слева и справа, кроме самой задачи id, не должны заходить на [start, end).
+    private void checkFree(int id, LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Task> before = byStart.floorEntry(start);
+        if (before != null && before.getValue().getId() != id
+                && (before.getKey().equals(start) || endOf(before).isAfter(start))) {
+            throw new TaskOverlapException(id, before.getValue().getId());
+        }
+        Map.Entry<LocalDateTime, Task> after = byStart.higherEntry(start);
+        while (after != null && after.getValue().getId() == id) {
+            after = byStart.higherEntry(after.getKey());
+        }
+        if (after != null && after.getKey().isBefore(end)) {
+            throw new TaskOverlapException(id, after.getValue().getId());
+        }
+    }
+
+    // Окончание по сохранённому началу: длительность берётся из задачи.
+    private static LocalDateTime endOf(Map.Entry<LocalDateTime, Task> entry) {
+        Task task = entry.getValue();
+        return task.getDuration() == null ? entry.getKey() : entry.getKey().plus(task.getDuration());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,398 @@
+package tracker.controllers;
+
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Инвертированный индекс по словам названий и описаний задач. Слова — это
+ * последовательности букв и цифр в нижнем регистре, «ё» приравнивается к «е».
+ * Задача находится, если каждое слово запроса совпадает с одним из её слов
+ * целиком или как начало слова; результаты ранжируются по TF-IDF, слово из
+ * названия весит больше слова из описания, а совпадение по началу — меньше
+ * точного. Индекс обновляется по разнице словарей задачи: при изменении статуса
+ * без изменения текста словарь не трогается.
+ * Поиск начинает с самого редкого слова запроса, а остальные слова проверяет
+ * двоичным поиском по отсортированному словарю каждой найденной задачи, так что
+ * частые слова вроде «задача» не заставляют перебирать весь их список задач.
+ * Слово одной задачи хранится ссылкой на неё, без отдельной хэш-таблицы, а задачи
+ * ссылаются на строки слов из общего словаря.
+ * Документы и словарь разбиты на сегменты со своей блокировкой каждый, как в
+ * {@link StatusIndex}; блокировки берутся всегда в порядке документ → слово.
+ */
+public class SearchIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final double PREFIX_FACTOR = 0.5;
+    // Верхняя граница диапазона слов с общим началом в отсортированном словаре.
+    private static final char PREFIX_END = Character.MAX_VALUE;
+
+    private final DocumentSegment[] documents;
+    private final TermSegment[] terms;
+    private final int mask;
+
+    public SearchIndex() {
+        this(1);
+    }
+
+    public SearchIndex(int segmentCount) {
+        int size = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        documents = new DocumentSegment[size];
+        terms = new TermSegment[size];
+        for (int i = 0; i < size; i++) {
+            documents[i] = new DocumentSegment();
+            terms[i] = new TermSegment();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Добавляет задачу или обновляет её слова в индексе.
+     */
+    public void index(Task task) {
+        DocumentSegment segment = documentSegmentFor(task.getId());
+        synchronized (segment) {
+            Document previous = segment.documents.get(task.getId());
+            if (previous != null && previous.hasText(task)) {
+                previous.task = task;
+                return;
+            }
+            Document document = new Document(TaskType.of(task), task);
+            if (previous != null) {
+                for (String term : previous.terms) {
+                    if (document.weight(term) == 0) {
+                        termSegmentFor(term).remove(term, task.getId());
+                    }
+                }
+            }
+            String[] words = document.terms;
+            for (int i = 0; i < words.length; i++) {
+                words[i] = termSegmentFor(words[i]).put(words[i], document);
+            }
+            segment.documents.put(task.getId(), document);
+        }
+    }
+
+    public void remove(TaskType type, int id) {
+        DocumentSegment segment = documentSegmentFor(id);
+        synchronized (segment) {
+            Document document = segment.documents.get(id);
+            if (document != null && document.type == type) {
+                segment.documents.remove(id);
+                for (String term : document.terms) {
+                    termSegmentFor(term).remove(term, id);
+                }
+            }
+        }
+    }
+
+    public void clear(TaskType type) {
+        for (DocumentSegment segment : documents) {
+            synchronized (segment) {
+                List<Document> cleared = new ArrayList<>();
+                for (Document document : segment.documents.values()) {
+                    if (document.type == type) {
+                        cleared.add(document);
+                    }
+                }
+                for (Document document : cleared) {
+                    segment.documents.remove(document.id);
+                    for (String term : document.terms) {
+                        termSegmentFor(term).remove(term, document.id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Не больше limit задач, содержащих все слова запроса, по убыванию релевантности;
+     * при равной релевантности — по возрастанию ID. Пустой запрос ничего не находит.
+     */
+    public List<Task> search(String query, int limit) {
+        Set<String> words = new LinkedHashSet<>(tokenize(query));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String rarest = null;
+        long rarestCount = Long.MAX_VALUE;
+        for (String word : words) {
+            long count = 0;
+            for (TermSegment segment : terms) {
+                count += segment.count(word);
+            }
+            if (count < rarestCount) {
+                rarest = word;
+                rarestCount = count;
+            }
+        }
+        if (rarestCount == 0) {
+            return List.of();
+        }
+        double documentCount = Math.max(size(), 1);
+        IntHashMap<Score> found = new IntHashMap<>();
+        for (TermSegment segment : terms) {
+            segment.score(rarest, documentCount, found);
+        }
+        words.remove(rarest);
+        Map<String, Double> idfs = new HashMap<>();
+        // Лучшие limit задач отбираются кучей, где наверху худшая из отобранных.
+        Comparator<Score> ranking = Comparator.comparingDouble((Score score) -> -score.value)
+                .thenComparingInt(score -> score.document.id);
+        PriorityQueue<Score> best = new PriorityQueue<>(ranking.reversed());
+        for (Score score : found.values()) {
+            if (matchesAll(score, words, documentCount, idfs)) {
+                best.add(score);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        Score[] ranked = best.toArray(new Score[0]);
+        Arrays.sort(ranked, ranking);
+        List<Task> result = new ArrayList<>(ranked.length);
+        for (Score score : ranked) {
+            result.add(score.document.task);
+        }
+        return result;
+    }
+
+    /**
+     * Число проиндексированных задач.
+     */
+    public int size() {
+        int size = 0;
+        for (DocumentSegment segment : documents) {
+            synchronized (segment) {
+                size += segment.documents.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Слова текста в порядке появления: буквы и цифры в нижнем регистре, «ё» → «е».
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                int lower = Character.toLowerCase(codePoint);
+                word.appendCodePoint(lower == 'ё' ? 'е' : lower);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    // Досчитывает очки задачи по остальным словам запроса; false, если какое-то слово не нашлось.
+    private boolean matchesAll(Score score, Set<String> words, double documentCount, Map<String, Double> idfs) {
+        Document document = score.document;
+        for (String word : words) {
+            boolean matched = false;
+            int i = Arrays.binarySearch(document.terms, word);
+            for (i = i >= 0 ? i : -i - 1; i < document.terms.length && document.terms[i].startsWith(word); i++) {
+                String term = document.terms[i];
+                double idf = idfs.computeIfAbsent(term,
+                        t -> idf(documentCount, termSegmentFor(t).documentFrequency(t)));
+                score.value += document.weights[i] * (term.equals(word) ? idf : idf * PREFIX_FACTOR);
+                matched = true;
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double idf(double documentCount, int documentFrequency) {
+        return Math.log(1 + documentCount / Math.max(documentFrequency, 1));
+    }
+
+    private DocumentSegment documentSegmentFor(int id) {
+        return documents[id & mask];
+    }
+
+    private TermSegment termSegmentFor(String term) {
+        return terms[term.hashCode() & mask];
+    }
+
+    // Слова задачи с весами, отсортированные для двоичного поиска.
+    private static final class Document {
+        private final int id;
+        private final TaskType type;
+        private final String name;
+        private final String description;
+        private final String[] terms;
+        private final int[] weights;
+        private volatile Task task;
+
+        private Document(TaskType type, Task task) {
+            this.id = task.getId();
+            this.type = type;
+            this.task = task;
+            this.name = task.getName();
+            this.description = task.getDescription();
+            List<String> nameWords = tokenize(name);
+            List<String> descriptionWords = tokenize(description);
+            nameWords.sort(null);
+            descriptionWords.sort(null);
+            String[] words = new String[nameWords.size() + descriptionWords.size()];
+            int[] counts = new int[words.length];
+            int size = 0;
+            for (int i = 0, j = 0; i < nameWords.size() || j < descriptionWords.size(); size++) {
+                String word = j == descriptionWords.size()
+                        || i < nameWords.size() && nameWords.get(i).compareTo(descriptionWords.get(j)) <= 0
+                        ? nameWords.get(i) : descriptionWords.get(j);
+                for (; i < nameWords.size() && nameWords.get(i).equals(word); i++) {
+                    counts[size] += NAME_WEIGHT;
+                }
+                for (; j < descriptionWords.size() && descriptionWords.get(j).equals(word); j++) {
+                    counts[size]++;
+                }
+                words[size] = word;
+            }
+            terms = Arrays.copyOf(words, size);
+            weights = Arrays.copyOf(counts, size);
+        }
+
+        private boolean hasText(Task task) {
+            return type == TaskType.of(task) && Objects.equals(name, task.getName())
+                    && Objects.equals(description, task.getDescription());
+        }
+
+        private int weight(String term) {
+            int i = Arrays.binarySearch(terms, term);
+            return i >= 0 ? weights[i] : 0;
+        }
+    }
+
+    private static final class Score {
+        private final Document document;
+        private double value;
+
+        private Score(Document document) {
+            this.document = document;
+        }
+    }
+
+    private static final class DocumentSegment {
+        private final IntHashMap<Document> documents = new IntHashMap<>();
+    }
+
+    // Значение в словаре — Document, если слово есть у одной задачи, иначе IntHashMap<Document>.
+    private static final class TermSegment {
+        private final NavigableMap<String, Object> postings = new TreeMap<>();
+
+        /**
+         * Добавляет задачу в список слова и возвращает строку слова из словаря.
+         */
+        @SuppressWarnings("unchecked")
+        private synchronized String put(String term, Document document) {
+            Map.Entry<String, Object> entry = postings.ceilingEntry(term);
+            if (entry == null || !entry.getKey().equals(term)) {
+                postings.put(term, document);
+                return term;
+            }
+            String key = entry.getKey();
+            Object posting = entry.getValue();
+            if (posting instanceof Document) {
+                Document single = (Document) posting;
+                if (single.id == document.id) {
+                    postings.put(key, document);
+                } else {
+                    IntHashMap<Document> documents = new IntHashMap<>();
+                    documents.put(single.id, single);
+                    documents.put(document.id, document);
+                    postings.put(key, documents);
+                }
+            } else {
+                ((IntHashMap<Document>) posting).put(document.id, document);
+            }
+            return key;
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized void remove(String term, int id) {
+            Object posting = postings.get(term);
+            if (posting instanceof Document) {
+                if (((Document) posting).id == id) {
+                    postings.remove(term);
+                }
+            } else if (posting != null) {
+                IntHashMap<Document> documents = (IntHashMap<Document>) posting;
+                documents.remove(id);
+                if (documents.size() == 1) {
+                    postings.put(term, documents.values().iterator().next());
+                }
+            }
+        }
+
+        private synchronized int documentFrequency(String term) {
+            return size(postings.get(term));
+        }
+
+        // Сколько задач в списках слов, начинающихся с word.
+        private synchronized long count(String word) {
+            long count = 0;
+            for (Object posting : postings.subMap(word, true, word + PREFIX_END, false).values()) {
+                count += size(posting);
+            }
+            return count;
+        }
+
+        // Начисляет очки за слово запроса word всем задачам со словами, начинающимися с него.
+        private synchronized void score(String word, double documentCount, IntHashMap<Score> scores) {
+            for (Map.Entry<String, Object> entry : postings.subMap(word, true, word + PREFIX_END, false).entrySet()) {
+                String term = entry.getKey();
+                Object posting = entry.getValue();
+                double idf = idf(documentCount, size(posting));
+                double factor = term.equals(word) ? idf : idf * PREFIX_FACTOR;
+                for (Document document : documents(posting)) {
+                    Score score = scores.get(document.id);
+                    if (score == null) {
+                        score = new Score(document);
+                        scores.put(document.id, score);
+                    }
+                    score.value += document.weight(term) * factor;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int size(Object posting) {
+            if (posting == null) {
+                return 0;
+            }
+            return posting instanceof Document ? 1 : ((IntHashMap<Document>) posting).size();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Collection<Document> documents(Object posting) {
+            return posting instanceof Document ? List.of((Document) posting) : ((IntHashMap<Document>) posting).values();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package tracker.controllers;
+
+import tracker.model.Status;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Вторичный индекс задач по типу и статусу: количество за O(1) (по числу сегментов),
+ * список задач с нужным статусом — за O(k) по числу совпадений.
+ * Индекс разбит на сегменты по ID со своей блокировкой каждый, так что
+ * обновления разных задач из разных потоков почти не конкурируют.
+ */
+public class StatusIndex {
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final Segment[] segments;
+    private final int mask;
+
+    public StatusIndex() {
+        this(1);
+    }
+
+    public StatusIndex(int segmentCount) {
+        int size = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Добавляет задачу или переносит её в корзину текущего статуса.
+     */
+    public void index(Task task) {
+        segmentFor(task.getId()).index(TaskType.of(task), task);
+    }
+
+    public void remove(TaskType type, int id) {
+        segmentFor(id).remove(type, id);
+    }
+
+    public void clear(TaskType type) {
+        for (Segment segment : segments) {
+            segment.clear(type);
+        }
+    }
+
+    /**
+     * Число задач типа с указанным статусом; type == null — по всем типам.
+     */
+    public int count(TaskType type, Status status) {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.count(type, status);
+        }
+        return count;
+    }
+
+    /**
+     * Задачи типа с указанным статусом в произвольном порядке; type == null — по всем типам.
+     */
+    public List<Task> list(TaskType type, Status status) {
+        List<Task> result = new ArrayList<>(count(type, status));
+        for (Segment segment : segments) {
+            segment.collect(type, status, result);
+        }
+        return result;
+    }
+
+    private Segment segmentFor(int id) {
+        return segments[id & mask];
+    }
+
+    private static final class Segment {
+        private final List<IntHashMap<Status>> statuses = new ArrayList<>(TYPES.length);
+        private final List<List<IntHashMap<Task>>> buckets = new ArrayList<>(TYPES.length);
+
+        private Segment() {
+            for (int type = 0; type < TYPES.length; type++) {
+                statuses.add(new IntHashMap<>());
+                List<IntHashMap<Task>> byStatus = new ArrayList<>(STATUSES.length);
+                for (int status = 0; status < STATUSES.length; status++) {
+                    byStatus.add(new IntHashMap<>());
+                }
+                buckets.add(byStatus);
+            }
+        }
+
+        private IntHashMap<Task> bucket(int type, Status status) {
+            return buckets.get(type).get(status.ordinal());
+        }
+
+        private synchronized void index(TaskType type, Task task) {
+            int id = task.getId();
+            Status status = task.getStatus();
+            Status previous = statuses.get(type.ordinal()).put(id, status);
+            if (previous != null && previous != status) {
+                bucket(type.ordinal(), previous).remove(id);
+            }
+            bucket(type.ordinal(), status).put(id, task);
+        }
+
+        private synchronized void remove(TaskType type, int id) {
+            Status previous = statuses.get(type.ordinal()).remove(id);
+            if (previous != null) {
+                bucket(type.ordinal(), previous).remove(id);
+            }
+        }
+
+        private synchronized void clear(TaskType type) {
+            statuses.get(type.ordinal()).clear();
+            for (IntHashMap<Task> bucket : buckets.get(type.ordinal())) {
+                bucket.clear();
+            }
+        }
+
+        private synchronized int count(TaskType type, Status status) {
+            if (type != null) {
+                return bucket(type.ordinal(), status).size();
+            }
+            int count = 0;
+            for (List<IntHashMap<Task>> byStatus : buckets) {
+                count += byStatus.get(status.ordinal()).size();
+            }
+            return count;
+        }
+
+        private synchronized void collect(TaskType type, Status status, List<Task> result) {
+            for (int i = 0; i < TYPES.length; i++) {
+                if (type == null || type.ordinal() == i) {
+                    result.addAll(bucket(i, status).values());
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -3,9 +3,17 @@ package tracker.controllers;
 import tracker.model.Task;
 import tracker.model.Epic;
 import tracker.model.Subtask;
+import tracker.model.Status;
+import tracker.model.TaskType;
+import tracker.events.Subscription;
+import tracker.events.TaskEventListener;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface TaskManager {
     Task addTask(Task task);
@@ -23,7 +31,7 @@ public interface TaskManager {
     ArrayList<Task> getTasks();
     ArrayList<Epic> getEpics();
     ArrayList<Subtask> getSubtasks();
-    ArrayList<Subtask> getEpicSubtasks(Epic epic);
+    Collection<Subtask> getEpicSubtasks(Epic epic);
 
     void deleteTasks();
     void deleteEpics();
@@ -34,4 +42,151 @@ public interface TaskManager {
     void deleteSubtaskByID(int id);
 
     List<Task> getHistory();
+
+    /**
+     * Ленивая выборка задач по условиям запроса, упорядоченная по ID.
+     * Реализация по умолчанию строится на копиях из getTasks/getEpics/getSubtasks.
+     */
+    default Stream<Task> query(TaskQuery query) {
+        Stream<Task> source = Stream.<List<? extends Task>>of(getTasks(), getEpics(), getSubtasks())
+                .<Task>flatMap(List::stream)
+                .filter(query::matches)
+                .sorted(Comparator.comparingInt(Task::getId));
+        return source.skip(query.getOffset()).limit(query.getLimit());
+    }
+
+    default List<Task> page(TaskQuery query) {
+        return query(query).collect(Collectors.toList());
+    }
+
+    /**
+     * Число задач типа с указанным статусом; type == null — по всем типам.
+     */
+    default int countTasks(TaskType type, Status status) {
+        return (int) query(TaskQuery.all().type(type).status(status)).count();
+    }
+
+    /**
+     * Задачи типа с указанным статусом в произвольном порядке; type == null — по всем типам.
+     */
+    default List<Task> getTasksByStatus(TaskType type, Status status) {
+        return page(TaskQuery.all().type(type).status(status));
+    }
+
+    /**
+     * Не больше limit задач, в названии или описании которых есть все слова запроса
+     * (целиком или как начало слова), по убыванию релевантности; правила — в {@link SearchIndex}.
+     * Реализация по умолчанию строит временный индекс по копиям за O(n).
+     */
+    default List<Task> search(String query, int limit) {
+        SearchIndex index = new SearchIndex();
+        Stream.<List<? extends Task>>of(getTasks(), getEpics(), getSubtasks())
+                .<Task>flatMap(List::stream)
+                .forEach(index::index);
+        return index.search(query, limit);
+    }
+
+    /**
+     * Задачи и подзадачи с заданным началом по возрастанию времени начала.
+     * Реализация по умолчанию сортирует копии за O(n log n).
+     */
+    default List<Task> getPrioritizedTasks() {
+        return Stream.<List<? extends Task>>of(getTasks(), getSubtasks())
+                .<Task>flatMap(List::stream)
+                .filter(task -> task.getStartTime() != null)
+                .sorted(Comparator.comparing(Task::getStartTime))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Неизменяемый согласованный срез доски. Реализация по умолчанию копирует
+     * все задачи за O(n); менеджеры в памяти отдают срез за O(1).
+     */
+    default BoardSnapshot snapshot() {
+        return BoardSnapshot.copyOf(this);
+    }
+
+    /**
+     * Применяет операции по порядку и возвращает результат каждой.
+     * Реализация по умолчанию не атомарна: упавшая операция не прерывает пакет
+     * и не откатывает предыдущие. Менеджеры на основе {@link InMemoryTaskManager}
+     * применяют пакет целиком или откатывают его.
+     */
+    default List<MutationResult> applyBatch(List<Mutation> mutations) {
+        List<MutationResult> results = new ArrayList<>(mutations.size());
+        for (Mutation mutation : mutations) {
+            results.add(mutation.applyTo(this));
+        }
+        return results;
+    }
+
+    /**
+     * Обновляет задачу, только если сохранённая версия равна expectedVersion,
+     * иначе бросает {@link VersionConflictException}. Возвращает null, если задачи нет.
+     * Реализация по умолчанию сверяет версию по срезу доски и не атомарна;
+     * менеджеры в памяти выполняют проверку и запись атомарно.
+     */
+    default Task compareAndUpdateTask(Task task, long expectedVersion) {
+        Task current = snapshot().getTask(task.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateTask(task);
+    }
+
+    default Epic compareAndUpdateEpic(Epic epic, long expectedVersion) {
+        Epic current = snapshot().getEpic(epic.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateEpic(epic);
+    }
+
+    default Subtask compareAndUpdateSubtask(Subtask subtask, long expectedVersion) {
+        Subtask current = snapshot().getSubtask(subtask.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateSubtask(subtask);
+    }
+
+    /**
+     * Обновляет только поля эпика: подзадачи из epic отбрасываются, у эпика
+     * остаются сохранённые. Возвращает null, если эпика нет. Реализация по
+     * умолчанию переносит подзадачи отдельной выборкой и не атомарна: подзадача,
+     * добавленная между выборкой и записью, будет удалена.
+     */
+    default Epic updateEpicFields(Epic epic) {
+        if (snapshot().getEpic(epic.getId()) == null) {
+            return null;
+        }
+        epic.clearSubtasks();
+        query(TaskQuery.all().epic(epic.getId())).forEach(subtask -> epic.addSubtask((Subtask) subtask));
+        return updateEpic(epic);
+    }
+
+    default Epic compareAndUpdateEpicFields(Epic epic, long expectedVersion) {
+        Epic current = snapshot().getEpic(epic.getId());
+        if (current == null) {
+            return null;
+        }
+        checkVersion(current, expectedVersion);
+        return updateEpicFields(epic);
+    }
+
+    private static void checkVersion(Task current, long expectedVersion) {
+        if (current.getVersion() != expectedVersion) {
+            throw new VersionConflictException(current.getId(), expectedVersion, current.getVersion());
+        }
+    }
+
+    /**
+     * Подписывает слушателя на изменения доски. Закрытие подписки прекращает доставку.
+     */
+    default Subscription subscribe(TaskEventListener listener) {
+        throw new UnsupportedOperationException("Events are not supported by " + getClass().getSimpleName());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package tracker.controllers;
+
+/**
+ * Задача не сохранена: её плановое время пересекается со временем другой задачи.
+ */
+public class TaskOverlapException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int taskId;
+    private final int conflictingId;
+
+    public TaskOverlapException(int taskId, int conflictingId) {
+        super("Task " + taskId + " overlaps task " + conflictingId);
+        this.taskId = taskId;
+        this.conflictingId = conflictingId;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public int getConflictingId() {
+        return conflictingId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package tracker.controllers;
+
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+/**
+ * Условия выборки для {@link TaskManager#query(TaskQuery)}: тип, статус, эпик
+ * и постраничность — смещением ({@link #offset(int)}) или по ключу
+ * ({@link #after(int)}: только задачи с ID больше указанного).
+ */
+public class TaskQuery {
+    private TaskType type;
+    private Status status;
+    private Integer epicID;
+    private int afterID;
+    private long offset;
+    private long limit = Long.MAX_VALUE;
+
+    public static TaskQuery all() {
+        return new TaskQuery();
+    }
+
+    public TaskQuery type(TaskType type) {
+        this.type = type;
+        return this;
+    }
+
+    public TaskQuery status(Status status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Только подзадачи указанного эпика.
+     */
+    public TaskQuery epic(int epicID) {
+        this.epicID = epicID;
+        this.type = TaskType.SUBTASK;
+        return this;
+    }
+
+    public TaskQuery after(int afterID) {
+        this.afterID = afterID;
+        return this;
+    }
+
+    public TaskQuery offset(long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    public TaskQuery limit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getEpicID() {
+        return epicID;
+    }
+
+    public int getAfterID() {
+        return afterID;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Проверяет задачу по типу, статусу, эпику и ключу; смещение и лимит не учитываются.
+     */
+    public boolean matches(Task task) {
+        if (task.getId() <= afterID) {
+            return false;
+        }
+        if (type != null && TaskType.of(task) != type) {
+            return false;
+        }
+        if (status != null && task.getStatus() != status) {
+            return false;
+        }
+        return epicID == null || task instanceof Subtask && ((Subtask) task).getEpicID() == epicID;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQuery{" +
+                "type=" + type +
+                ", status=" + status +
+                ", epicID=" + epicID +
+                ", afterID=" + afterID +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                '}';
+    }
+}
\ No newline at end of file
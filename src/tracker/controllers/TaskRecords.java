@@ -0,0 +1,135 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Двоичное представление задач для журнала и снимков {@link FileBackedTaskManager}.
+ * Запись начинается с байта формата {@value #FORMAT}; записи первого формата его
+ * не имели и начинались с вида задачи 0–2, поэтому читаются оба. Начало и
+ * длительность пишутся только для задач и подзадач: сроки эпика выводятся из подзадач.
+ */
+final class TaskRecords {
+    static final byte TASK = 0;
+    static final byte EPIC = 1;
+    static final byte SUBTASK = 2;
+
+    // Номер формата записи: больше любого вида задачи, чтобы отличать его от записей первого формата.
+    static final byte FORMAT = 16;
+
+    private static final Status[] STATUSES = Status.values();
+    private static final int HAS_START = 1;
+    private static final int HAS_DURATION = 2;
+
+    private TaskRecords() {
+    }
+
+    static byte kindOf(Task task) {
+        if (task instanceof Subtask) {
+            return SUBTASK;
+        }
+        if (task instanceof Epic) {
+            return EPIC;
+        }
+        return TASK;
+    }
+
+    static void writeTask(DataOutput out, Task task) throws IOException {
+        byte kind = kindOf(task);
+        out.writeByte(FORMAT);
+        out.writeByte(kind);
+        out.writeInt(task.getId());
+        out.writeByte(task.getStatus().ordinal());
+        writeString(out, task.getName());
+        writeString(out, task.getDescription());
+        if (kind == SUBTASK) {
+            out.writeInt(((Subtask) task).getEpicID());
+        }
+        if (kind != EPIC) {
+            writeTimes(out, task);
+        }
+    }
+
+    static Task readTask(DataInput in) throws IOException {
+        byte first = in.readByte();
+        boolean timed = first == FORMAT;
+        byte kind = timed ? in.readByte() : first;
+        int id = in.readInt();
+        Status status = STATUSES[in.readByte()];
+        String name = readString(in);
+        String description = readString(in);
+        Task task;
+        switch (kind) {
+            case TASK:
+                task = new Task(id, name, description, status);
+                break;
+            case EPIC:
+                Epic epic = new Epic(id, name, description);
+                epic.setStatus(status);
+                return epic;
+            case SUBTASK:
+                task = new Subtask(id, name, description, status, in.readInt());
+                break;
+            default:
+                throw new IOException("Unknown task kind: " + kind);
+        }
+        if (timed) {
+            readTimes(in, task);
+        }
+        return task;
+    }
+
+    private static void writeTimes(DataOutput out, Task task) throws IOException {
+        LocalDateTime start = task.getStartTime();
+        Duration duration = task.getDuration();
+        out.writeByte((start != null ? HAS_START : 0) | (duration != null ? HAS_DURATION : 0));
+        if (start != null) {
+            out.writeLong(start.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(start.getNano());
+        }
+        if (duration != null) {
+            out.writeLong(duration.getSeconds());
+            out.writeInt(duration.getNano());
+        }
+    }
+
+    private static void readTimes(DataInput in, Task task) throws IOException {
+        int flags = in.readByte();
+        if ((flags & HAS_START) != 0) {
+            task.setStartTime(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+        }
+        if ((flags & HAS_DURATION) != 0) {
+            task.setDuration(Duration.ofSeconds(in.readLong(), in.readInt()));
+        }
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
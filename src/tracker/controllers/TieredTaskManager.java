@@ -0,0 +1,500 @@
+package tracker.controllers;
+
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Менеджер задач с двумя уровнями хранения: в памяти — невыполненные и недавно
+ * просмотренные задачи, а давно не просмотренные выполненные вытесняются в файл
+ * ({@link ColdSegment}). Вытесняются выполненная задача целиком или выполненный эпик
+ * вместе со всеми подзадачами — эпик держит ссылки на свои подзадачи, поэтому
+ * по отдельности их не вытеснить. Недавность определяется по просмотрам, которые
+ * и так идут в историю: последние recentCapacity просмотренных ID не вытесняются (LRU).
+ * <p>
+ * Вытеснение запускается перед добавлением задачи, когда в памяти больше maxHotEntries
+ * задач, или явно через {@link #evictCold()}. Обращение к вытесненной задаче по ID
+ * или её изменение прозрачно возвращает в память её группу; выборки, подсчёты
+ * и списки читают вытесненные задачи копиями через кэш файла, не возвращая их.
+ * Массовые операции над эпиками (deleteSubtasks, recalculateEpicStatuses) возвращают
+ * в память всё. Объекты, полученные до вытеснения, после возврата группы в память
+ * становятся отвязанными копиями. Срез доски и поисковый индекс, если их включить,
+ * хранят свои копии задач, и память под вытесненные задачи не освобождается.
+ * Файл временный и не заменяет {@link FileBackedTaskManager}. Не потокобезопасен.
+ */
+public class TieredTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    public static final int DEFAULT_MAX_HOT_ENTRIES = 1 << 20;
+    public static final int DEFAULT_RECENT_CAPACITY = 1 << 14;
+    public static final int DEFAULT_CACHE_CAPACITY = 1 << 10;
+    // Файл переписывается, когда мусор превышает половину, но не раньше этого размера.
+    private static final long MIN_COMPACT_SIZE = 1 << 20;
+
+    private final Tiers tiers;
+
+    public TieredTaskManager(HistoryManager historyManager, Path segmentFile) {
+        this(historyManager, segmentFile, DEFAULT_MAX_HOT_ENTRIES, DEFAULT_RECENT_CAPACITY, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public TieredTaskManager(HistoryManager historyManager, Path segmentFile, int maxHotEntries,
+                             int recentCapacity, int cacheCapacity) {
+        this(new Tiers(historyManager, new ColdSegment(segmentFile, cacheCapacity), maxHotEntries, recentCapacity));
+    }
+
+    private TieredTaskManager(Tiers tiers) {
+        super(tiers.history, tiers.tasks, tiers.epics, tiers.subtasks, tiers.statusIndex);
+        this.tiers = tiers;
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        tiers.evictIfFull();
+        return super.addTask(task);
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        tiers.evictIfFull();
+        return super.addEpic(epic);
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        tiers.evictIfFull();
+        return super.addSubtask(subtask);
+    }
+
+    @Override
+    public ArrayList<Task> getTasks() {
+        ArrayList<Task> result = new ArrayList<>(tiers.tasks.hot.values());
+        tiers.collectCold(TaskType.TASK, result);
+        return result;
+    }
+
+    @Override
+    public ArrayList<Epic> getEpics() {
+        ArrayList<Epic> result = new ArrayList<>(tiers.epics.hot.values());
+        tiers.collectCold(TaskType.EPIC, result);
+        return result;
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasks() {
+        ArrayList<Subtask> result = new ArrayList<>(tiers.subtasks.hot.values());
+        tiers.collectCold(TaskType.SUBTASK, result);
+        return result;
+    }
+
+    @Override
+    public void deleteTasks() {
+        tiers.dropCold(TaskType.TASK);
+        super.deleteTasks();
+    }
+
+    @Override
+    public void deleteEpics() {
+        tiers.dropCold(TaskType.EPIC);
+        super.deleteEpics();
+    }
+
+    /**
+     * Выборка без возврата задач в память: вытесненные задачи читаются копиями.
+     * Подзадачи эпика и выборки по невыполненным статусам идут через {@link InMemoryTaskManager}.
+     */
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        if (query.getEpicID() != null || query.getStatus() != null && query.getStatus() != Status.DONE) {
+            return super.query(query);
+        }
+        TaskType type = query.getType();
+        Stream<Task> matches = IntStream.range(Math.max(query.getAfterID() + 1, 1), peekNextID())
+                .mapToObj(id -> tiers.find(id, type))
+                .filter(Objects::nonNull)
+                .filter(query::matches);
+        return matches.skip(query.getOffset()).limit(query.getLimit());
+    }
+
+    @Override
+    public int countTasks(TaskType type, Status status) {
+        int count = super.countTasks(type, status);
+        return status == Status.DONE ? count + tiers.coldCount(type) : count;
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskType type, Status status) {
+        List<Task> result = super.getTasksByStatus(type, status);
+        if (status == Status.DONE) {
+            for (TaskType coldType : TaskType.values()) {
+                if (type == null || type == coldType) {
+                    tiers.collectCold(coldType, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Вытесняет в файл все выполненные задачи и эпики, не просмотренные недавно.
+     * Возвращает число вытесненных задач, включая подзадачи.
+     */
+    public int evictCold() {
+        return tiers.evict();
+    }
+
+    /**
+     * Число задач в памяти.
+     */
+    public int getHotCount() {
+        return tiers.hotCount();
+    }
+
+    /**
+     * Число вытесненных задач, включая подзадачи.
+     */
+    public int getColdCount() {
+        return tiers.coldCount(null);
+    }
+
+    /**
+     * Размер файла вытесненных задач в байтах, включая ещё не переписанный мусор.
+     */
+    public long getSegmentSize() {
+        return tiers.segment.size();
+    }
+
+    @Override
+    public void close() {
+        tiers.segment.close();
+    }
+
+    // Вытесненная группа: задача или эпик с подзадачами; общая для всех её ID.
+    private static final class Spilled {
+        private final int id;
+        private long offset;
+
+        private Spilled(int id, long offset) {
+            this.id = id;
+            this.offset = offset;
+        }
+    }
+
+    private static final class Tiers {
+        private final HistoryManager delegate;
+        private final HistoryManager history;
+        private final StatusIndex statusIndex = new StatusIndex();
+        private final ColdSegment segment;
+        private final TierMap<Task> tasks = new TierMap<>();
+        private final TierMap<Epic> epics = new TierMap<>();
+        private final TierMap<Subtask> subtasks = new TierMap<>();
+        // Недавно просмотренные ID в порядке доступа; Boolean — только заглушка значения.
+        private final Map<Integer, Boolean> recent;
+        private final int maxHotEntries;
+        private int nextEviction;
+
+        private Tiers(HistoryManager historyManager, ColdSegment segment, int maxHotEntries, int recentCapacity) {
+            this.delegate = historyManager;
+            this.segment = segment;
+            this.maxHotEntries = maxHotEntries;
+            this.nextEviction = maxHotEntries;
+            this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+                    return size() > recentCapacity;
+                }
+            };
+            this.history = new HistoryManager() {
+                @Override
+                public void add(Task task) {
+                    recent.put(task.getId(), Boolean.TRUE);
+                    delegate.add(task);
+                }
+
+                @Override
+                public void remove(int id) {
+                    recent.remove(id);
+                    delegate.remove(id);
+                }
+
+                @Override
+                public List<Task> getHistory() {
+                    return delegate.getHistory();
+                }
+            };
+        }
+
+        private int hotCount() {
+            return tasks.hot.size() + epics.hot.size() + subtasks.hot.size();
+        }
+
+        private int coldCount(TaskType type) {
+            if (type == null) {
+                return tasks.cold.size() + epics.cold.size() + subtasks.cold.size();
+            }
+            return mapFor(type).cold.size();
+        }
+
+        private void evictIfFull() {
+            if (hotCount() >= nextEviction) {
+                evict();
+                nextEviction = Math.max(maxHotEntries, hotCount() + hotCount() / 2);
+            }
+        }
+
+        private int evict() {
+            // Мусор появляется только при возврате групп в память, поэтому файл сжимается до дописывания.
+            if (segment.needsCompaction(MIN_COMPACT_SIZE)) {
+                compact();
+            }
+            int evicted = 0;
+            List<Task> coldTasks = new ArrayList<>();
+            for (Task task : tasks.hot.values()) {
+                if (isCold(task)) {
+                    coldTasks.add(task);
+                }
+            }
+            for (Task task : coldTasks) {
+                spill(new Task[]{task});
+                evicted++;
+            }
+            List<Epic> coldEpics = new ArrayList<>();
+            for (Epic epic : epics.hot.values()) {
+                if (isCold(epic) && epic.getSubtasks().stream().allMatch(this::isCold)) {
+                    coldEpics.add(epic);
+                }
+            }
+            for (Epic epic : coldEpics) {
+                Task[] group = new Task[epic.getSubtaskCount() + 1];
+                group[0] = epic;
+                int i = 1;
+                for (Subtask subtask : epic.getSubtasks()) {
+                    group[i++] = subtask;
+                }
+                spill(group);
+                evicted += group.length;
+            }
+            return evicted;
+        }
+
+        private boolean isCold(Task task) {
+            return task.getStatus() == Status.DONE && !recent.containsKey(task.getId());
+        }
+
+        private void spill(Task[] group) {
+            Spilled spilled = new Spilled(group[0].getId(), segment.append(group));
+            for (Task task : group) {
+                TaskType type = TaskType.of(task);
+                TierMap<?> map = mapFor(type);
+                map.hot.remove(task.getId());
+                map.cold.put(task.getId(), spilled);
+                statusIndex.remove(type, task.getId());
+            }
+        }
+
+        // Возвращает группу в память; прочитанные объекты переходят во владение менеджера.
+        private void restore(Spilled spilled) {
+            Task[] group = segment.read(spilled.offset);
+            segment.release(spilled.offset);
+            Epic epic = group[0] instanceof Epic ? (Epic) group[0] : null;
+            for (Task task : group) {
+                if (task != epic && epic != null) {
+                    epic.addSubtask((Subtask) task);
+                }
+                restored(task);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V extends Task> void restored(Task task) {
+            TaskType type = TaskType.of(task);
+            TierMap<V> map = (TierMap<V>) mapFor(type);
+            map.cold.remove(task.getId());
+            map.hot.put(task.getId(), (V) task);
+            statusIndex.index(task);
+        }
+
+        private void compact() {
+            List<Long> live = new ArrayList<>();
+            List<Spilled> groups = new ArrayList<>(tasks.cold.values());
+            groups.addAll(epics.cold.values());
+            for (Spilled spilled : groups) {
+                live.add(spilled.offset);
+            }
+            Map<Long, Long> moved = segment.compact(live);
+            for (Spilled spilled : groups) {
+                spilled.offset = moved.get(spilled.offset);
+            }
+        }
+
+        /**
+         * Удаляет из файла вытесненные группы типа TASK или EPIC (эпики — вместе с подзадачами)
+         * и убирает их ID из истории.
+         */
+        private void dropCold(TaskType type) {
+            TierMap<?> map = mapFor(type);
+            if (map.cold.isEmpty()) {
+                return;
+            }
+            for (Spilled spilled : map.cold.values()) {
+                segment.release(spilled.offset);
+            }
+            for (Task task : delegate.getHistory()) {
+                if (map.cold.containsKey(task.getId()) || type == TaskType.EPIC && subtasks.cold.containsKey(task.getId())) {
+                    history.remove(task.getId());
+                }
+            }
+            map.cold.clear();
+            if (type == TaskType.EPIC) {
+                subtasks.cold.clear();
+            }
+        }
+
+        /**
+         * Задача типа type (null — любого) по ID: из памяти или копией из файла.
+         */
+        private Task find(int id, TaskType type) {
+            for (TaskType candidate : TaskType.values()) {
+                if (type == null || type == candidate) {
+                    TierMap<?> map = mapFor(candidate);
+                    Task task = map.hot.get(id);
+                    if (task != null) {
+                        return task;
+                    }
+                    Spilled spilled = map.cold.get(id);
+                    if (spilled != null) {
+                        return copyOf(spilled, id);
+                    }
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V extends Task> void collectCold(TaskType type, Collection<? super V> result) {
+            if (type == TaskType.SUBTASK) {
+                for (Spilled spilled : epics.cold.values()) {
+                    Task[] group = segment.read(spilled.offset);
+                    for (int i = 1; i < group.length; i++) {
+                        result.add((V) group[i].copy());
+                    }
+                }
+                return;
+            }
+            for (Spilled spilled : mapFor(type).cold.values()) {
+                result.add((V) copyOf(spilled, spilled.id));
+            }
+        }
+
+        // Копия задачи id из вытесненной группы; эпик копируется вместе с подзадачами.
+        private Task copyOf(Spilled spilled, int id) {
+            Task[] group = segment.read(spilled.offset);
+            if (group[0] instanceof Epic) {
+                if (id == spilled.id) {
+                    Epic epic = ((Epic) group[0]).copy();
+                    for (int i = 1; i < group.length; i++) {
+                        epic.addSubtask(((Subtask) group[i]).copy());
+                    }
+                    return epic;
+                }
+                for (int i = 1; i < group.length; i++) {
+                    if (group[i].getId() == id) {
+                        return group[i].copy();
+                    }
+                }
+                return null;
+            }
+            return group[0].copy();
+        }
+
+        private TierMap<?> mapFor(TaskType type) {
+            switch (type) {
+                case TASK:
+                    return tasks;
+                case EPIC:
+                    return epics;
+                default:
+                    return subtasks;
+            }
+        }
+
+        /**
+         * Хранилище одного типа для {@link InMemoryTaskManager}: обращение к вытесненной
+         * задаче возвращает её группу в память, так что менеджер видит обычную таблицу.
+         */
+        private final class TierMap<V extends Task> implements IntMap<V> {
+            private final IntHashMap<V> hot = new IntHashMap<>();
+            private final IntHashMap<Spilled> cold = new IntHashMap<>();
+
+            @Override
+            public V get(int key) {
+                V value = hot.get(key);
+                if (value == null) {
+                    Spilled spilled = cold.get(key);
+                    if (spilled != null) {
+                        restore(spilled);
+                        value = hot.get(key);
+                    }
+                }
+                return value;
+            }
+
+            @Override
+            public V put(int key, V value) {
+                V previous = get(key);
+                hot.put(key, value);
+                return previous;
+            }
+
+            @Override
+            public V remove(int key) {
+                V previous = get(key);
+                hot.remove(key);
+                return previous;
+            }
+
+            @Override
+            public boolean containsKey(int key) {
+                return hot.containsKey(key) || cold.containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return hot.size() + cold.size();
+            }
+
+            @Override
+            public void clear() {
+                restoreAll();
+                hot.clear();
+            }
+
+            /**
+             * Возвращает в память все вытесненные задачи этого типа — менеджер может менять
+             * задачи, полученные перебором.
+             */
+            @Override
+            public Collection<V> values() {
+                restoreAll();
+                return hot.values();
+            }
+
+            private void restoreAll() {
+                for (Spilled spilled : new ArrayList<>(cold.values())) {
+                    if (tasks.cold.get(spilled.id) == spilled || epics.cold.get(spilled.id) == spilled) {
+                        restore(spilled);
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package tracker.controllers;
+
+import tracker.model.Task;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Истории просмотров, раздельные для каждого пользователя. Пользователи разложены
+ * по сегментам с собственной блокировкой, так что просмотры разных пользователей
+ * почти не конкурируют. Общий бюджет записей делится между сегментами поровну;
+ * при его превышении сегмент выбрасывает истории пользователей, дольше всех
+ * не обращавшихся к ним.
+ */
+public class UserHistoryManager {
+    public static final int DEFAULT_SHARDS = 64;
+    public static final long DEFAULT_MAX_ENTRIES = 1 << 20;
+
+    private final Shard[] shards;
+    private final int mask;
+    private final int userCapacity;
+    private final long maxEntries;
+
+    public UserHistoryManager() {
+        this(InMemoryHistoryManager.DEFAULT_CAPACITY, DEFAULT_MAX_ENTRIES);
+    }
+
+    public UserHistoryManager(int userCapacity, long maxEntries) {
+        this(userCapacity, maxEntries, DEFAULT_SHARDS);
+    }
+
+    public UserHistoryManager(int userCapacity, long maxEntries, int shardCount) {
+        if (userCapacity <= 0 || shardCount <= 0) {
+            throw new IllegalArgumentException("History capacity and shard count must be positive");
+        }
+        int size = Integer.highestOneBit(shardCount);
+        if (size < shardCount) {
+            size <<= 1;
+        }
+        long shardBudget = maxEntries / size;
+        if (shardBudget < userCapacity) {
+            throw new IllegalArgumentException("Budget of " + maxEntries + " entries cannot hold one full history per shard");
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard(shardBudget);
+        }
+        this.mask = size - 1;
+        this.userCapacity = userCapacity;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * История пользователя. Возвращаемый объект хранит только ID пользователя,
+     * поэтому остаётся рабочим и после вытеснения истории: следующий просмотр
+     * начнёт её заново.
+     */
+    public HistoryManager forUser(String userId) {
+        return new UserHistory(userId);
+    }
+
+    public void add(String userId, Task task) {
+        if (task != null) {
+            shardOf(userId).add(userId, task);
+        }
+    }
+
+    public void remove(String userId, int id) {
+        shardOf(userId).remove(userId, id);
+    }
+
+    public List<Task> getHistory(String userId) {
+        return shardOf(userId).getHistory(userId);
+    }
+
+    /**
+     * Убирает задачу из историй всех пользователей — при её удалении с доски.
+     */
+    public void remove(int id) {
+        for (Shard shard : shards) {
+            shard.removeEverywhere(id);
+        }
+    }
+
+    public int getUserCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.userCount();
+        }
+        return count;
+    }
+
+    public long getEntryCount() {
+        long count = 0;
+        for (Shard shard : shards) {
+            count += shard.entryCount();
+        }
+        return count;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int getUserCapacity() {
+        return userCapacity;
+    }
+
+    private Shard shardOf(String userId) {
+        int h = userId.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    private final class UserHistory implements HistoryManager {
+        private final String userId;
+
+        private UserHistory(String userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void add(Task task) {
+            UserHistoryManager.this.add(userId, task);
+        }
+
+        @Override
+        public void remove(int id) {
+            UserHistoryManager.this.remove(userId, id);
+        }
+
+        @Override
+        public List<Task> getHistory() {
+            return UserHistoryManager.this.getHistory(userId);
+        }
+    }
+
+    private final class Shard {
+        private final long budget;
+        // Порядок доступа: первым идёт пользователь, дольше всех не смотревший задачи.
+        private final LinkedHashMap<String, InMemoryHistoryManager> users = new LinkedHashMap<>(16, 0.75f, true);
+        private long entries;
+
+        private Shard(long budget) {
+            this.budget = budget;
+        }
+
+        private synchronized void add(String userId, Task task) {
+            InMemoryHistoryManager history = users.get(userId);
+            if (history == null) {
+                history = new InMemoryHistoryManager(userCapacity);
+                users.put(userId, history);
+            }
+            int before = history.size();
+            history.add(task);
+            entries += history.size() - before;
+            evictIdle();
+        }
+
+        private synchronized void remove(String userId, int id) {
+            InMemoryHistoryManager history = users.get(userId);
+            if (history != null) {
+                int before = history.size();
+                history.remove(id);
+                entries -= before - history.size();
+            }
+        }
+
+        private synchronized List<Task> getHistory(String userId) {
+            InMemoryHistoryManager history = users.get(userId);
+            return history != null ? history.getHistory() : List.of();
+        }
+
+        private synchronized void removeEverywhere(int id) {
+            for (InMemoryHistoryManager history : users.values()) {
+                int before = history.size();
+                history.remove(id);
+                entries -= before - history.size();
+            }
+        }
+
+        private synchronized int userCount() {
+            return users.size();
+        }
+
+        private synchronized long entryCount() {
+            return entries;
+        }
+
+        // Последний пользователь в порядке доступа — текущий, его история не вытесняется.
+        private void evictIdle() {
+            Iterator<Map.Entry<String, InMemoryHistoryManager>> iterator = users.entrySet().iterator();
+            while (entries > budget && users.size() > 1) {
+                entries -= iterator.next().getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+}
\ No newline at end of file
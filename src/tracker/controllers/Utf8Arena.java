@@ -0,0 +1,105 @@
+package tracker.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Общий буфер строк в UTF-8 для {@link ColumnarTaskManager}: строка хранится
+ * как длина (varint) и байты, а ссылкой на неё служит смещение в буфере.
+ * Строки только дописываются; освобождённые байты учитываются как мусор,
+ * и владелец переносит живые строки в новый буфер, когда мусора становится много.
+ * Ссылка {@link #NULL} обозначает null. Объём буфера ограничен 2 ГБ. Не потокобезопасен.
+ */
+final class Utf8Arena {
+    static final int NULL = -1;
+
+    private static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private byte[] data;
+    private int size;
+    private long garbage;
+
+    Utf8Arena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    Utf8Arena(int capacity) {
+        data = new byte[Math.max(capacity, 16)];
+    }
+
+    int add(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(5 + bytes.length);
+        int ref = size;
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            data[size++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        data[size++] = (byte) length;
+        System.arraycopy(bytes, 0, data, size, bytes.length);
+        size += bytes.length;
+        return ref;
+    }
+
+    String get(int ref) {
+        if (ref == NULL) {
+            return null;
+        }
+        int length = lengthAt(ref);
+        return new String(data, ref + headerLength(length), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Помечает строку по ссылке как мусор.
+     */
+    void release(int ref) {
+        if (ref != NULL) {
+            int length = lengthAt(ref);
+            garbage += headerLength(length) + length;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long garbage() {
+        return garbage;
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    private int lengthAt(int ref) {
+        int length = 0;
+        for (int position = ref, shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private static int headerLength(int length) {
+        return (38 - Integer.numberOfLeadingZeros(length | 1)) / 7;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (data.length - size >= extra) {
+            return;
+        }
+        long required = (long) size + extra;
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("String arena is full: " + size + " bytes");
+        }
+        long grown = Math.max(required, data.length + (data.length >> 1));
+        data = Arrays.copyOf(data, (int) Math.min(grown, MAX_CAPACITY));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package tracker.controllers;
+
+/**
+ * Условное обновление не выполнено: задачу уже изменили после того,
+ * как клиент прочитал её версию.
+ */
+public class VersionConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public VersionConflictException(int id, long expectedVersion, long actualVersion) {
+        super("Task " + id + " has version " + actualVersion + ", expected " + expectedVersion);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
\ No newline at end of file
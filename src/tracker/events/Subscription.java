@@ -0,0 +1,17 @@
+package tracker.events;
+
+/**
+ * Подписка на события доски. Закрытие останавливает поток доставки;
+ * события, оставшиеся в буфере, отбрасываются.
+ */
+public interface Subscription extends AutoCloseable {
+    /**
+     * Сколько событий не поместилось в буфер подписки и было отброшено.
+     */
+    long getDroppedEvents();
+
+    long getDeliveredEvents();
+
+    @Override
+    void close();
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package tracker.events;
+
+import tracker.model.Status;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+/**
+ * Изменение на доске. Для создания и обновления содержит копию задачи на момент
+ * события, для удаления — только тип и ID, для очистки — только тип.
+ */
+public final class TaskEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        CLEARED,
+        EPIC_STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final TaskType taskType;
+    private final int id;
+    private final Task task;
+    private final Status previousStatus;
+    private final Status status;
+
+    private TaskEvent(Type type, TaskType taskType, int id, Task task, Status previousStatus, Status status) {
+        this.type = type;
+        this.taskType = taskType;
+        this.id = id;
+        this.task = task;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public static TaskEvent created(Task task) {
+        return new TaskEvent(Type.CREATED, TaskType.of(task), task.getId(), task.copy(), null, task.getStatus());
+    }
+
+    public static TaskEvent updated(Task task) {
+        return new TaskEvent(Type.UPDATED, TaskType.of(task), task.getId(), task.copy(), null, task.getStatus());
+    }
+
+    public static TaskEvent deleted(TaskType taskType, int id) {
+        return new TaskEvent(Type.DELETED, taskType, id, null, null, null);
+    }
+
+    public static TaskEvent cleared(TaskType taskType) {
+        return new TaskEvent(Type.CLEARED, taskType, 0, null, null, null);
+    }
+
+    public static TaskEvent epicStatusChanged(int epicID, Status previousStatus, Status status) {
+        return new TaskEvent(Type.EPIC_STATUS_CHANGED, TaskType.EPIC, epicID, null, previousStatus, status);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public Status getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" +
+                "type=" + type +
+                ", taskType=" + taskType +
+                ", id=" + id +
+                ", previousStatus=" + previousStatus +
+                ", status=" + status +
+                '}';
+    }
+}
\ No newline at end of file
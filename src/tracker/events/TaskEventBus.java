@@ -0,0 +1,119 @@
+package tracker.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Рассылка событий доски подписчикам. У каждой подписки свой ограниченный
+ * кольцевой буфер и свой поток доставки, который отдаёт события пачками до
+ * {@code batchSize} штук. Публикация не ждёт никого: если буфер медленного
+ * подписчика заполнен, событие для него отбрасывается и учитывается в
+ * {@link Subscription#getDroppedEvents()}, остальные подписчики не страдают.
+ */
+public class TaskEventBus {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = 50_000_000L;
+
+    private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+
+    public boolean hasSubscribers() {
+        return !deliveries.isEmpty();
+    }
+
+    public void publish(TaskEvent event) {
+        for (Delivery delivery : deliveries) {
+            delivery.offer(event);
+        }
+    }
+
+    public Subscription subscribe(TaskEventListener listener) {
+        return subscribe(listener, DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    public Subscription subscribe(TaskEventListener listener, int bufferSize, int batchSize) {
+        if (bufferSize <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Buffer and batch sizes must be positive");
+        }
+        Delivery delivery = new Delivery(listener, bufferSize, batchSize);
+        deliveries.add(delivery);
+        delivery.thread.start();
+        return delivery;
+    }
+
+    private final class Delivery implements Subscription, Runnable {
+        private final TaskEventListener listener;
+        private final EventRing<TaskEvent> ring;
+        private final int batchSize;
+        private final Thread thread;
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile long delivered;
+        private volatile boolean sleeping;
+        private volatile boolean closed;
+
+        private Delivery(TaskEventListener listener, int bufferSize, int batchSize) {
+            this.listener = listener;
+            this.ring = new EventRing<>(bufferSize);
+            this.batchSize = batchSize;
+            this.thread = new Thread(this, "task-events-" + listener.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        private void offer(TaskEvent event) {
+            if (!ring.offer(event)) {
+                dropped.incrementAndGet();
+            } else if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<TaskEvent> batch = new ArrayList<>(batchSize);
+            List<TaskEvent> view = Collections.unmodifiableList(batch);
+            while (!closed) {
+                TaskEvent event;
+                while (batch.size() < batchSize && (event = ring.poll()) != null) {
+                    batch.add(event);
+                }
+                if (batch.isEmpty()) {
+                    sleeping = true;
+                    if (ring.isEmpty() && !closed) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    sleeping = false;
+                    continue;
+                }
+                try {
+                    listener.onEvents(view);
+                } catch (RuntimeException e) {
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+                delivered += batch.size();
+                batch.clear();
+            }
+        }
+
+        @Override
+        public long getDroppedEvents() {
+            return dropped.get();
+        }
+
+        @Override
+        public long getDeliveredEvents() {
+            return delivered;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            deliveries.remove(this);
+            LockSupport.unpark(thread);
+        }
+    }
+}
\ No newline at end of file
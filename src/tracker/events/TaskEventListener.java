@@ -0,0 +1,12 @@
+package tracker.events;
+
+import java.util.List;
+
+/**
+ * Получатель событий доски. Вызывается из потока доставки своей подписки
+ * пачками в порядке публикации; список действителен только во время вызова.
+ */
+@FunctionalInterface
+public interface TaskEventListener {
+    void onEvents(List<TaskEvent> events);
+}
\ No newline at end of file
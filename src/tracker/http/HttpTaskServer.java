@@ -0,0 +1,376 @@
+package tracker.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tracker.controllers.BoardSnapshot;
+import tracker.controllers.Managers;
+import tracker.controllers.TaskManager;
+import tracker.controllers.TaskOverlapException;
+import tracker.controllers.TaskQuery;
+import tracker.controllers.UserHistoryManager;
+import tracker.controllers.VersionConflictException;
+import tracker.io.TaskFormatException;
+import tracker.io.TaskJsonReader;
+import tracker.io.TaskJsonWriter;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * HTTP/JSON API менеджера задач на встроенном в JDK сервере.
+ *
+ * <p>Соединения обслуживает один поток-диспетчер на неблокирующем вводе-выводе,
+ * а каждый запрос обрабатывается в своём виртуальном потоке, поэтому число
+ * открытых keep-alive соединений не ограничено числом потоков. Списки отдаются
+ * по частям (chunked) прямо из ленивой выборки менеджера, не собираясь целиком
+ * в памяти. Менеджер должен быть потокобезопасным, например {@link Managers#getConcurrent()}.
+ *
+ * <pre>
+ * GET    /tasks | /epics | /subtasks        ?status=&amp;after=&amp;limit=
+ * GET    /tasks/{id} | /epics/{id} | /subtasks/{id}
+ * GET    /epics/{id}/subtasks
+ * POST   /tasks | /epics | /subtasks         без id — создание, с id — обновление,
+ *                                            с id и version — условное обновление (409 при конфликте);
+ *                                            startTime и duration в ISO-8601, пересечение по времени — 406
+ * DELETE /tasks | /epics | /subtasks         [/{id}]
+ * GET    /history                            с заголовком X-User-Id — история пользователя
+ * </pre>
+ */
+public class HttpTaskServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    public static final String USER_HEADER = "X-User-Id";
+
+    private static final int BACKLOG = 4096;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final TaskManager taskManager;
+    private final UserHistoryManager userHistory;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HttpTaskServer(TaskManager taskManager, int port) throws IOException {
+        this(taskManager, null, new InetSocketAddress(port));
+    }
+
+    /**
+     * @param userHistory истории пользователей для просмотров с заголовком
+     *                    {@value #USER_HEADER}; null — только общая история менеджера
+     */
+    public HttpTaskServer(TaskManager taskManager, UserHistoryManager userHistory,
+                          InetSocketAddress address) throws IOException {
+        this.taskManager = taskManager;
+        this.userHistory = userHistory;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/tasks", exchange -> handle(exchange, TaskType.TASK));
+        server.createContext("/epics", exchange -> handle(exchange, TaskType.EPIC));
+        server.createContext("/subtasks", exchange -> handle(exchange, TaskType.SUBTASK));
+        server.createContext("/history", exchange -> handle(exchange, null));
+    }
+
+    public static void main(String[] args) throws IOException {
+        HttpTaskServer server = new HttpTaskServer(Managers.getConcurrent(), Managers.getUserHistory(),
+                new InetSocketAddress(DEFAULT_PORT));
+        server.start();
+        System.out.println("HTTP-сервер запущен на порту " + server.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Останавливает приём соединений, давая текущим запросам завершиться.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange, TaskType type) {
+        try {
+            String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+            String method = exchange.getRequestMethod();
+            if (type == null) {
+                if (!method.equals("GET") || path.length != 1) {
+                    throw new HttpError(405, "Method not allowed");
+                }
+                sendHistory(exchange);
+            } else if (method.equals("GET")) {
+                get(exchange, type, path);
+            } else if (method.equals("POST") && path.length == 1) {
+                post(exchange, type);
+            } else if (method.equals("DELETE")) {
+                delete(exchange, type, path);
+            } else {
+                throw new HttpError(405, "Method not allowed");
+            }
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (VersionConflictException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (TaskOverlapException e) {
+            sendError(exchange, 406, e.getMessage());
+        } catch (IllegalArgumentException | TaskFormatException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // Клиент закрыл соединение, отвечать некому.
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void get(HttpExchange exchange, TaskType type, String[] path) throws IOException {
+        if (path.length == 1) {
+            sendList(exchange, taskManager.query(listQuery(exchange, type)));
+            return;
+        }
+        int id = parseID(path[1]);
+        if (path.length == 2) {
+            Task task = switch (type) {
+                case TASK -> taskManager.getTaskByID(id);
+                case EPIC -> taskManager.getEpicByID(id);
+                case SUBTASK -> taskManager.getSubtaskByID(id);
+            };
+            if (task == null) {
+                throw new HttpError(404, type + " " + id + " not found");
+            }
+            String user = exchange.getRequestHeaders().getFirst(USER_HEADER);
+            if (user != null && userHistory != null) {
+                userHistory.add(user, task);
+            }
+            sendTask(exchange, 200, task);
+        } else if (path.length == 3 && type == TaskType.EPIC && path[2].equals("subtasks")) {
+            if (taskManager.snapshot().getEpic(id) == null) {
+                throw new HttpError(404, "EPIC " + id + " not found");
+            }
+            // Копия до заголовков: изменение эпика не должно оборвать начатый ответ.
+            sendList(exchange, taskManager.page(TaskQuery.all().epic(id)).stream());
+        } else {
+            throw new HttpError(404, "Unknown path " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private void post(HttpExchange exchange, TaskType type) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new HttpError(413, "Request body is too large");
+        }
+        Task task;
+        try (TaskJsonReader reader = new TaskJsonReader(new ByteArrayInputStream(body), type)) {
+            task = reader.read();
+            if (task == null || reader.read() != null) {
+                throw new HttpError(400, "Request body must contain exactly one task");
+            }
+        }
+        if (TaskType.of(task) != type) {
+            throw new HttpError(400, "Expected " + type + " but got " + TaskType.of(task));
+        }
+        if (task.getId() == 0) {
+            sendTask(exchange, 201, add(task));
+            return;
+        }
+        Task updated = update(task);
+        if (updated == null) {
+            throw new HttpError(404, type + " " + task.getId() + " not found");
+        }
+        sendTask(exchange, 200, updated);
+    }
+
+    private Task add(Task task) {
+        if (task instanceof Subtask) {
+            Subtask subtask = (Subtask) task;
+            if (taskManager.snapshot().getEpic(subtask.getEpicID()) == null) {
+                throw new HttpError(404, "EPIC " + subtask.getEpicID() + " not found");
+            }
+            return taskManager.addSubtask(subtask);
+        }
+        return task instanceof Epic ? taskManager.addEpic((Epic) task) : taskManager.addTask(task);
+    }
+
+    /**
+     * Тело с полем version обновляет задачу условно: если её успели изменить, ответ — 409.
+     */
+    private Task update(Task task) {
+        long version = task.getVersion();
+        if (task instanceof Subtask) {
+            Subtask subtask = (Subtask) task;
+            if (taskManager.snapshot().getEpic(subtask.getEpicID()) == null) {
+                throw new HttpError(404, "EPIC " + subtask.getEpicID() + " not found");
+            }
+            return version > 0 ? taskManager.compareAndUpdateSubtask(subtask, version)
+                    : taskManager.updateSubtask(subtask);
+        }
+        if (task instanceof Epic) {
+            // Тело запроса описывает только поля эпика, его подзадачи остаются прежними.
+            Epic epic = (Epic) task;
+            return version > 0 ? taskManager.compareAndUpdateEpicFields(epic, version)
+                    : taskManager.updateEpicFields(epic);
+        }
+        return version > 0 ? taskManager.compareAndUpdateTask(task, version) : taskManager.updateTask(task);
+    }
+
+    private void delete(HttpExchange exchange, TaskType type, String[] path) throws IOException {
+        if (path.length == 1) {
+            switch (type) {
+                case TASK -> taskManager.deleteTasks();
+                case EPIC -> taskManager.deleteEpics();
+                case SUBTASK -> taskManager.deleteSubtasks();
+            }
+        } else if (path.length == 2) {
+            int id = parseID(path[1]);
+            // Задачу могут удалить параллельно после проверки: удаление отсутствующей ничего не делает.
+            if (!exists(taskManager.snapshot(), type, id)) {
+                throw new HttpError(404, type + " " + id + " not found");
+            }
+            switch (type) {
+                case TASK -> taskManager.deleteTaskByID(id);
+                case EPIC -> taskManager.deleteEpicByID(id);
+                case SUBTASK -> taskManager.deleteSubtaskByID(id);
+            }
+        } else {
+            throw new HttpError(404, "Unknown path " + exchange.getRequestURI().getPath());
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void sendHistory(HttpExchange exchange) throws IOException {
+        String user = exchange.getRequestHeaders().getFirst(USER_HEADER);
+        if (user == null || userHistory == null) {
+            sendList(exchange, taskManager.getHistory().stream());
+            return;
+        }
+        // Истории пользователей не чистятся при удалении задач, удалённые отсеиваются при чтении.
+        BoardSnapshot board = taskManager.snapshot();
+        List<Task> history = userHistory.getHistory(user);
+        sendList(exchange, history.stream().filter(task -> exists(board, TaskType.of(task), task.getId())));
+    }
+
+    private static boolean exists(BoardSnapshot board, TaskType type, int id) {
+        return switch (type) {
+            case TASK -> board.getTask(id) != null;
+            case EPIC -> board.getEpic(id) != null;
+            case SUBTASK -> board.getSubtask(id) != null;
+        };
+    }
+
+    private static TaskQuery listQuery(HttpExchange exchange, TaskType type) {
+        TaskQuery query = TaskQuery.all().type(type);
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int eq = parameter.indexOf('=');
+            String name = eq < 0 ? parameter : parameter.substring(0, eq);
+            String value = eq < 0 ? "" : URLDecoder.decode(parameter.substring(eq + 1), StandardCharsets.UTF_8);
+            switch (name) {
+                case "status" -> query = query.status(Status.valueOf(value));
+                case "after" -> query = query.after(parseID(value));
+                case "limit" -> query = query.limit(parseID(value));
+                default -> throw new HttpError(400, "Unknown parameter " + name);
+            }
+        }
+        return query;
+    }
+
+    private static int parseID(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Not a number: " + value);
+        }
+    }
+
+    private static void sendTask(HttpExchange exchange, int status, Task task) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        try (TaskJsonWriter writer = new TaskJsonWriter(exchange.getResponseBody())) {
+            writer.writeObject(task);
+        }
+    }
+
+    private static void sendList(HttpExchange exchange, Stream<? extends Task> tasks) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        try (TaskJsonWriter writer = new TaskJsonWriter(exchange.getResponseBody())) {
+            Iterator<? extends Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            writer.finish();
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            // Заголовки уже ушли, ответ обрывается закрытием обмена.
+            return;
+        }
+        try {
+            String escaped = escape(String.valueOf(message));
+            byte[] body = ("{\"error\":\"" + escaped + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            // Клиент закрыл соединение, отвечать некому.
+        }
+    }
+
+    // Экранирование строки JSON, как в TaskJsonWriter: сообщения разбора содержат переводы строк.
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package tracker.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Буфер записи поверх потока байтов: числа и строки кодируются в UTF-8 прямо
+ * в массив, без промежуточных String и byte[]. Буфер переиспользуется, пока жив писатель.
+ */
+final class ByteSink {
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int pos;
+
+    ByteSink(OutputStream out, int bufferSize) {
+        if (bufferSize < 32) {
+            throw new IllegalArgumentException("Buffer is too small: " + bufferSize);
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    void write(int b) throws IOException {
+        if (pos == buffer.length) {
+            drain();
+        }
+        buffer[pos++] = (byte) b;
+    }
+
+    /**
+     * Пишет строку, заранее известную как ASCII: имена полей, констант, разделители.
+     */
+    void writeAscii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    void writeInt(int value) throws IOException {
+        writeLong(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        if (buffer.length - pos < 20) {
+            drain();
+        }
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        long v = value;
+        if (v < 0) {
+            buffer[pos++] = '-';
+            v = -v;
+        }
+        int end = pos + digits(v);
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos = end;
+    }
+
+    void writeCodePoint(int cp) throws IOException {
+        if (buffer.length - pos < 4) {
+            drain();
+        }
+        if (cp < 0x80) {
+            buffer[pos++] = (byte) cp;
+        } else if (cp < 0x800) {
+            buffer[pos++] = (byte) (0xC0 | cp >> 6);
+            buffer[pos++] = (byte) (0x80 | cp & 0x3F);
+        } else if (cp < 0x10000) {
+            buffer[pos++] = (byte) (0xE0 | cp >> 12);
+            buffer[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            buffer[pos++] = (byte) (0x80 | cp & 0x3F);
+        } else {
+            buffer[pos++] = (byte) (0xF0 | cp >> 18);
+            buffer[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+            buffer[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            buffer[pos++] = (byte) (0x80 | cp & 0x3F);
+        }
+    }
+
+    /**
+     * Код символа строки s в позиции i с учётом суррогатных пар; одиночный
+     * суррогат заменяется на '?', как при {@link String#getBytes}.
+     */
+    static int codePointAt(String s, int i) {
+        char c = s.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            return Character.toCodePoint(c, s.charAt(i + 1));
+        }
+        return Character.isSurrogate(c) ? '?' : c;
+    }
+
+    void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private static int digits(long v) {
+        int digits = 1;
+        while (v >= 10) {
+            v /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
\ No newline at end of file
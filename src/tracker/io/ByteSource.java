@@ -0,0 +1,102 @@
+package tracker.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Буфер чтения поверх потока байтов с заглядыванием на один байт вперёд
+ * и декодированием UTF-8. Память не зависит от размера входа.
+ */
+final class ByteSource {
+    static final int EOF = -1;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    ByteSource(InputStream in, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer is too small: " + bufferSize);
+        }
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[pos] & 0xFF;
+    }
+
+    int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[pos++] & 0xFF;
+    }
+
+    /**
+     * Дочитывает символ UTF-8, первый байт которого уже прочитан, и добавляет его в text.
+     * Некорректные последовательности заменяются на U+FFFD.
+     */
+    void appendUtf8(int first, StringBuilder text) throws IOException {
+        if (first < 0x80) {
+            text.append((char) first);
+            return;
+        }
+        int length;
+        int cp;
+        if ((first & 0xE0) == 0xC0) {
+            length = 1;
+            cp = first & 0x1F;
+        } else if ((first & 0xF0) == 0xE0) {
+            length = 2;
+            cp = first & 0x0F;
+        } else if ((first & 0xF8) == 0xF0) {
+            length = 3;
+            cp = first & 0x07;
+        } else {
+            text.append('\uFFFD');
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            int next = peek();
+            if (next == EOF || (next & 0xC0) != 0x80) {
+                text.append('\uFFFD');
+                return;
+            }
+            read();
+            cp = cp << 6 | next & 0x3F;
+        }
+        text.appendCodePoint(Character.isValidCodePoint(cp) ? cp : 0xFFFD);
+    }
+
+    /**
+     * Смещение следующего байта от начала потока — для сообщений об ошибках.
+     */
+    long position() {
+        return consumed + pos;
+    }
+
+    void close() throws IOException {
+        in.close();
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package tracker.io;
+
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Поля одной записи, общие для читателей JSON и CSV. Объект переиспользуется
+ * от записи к записи, а ключи и константы сравниваются с буфером разбора без создания строк.
+ */
+final class RecordFields {
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    int id;
+    TaskType type;
+    String name;
+    String description;
+    Status status;
+    int epicID;
+    boolean hasEpic;
+    long version;
+    LocalDateTime startTime;
+    Duration duration;
+
+    void reset(TaskType defaultType) {
+        id = 0;
+        type = defaultType;
+        name = null;
+        description = "";
+        status = Status.NEW;
+        epicID = 0;
+        hasEpic = false;
+        version = 0;
+        startTime = null;
+        duration = null;
+    }
+
+    Task toTask(long position) throws TaskFormatException {
+        if (type == null) {
+            throw new TaskFormatException("Task type is missing", position);
+        }
+        if (name == null) {
+            throw new TaskFormatException("Task name is missing", position);
+        }
+        Task task;
+        switch (type) {
+            case EPIC -> {
+                task = new Epic(id, name, description);
+                task.setStatus(status);
+            }
+            case SUBTASK -> {
+                if (!hasEpic) {
+                    throw new TaskFormatException("Subtask " + id + " has no epic", position);
+                }
+                task = new Subtask(id, name, description, status, epicID);
+            }
+            default -> task = new Task(id, name, description, status);
+        }
+        task.setVersion(version);
+        // Эпик сроки не принимает: они выводятся из подзадач.
+        task.setStartTime(startTime);
+        task.setDuration(duration);
+        return task;
+    }
+
+    /**
+     * Сроки задачи для записи; у эпика — выведенные из подзадач и только если начало известно.
+     */
+    static boolean hasTimes(Task task) {
+        return task instanceof Epic ? task.getStartTime() != null
+                : task.getStartTime() != null || task.getDuration() != null;
+    }
+
+    static LocalDateTime parseStartTime(CharSequence text, long position) throws TaskFormatException {
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new TaskFormatException("Not a date and time: " + text, position);
+        }
+    }
+
+    static Duration parseDuration(CharSequence text, long position) throws TaskFormatException {
+        try {
+            return Duration.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new TaskFormatException("Not a duration: " + text, position);
+        }
+    }
+
+    static TaskType parseType(CharSequence text, long position) throws TaskFormatException {
+        for (TaskType type : TYPES) {
+            if (contentEquals(text, type.name())) {
+                return type;
+            }
+        }
+        throw new TaskFormatException("Unknown task type " + text, position);
+    }
+
+    static Status parseStatus(CharSequence text, long position) throws TaskFormatException {
+        for (Status status : STATUSES) {
+            if (contentEquals(text, status.name())) {
+                return status;
+            }
+        }
+        throw new TaskFormatException("Unknown status " + text, position);
+    }
+
+    static int parseInt(CharSequence text, long position) throws TaskFormatException {
+        long value = parseLong(text, position);
+        if (value != (int) value) {
+            throw new TaskFormatException("Integer out of range: " + text, position);
+        }
+        return (int) value;
+    }
+
+    static long parseLong(CharSequence text, long position) throws TaskFormatException {
+        int length = text.length();
+        boolean negative = length > 0 && text.charAt(0) == '-';
+        int start = negative ? 1 : 0;
+        if (length == start || length - start > 18) {
+            throw new TaskFormatException("Not an integer: " + text, position);
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new TaskFormatException("Not an integer: " + text, position);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    static boolean contentEquals(CharSequence text, String value) {
+        if (text.length() != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (text.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
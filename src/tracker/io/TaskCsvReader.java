@@ -0,0 +1,147 @@
+package tracker.io;
+
+import tracker.model.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Потоковый разбор CSV в формате {@link TaskCsvWriter}. Строка заголовка
+ * и пустые строки пропускаются; память ограничена буфером чтения и текущей записью.
+ * Колонки epic, startTime и duration в конце строки можно опустить, как в файлах
+ * прежних версий.
+ */
+public class TaskCsvReader implements TaskReader {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int REQUIRED_COLUMNS = 5;
+
+    private final ByteSource in;
+    private final RecordFields fields = new RecordFields();
+    private final StringBuilder text = new StringBuilder(64);
+    private boolean firstRecord = true;
+
+    public TaskCsvReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TaskCsvReader(InputStream in, int bufferSize) {
+        this.in = new ByteSource(in, bufferSize);
+    }
+
+    @Override
+    public Task read() throws IOException {
+        while (true) {
+            int c = in.peek();
+            if (c == ByteSource.EOF) {
+                return null;
+            }
+            if (c != '\n' && c != '\r') {
+                break;
+            }
+            in.read();
+        }
+        long start = in.position();
+        fields.reset(null);
+        boolean header = false;
+        int column = 0;
+        int delimiter;
+        do {
+            delimiter = readField();
+            if (column == 0 && firstRecord && RecordFields.contentEquals(text, "id")) {
+                header = true;
+            }
+            if (!header) {
+                apply(column, start);
+            }
+            column++;
+        } while (delimiter == ',');
+        firstRecord = false;
+        if (header) {
+            return read();
+        }
+        if (column < REQUIRED_COLUMNS) {
+            throw new TaskFormatException("Expected at least " + REQUIRED_COLUMNS + " columns, got " + column, start);
+        }
+        return fields.toTask(start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void apply(int column, long start) throws TaskFormatException {
+        switch (column) {
+            case 0 -> fields.id = RecordFields.parseInt(text, start);
+            case 1 -> fields.type = RecordFields.parseType(text, start);
+            case 2 -> fields.name = text.toString();
+            case 3 -> fields.status = RecordFields.parseStatus(text, start);
+            case 4 -> fields.description = text.toString();
+            case 5 -> {
+                if (text.length() > 0) {
+                    fields.epicID = RecordFields.parseInt(text, start);
+                    fields.hasEpic = true;
+                }
+            }
+            case 6 -> {
+                if (text.length() > 0) {
+                    fields.startTime = RecordFields.parseStartTime(text, start);
+                }
+            }
+            case 7 -> {
+                if (text.length() > 0) {
+                    fields.duration = RecordFields.parseDuration(text, start);
+                }
+            }
+            default -> throw new TaskFormatException("Too many columns", start);
+        }
+    }
+
+    /**
+     * Читает поле в text и возвращает разделитель после него: ',', '\n' или EOF.
+     */
+    private int readField() throws IOException {
+        text.setLength(0);
+        if (in.peek() == '"') {
+            in.read();
+            while (true) {
+                int b = in.read();
+                if (b == ByteSource.EOF) {
+                    throw new TaskFormatException("Unterminated quoted field", in.position());
+                }
+                if (b == '"') {
+                    if (in.peek() != '"') {
+                        break;
+                    }
+                    in.read();
+                }
+                in.appendUtf8(b, text);
+            }
+            int delimiter = endOfField();
+            if (delimiter != ',' && delimiter != '\n' && delimiter != ByteSource.EOF) {
+                throw new TaskFormatException("Unexpected data after quoted field", in.position());
+            }
+            return delimiter;
+        }
+        while (true) {
+            int b = in.peek();
+            if (b == ',' || b == '\n' || b == '\r' || b == ByteSource.EOF) {
+                return endOfField();
+            }
+            in.read();
+            in.appendUtf8(b, text);
+        }
+    }
+
+    private int endOfField() throws IOException {
+        int b = in.read();
+        if (b == '\r') {
+            if (in.peek() == '\n') {
+                in.read();
+            }
+            return '\n';
+        }
+        return b;
+    }
+}
\ No newline at end of file
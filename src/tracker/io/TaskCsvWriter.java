@@ -0,0 +1,107 @@
+package tracker.io;
+
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Пишет задачи в CSV с заголовком {@value #HEADER}. Колонка epic заполнена
+ * только у подзадач, startTime и duration (ISO-8601) — только если заданы; поля с запятыми, кавычками и переводами строк берутся
+ * в кавычки по RFC 4180. Текст кодируется в UTF-8 прямо в буфер писателя.
+ */
+public class TaskCsvWriter implements TaskWriter {
+    public static final String HEADER = "id,type,name,status,description,epic,startTime,duration";
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final ByteSink out;
+    private boolean started;
+
+    public TaskCsvWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TaskCsvWriter(OutputStream out, int bufferSize) {
+        this.out = new ByteSink(out, bufferSize);
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        start();
+        out.writeInt(task.getId());
+        out.write(',');
+        out.writeAscii(TaskType.of(task).name());
+        out.write(',');
+        writeField(task.getName());
+        out.write(',');
+        out.writeAscii(task.getStatus().name());
+        out.write(',');
+        writeField(task.getDescription());
+        out.write(',');
+        if (task instanceof Subtask) {
+            out.writeInt(((Subtask) task).getEpicID());
+        }
+        out.write(',');
+        boolean timed = RecordFields.hasTimes(task);
+        if (timed && task.getStartTime() != null) {
+            out.writeAscii(task.getStartTime().toString());
+        }
+        out.write(',');
+        if (timed && task.getDuration() != null) {
+            out.writeAscii(task.getDuration().toString());
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        start();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            start();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            out.writeAscii(HEADER);
+            out.write('\n');
+        }
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quoted) {
+            out.write('"');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            int cp = ByteSink.codePointAt(value, i);
+            if (cp > 0xFFFF) {
+                i++;
+            }
+            if (cp == '"') {
+                out.write('"');
+            }
+            out.writeCodePoint(cp);
+        }
+        if (quoted) {
+            out.write('"');
+        }
+    }
+}
\ No newline at end of file
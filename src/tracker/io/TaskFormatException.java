@@ -0,0 +1,29 @@
+package tracker.io;
+
+import java.io.IOException;
+
+/**
+ * Входные данные не соответствуют формату задач.
+ */
+public class TaskFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long position;
+
+    public TaskFormatException(String message) {
+        super(message);
+        this.position = -1;
+    }
+
+    public TaskFormatException(String message, long position) {
+        super(message + " (byte " + position + ")");
+        this.position = position;
+    }
+
+    /**
+     * Смещение ошибки во входе в байтах или -1, если ошибка не связана с позицией.
+     */
+    public long getPosition() {
+        return position;
+    }
+}
\ No newline at end of file
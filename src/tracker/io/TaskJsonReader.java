@@ -0,0 +1,290 @@
+package tracker.io;
+
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Потоковый разбор задач в формате {@link TaskJsonWriter}. Принимает JSON-массив
+ * объектов или последовательность объектов через пробельные символы (в том числе
+ * JSON Lines) и отдаёт задачи по одной: память ограничена буфером чтения и текущей
+ * записью, поэтому файл любого размера читается за один проход. Незнакомые поля пропускаются.
+ */
+public class TaskJsonReader implements TaskReader {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int START = 0;
+    private static final int IN_ARRAY = 1;
+    private static final int OBJECTS = 2;
+    private static final int DONE = 3;
+    private static final int MAX_DEPTH = 64;
+
+    private final ByteSource in;
+    private final TaskType defaultType;
+    private final RecordFields fields = new RecordFields();
+    private final StringBuilder text = new StringBuilder(64);
+    private int state = START;
+
+    public TaskJsonReader(InputStream in) {
+        this(in, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param defaultType тип задач без поля type; null — поле обязательно
+     */
+    public TaskJsonReader(InputStream in, TaskType defaultType) {
+        this(in, defaultType, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TaskJsonReader(InputStream in, TaskType defaultType, int bufferSize) {
+        this.in = new ByteSource(in, bufferSize);
+        this.defaultType = defaultType;
+    }
+
+    @Override
+    public Task read() throws IOException {
+        switch (state) {
+            case START -> {
+                if (skipWhitespace() == '[') {
+                    in.read();
+                    if (skipWhitespace() == ']') {
+                        in.read();
+                        return end();
+                    }
+                    state = IN_ARRAY;
+                    return readObject();
+                }
+                state = OBJECTS;
+                return read();
+            }
+            case IN_ARRAY -> {
+                int c = next();
+                if (c == ',') {
+                    return readObject();
+                }
+                if (c == ']') {
+                    return end();
+                }
+                throw error("Expected ',' or ']'");
+            }
+            case OBJECTS -> {
+                if (skipWhitespace() == ByteSource.EOF) {
+                    state = DONE;
+                    return null;
+                }
+                return readObject();
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Task end() throws IOException {
+        state = DONE;
+        if (skipWhitespace() != ByteSource.EOF) {
+            throw error("Unexpected data after the array");
+        }
+        return null;
+    }
+
+    private Task readObject() throws IOException {
+        long start = in.position();
+        expect('{');
+        fields.reset(defaultType);
+        if (skipWhitespace() == '}') {
+            in.read();
+            return fields.toTask(start);
+        }
+        while (true) {
+            readString();
+            expect(':');
+            if (RecordFields.contentEquals(text, "id")) {
+                readNumber();
+                fields.id = RecordFields.parseInt(text, in.position());
+            } else if (RecordFields.contentEquals(text, "type")) {
+                readString();
+                fields.type = RecordFields.parseType(text, in.position());
+            } else if (RecordFields.contentEquals(text, "name")) {
+                fields.name = readNullableString();
+            } else if (RecordFields.contentEquals(text, "description")) {
+                fields.description = readNullableString();
+            } else if (RecordFields.contentEquals(text, "status")) {
+                readString();
+                fields.status = RecordFields.parseStatus(text, in.position());
+            } else if (RecordFields.contentEquals(text, "version")) {
+                readNumber();
+                fields.version = RecordFields.parseLong(text, in.position());
+            } else if (RecordFields.contentEquals(text, "startTime")) {
+                if (readNullableString() != null) {
+                    fields.startTime = RecordFields.parseStartTime(text, in.position());
+                }
+            } else if (RecordFields.contentEquals(text, "duration")) {
+                if (readNullableString() != null) {
+                    fields.duration = RecordFields.parseDuration(text, in.position());
+                }
+            } else if (RecordFields.contentEquals(text, "epicId")) {
+                if (skipWhitespace() == 'n') {
+                    readLiteral();
+                } else {
+                    readNumber();
+                    fields.epicID = RecordFields.parseInt(text, in.position());
+                    fields.hasEpic = true;
+                }
+            } else {
+                skipValue(0);
+            }
+            int c = next();
+            if (c == '}') {
+                return fields.toTask(start);
+            }
+            if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private String readNullableString() throws IOException {
+        if (skipWhitespace() == 'n') {
+            readLiteral();
+            if (!RecordFields.contentEquals(text, "null")) {
+                throw error("Expected a string");
+            }
+            return null;
+        }
+        readString();
+        return text.toString();
+    }
+
+    private void readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int b = in.read();
+            if (b == '"') {
+                return;
+            }
+            if (b == ByteSource.EOF) {
+                throw error("Unterminated string");
+            }
+            if (b != '\\') {
+                in.appendUtf8(b, text);
+                continue;
+            }
+            int escaped = in.read();
+            switch (escaped) {
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case '"', '\\', '/' -> text.append((char) escaped);
+                case 'u' -> text.append((char) readHex());
+                default -> throw error("Bad escape sequence");
+            }
+        }
+    }
+
+    private int readHex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(in.read(), 16);
+            if (digit < 0) {
+                throw error("Bad unicode escape");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private void readNumber() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        int c = in.peek();
+        while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+            text.append((char) in.read());
+            c = in.peek();
+        }
+        if (text.length() == 0) {
+            throw error("Expected a number");
+        }
+    }
+
+    private void readLiteral() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        while (in.peek() >= 'a' && in.peek() <= 'z') {
+            text.append((char) in.read());
+        }
+        if (!RecordFields.contentEquals(text, "null") && !RecordFields.contentEquals(text, "true")
+                && !RecordFields.contentEquals(text, "false")) {
+            throw error("Unexpected value");
+        }
+    }
+
+    private void skipValue(int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw error("Nesting is too deep");
+        }
+        int c = skipWhitespace();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            in.read();
+            int close = c == '{' ? '}' : ']';
+            if (skipWhitespace() == close) {
+                in.read();
+                return;
+            }
+            while (true) {
+                if (c == '{') {
+                    readString();
+                    expect(':');
+                }
+                skipValue(depth + 1);
+                int separator = next();
+                if (separator == close) {
+                    return;
+                }
+                if (separator != ',') {
+                    throw error("Expected ',' or '" + (char) close + "'");
+                }
+            }
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            readNumber();
+        } else {
+            readLiteral();
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (next() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private int next() throws IOException {
+        skipWhitespace();
+        return in.read();
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = in.peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            in.read();
+            c = in.peek();
+        }
+        return c;
+    }
+
+    private TaskFormatException error(String message) {
+        return new TaskFormatException("Malformed JSON: " + message, in.position());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package tracker.io;
+
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Пишет задачи JSON-массивом плоских объектов
+ * {@code {"id":1,"type":"SUBTASK","name":"…","description":"…","status":"NEW","version":3,"epicId":2,
+ * "startTime":"2026-03-02T09:00","duration":"PT1H30M"}}.
+ * Поле version есть только у сохранённых задач, epicId — только у подзадач, а startTime и duration
+ * (ISO-8601) — только заданные. Текст кодируется в UTF-8 прямо в буфер писателя.
+ */
+public class TaskJsonWriter implements TaskWriter {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ByteSink out;
+    private boolean started;
+    private boolean finished;
+
+    public TaskJsonWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TaskJsonWriter(OutputStream out, int bufferSize) {
+        this.out = new ByteSink(out, bufferSize);
+    }
+
+    /**
+     * Добавляет задачу в массив; первая запись открывает его.
+     */
+    @Override
+    public void write(Task task) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Document is already finished");
+        }
+        out.write(started ? ',' : '[');
+        started = true;
+        writeObject(task);
+    }
+
+    /**
+     * Пишет одиночный объект задачи вне массива.
+     */
+    public void writeObject(Task task) throws IOException {
+        out.writeAscii("{\"id\":");
+        out.writeInt(task.getId());
+        out.writeAscii(",\"type\":\"");
+        out.writeAscii(TaskType.of(task).name());
+        out.writeAscii("\",\"name\":");
+        writeString(task.getName());
+        out.writeAscii(",\"description\":");
+        writeString(task.getDescription());
+        out.writeAscii(",\"status\":\"");
+        out.writeAscii(task.getStatus().name());
+        out.write('"');
+        if (task.getVersion() != 0) {
+            out.writeAscii(",\"version\":");
+            out.writeLong(task.getVersion());
+        }
+        if (task instanceof Subtask) {
+            out.writeAscii(",\"epicId\":");
+            out.writeInt(((Subtask) task).getEpicID());
+        }
+        if (RecordFields.hasTimes(task)) {
+            LocalDateTime start = task.getStartTime();
+            Duration duration = task.getDuration();
+            if (start != null) {
+                out.writeAscii(",\"startTime\":\"");
+                out.writeAscii(start.toString());
+                out.write('"');
+            }
+            if (duration != null) {
+                out.writeAscii(",\"duration\":\"");
+                out.writeAscii(duration.toString());
+                out.write('"');
+            }
+        }
+        out.write('}');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!finished) {
+            if (started) {
+                out.write(']');
+            } else {
+                out.writeAscii("[]");
+            }
+            finished = true;
+        }
+        out.flush();
+    }
+
+    /**
+     * Сбрасывает буфер, не завершая документ.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Закрывает начатый массив и поток. Если писали только одиночные объекты, массив не добавляется.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (started) {
+                finish();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeAscii("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.writeAscii("\\\"");
+                case '\\' -> out.writeAscii("\\\\");
+                case '\n' -> out.writeAscii("\\n");
+                case '\r' -> out.writeAscii("\\r");
+                case '\t' -> out.writeAscii("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.writeAscii("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    } else {
+                        int cp = ByteSink.codePointAt(value, i);
+                        if (cp > 0xFFFF) {
+                            i++;
+                        }
+                        out.writeCodePoint(cp);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
\ No newline at end of file
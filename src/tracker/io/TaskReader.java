@@ -0,0 +1,16 @@
+package tracker.io;
+
+import tracker.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Потоковое чтение задач по одной; в памяти держится только текущая запись.
+ */
+public interface TaskReader extends Closeable {
+    /**
+     * Следующая задача или null в конце входа.
+     */
+    Task read() throws IOException;
+}
\ No newline at end of file
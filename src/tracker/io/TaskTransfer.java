@@ -0,0 +1,72 @@
+package tracker.io;
+
+import tracker.controllers.IntHashMap;
+import tracker.controllers.TaskManager;
+import tracker.controllers.TaskQuery;
+import tracker.model.Epic;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Выгрузка доски в {@link TaskWriter} и загрузка из {@link TaskReader}.
+ */
+public final class TaskTransfer {
+
+    private TaskTransfer() {
+    }
+
+    /**
+     * Пишет задачи, затем эпики, затем подзадачи, так что каждый эпик идёт раньше
+     * своих подзадач. Задачи берутся ленивой выборкой без копирования списков.
+     * Возвращает число записанных задач.
+     */
+    public static int export(TaskManager manager, TaskWriter writer) throws IOException {
+        int count = 0;
+        for (TaskType type : TaskType.values()) {
+            Iterator<Task> tasks = manager.query(TaskQuery.all().type(type)).iterator();
+            while (tasks.hasNext()) {
+                writer.write(tasks.next());
+                count++;
+            }
+        }
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Добавляет задачи из reader в менеджер. Менеджер выдаёт им новые ID, а подзадачи
+     * перепривязываются к новым ID своих эпиков; эпик должен встретиться раньше
+     * своих подзадач. В памяти держится только соответствие ID эпиков.
+     * Возвращает число добавленных задач.
+     */
+    public static int importInto(TaskReader reader, TaskManager manager) throws IOException {
+        IntHashMap<Integer> epicIDs = new IntHashMap<>();
+        int count = 0;
+        for (Task task = reader.read(); task != null; task = reader.read()) {
+            if (task instanceof Epic) {
+                int oldID = task.getId();
+                epicIDs.put(oldID, manager.addEpic((Epic) task).getId());
+            } else if (task instanceof Subtask) {
+                Subtask subtask = (Subtask) task;
+                Integer epicID = epicIDs.get(subtask.getEpicID());
+                if (epicID == null) {
+                    throw new TaskFormatException("Subtask " + subtask.getId() + " refers to unknown epic "
+                            + subtask.getEpicID());
+                }
+                Subtask added = new Subtask(0, subtask.getName(), subtask.getDescription(),
+                        subtask.getStatus(), epicID);
+                added.setStartTime(subtask.getStartTime());
+                added.setDuration(subtask.getDuration());
+                manager.addSubtask(added);
+            } else {
+                manager.addTask(task);
+            }
+            count++;
+        }
+        return count;
+    }
+}
\ No newline at end of file
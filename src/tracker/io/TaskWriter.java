@@ -0,0 +1,25 @@
+package tracker.io;
+
+import tracker.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Потоковая запись задач. Эпики нужно записывать раньше их подзадач,
+ * чтобы {@link TaskReader} мог восстановить связи за один проход.
+ */
+public interface TaskWriter extends Closeable {
+    void write(Task task) throws IOException;
+
+    /**
+     * Завершает документ и сбрасывает буфер, не закрывая поток.
+     */
+    void finish() throws IOException;
+
+    default void writeAll(Iterable<? extends Task> tasks) throws IOException {
+        for (Task task : tasks) {
+            write(task);
+        }
+    }
+}
\ No newline at end of file
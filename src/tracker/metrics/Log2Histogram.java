@@ -0,0 +1,94 @@
+package tracker.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма с корзинами по степеням двойки: значение v попадает в корзину
+ * с номером, равным числу значащих бит v. Запись — одно сложение в LongAdder,
+ * поэтому её можно вызывать из многих потоков на горячем пути. Процентили
+ * оцениваются сверху границей корзины, то есть с точностью до двух раз.
+ */
+public final class Log2Histogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Log2Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v))].increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+
+    /**
+     * Верхняя граница корзины, в которую попадает заданная доля значений.
+     */
+    public long getPercentile(double fraction) {
+        long[] counts = getBuckets();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return i == 0 ? 0 : Math.min(getMax(), (1L << i) - 1);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Число значений в каждой корзине; корзина i содержит значения из [2^(i-1), 2^i).
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,432 @@
+package tracker.metrics;
+
+import tracker.controllers.BoardSnapshot;
+import tracker.controllers.Mutation;
+import tracker.controllers.MutationResult;
+import tracker.controllers.TaskManager;
+import tracker.controllers.TaskQuery;
+import tracker.controllers.VersionConflictException;
+import tracker.events.Subscription;
+import tracker.events.TaskEventListener;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Менеджер-обёртка, замеряющий каждую операцию другого менеджера. Замер — два
+ * вызова {@link System#nanoTime()} и запись в гистограмму без блокировок;
+ * выключенные метрики стоят одного чтения volatile-флага.
+ */
+public class MetricsTaskManager implements TaskManager {
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private final TaskManager delegate;
+    private final TaskManagerMetrics metrics;
+
+    public MetricsTaskManager(TaskManager delegate) {
+        this(delegate, new TaskManagerMetrics());
+    }
+
+    public MetricsTaskManager(TaskManager delegate, TaskManagerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public TaskManagerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        long start = start();
+        try {
+            return delegate.addTask(task);
+        } finally {
+            stop(Operation.ADD_TASK, start);
+        }
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        long start = start();
+        try {
+            return delegate.addEpic(epic);
+        } finally {
+            stop(Operation.ADD_EPIC, start);
+        }
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        long start = start();
+        try {
+            return delegate.addSubtask(subtask);
+        } finally {
+            stop(Operation.ADD_SUBTASK, start);
+        }
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        long start = start();
+        try {
+            return delegate.updateTask(task);
+        } finally {
+            stop(Operation.UPDATE_TASK, start);
+        }
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        long start = start();
+        try {
+            return delegate.updateEpic(epic);
+        } finally {
+            if (stop(Operation.UPDATE_EPIC, start)) {
+                metrics.recordEpicSize(epic.getSubtaskCount());
+            }
+        }
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        long start = start();
+        try {
+            return delegate.updateSubtask(subtask);
+        } finally {
+            stop(Operation.UPDATE_SUBTASK, start);
+        }
+    }
+
+    @Override
+    public Task compareAndUpdateTask(Task task, long expectedVersion) {
+        long start = start();
+        try {
+            return delegate.compareAndUpdateTask(task, expectedVersion);
+        } catch (VersionConflictException e) {
+            metrics.recordConflict();
+            throw e;
+        } finally {
+            stop(Operation.UPDATE_TASK, start);
+        }
+    }
+
+    @Override
+    public Epic compareAndUpdateEpic(Epic epic, long expectedVersion) {
+        long start = start();
+        try {
+            return delegate.compareAndUpdateEpic(epic, expectedVersion);
+        } catch (VersionConflictException e) {
+            metrics.recordConflict();
+            throw e;
+        } finally {
+            stop(Operation.UPDATE_EPIC, start);
+        }
+    }
+
+    @Override
+    public Epic updateEpicFields(Epic epic) {
+        long start = start();
+        try {
+            return delegate.updateEpicFields(epic);
+        } finally {
+            if (stop(Operation.UPDATE_EPIC, start)) {
+                metrics.recordEpicSize(epic.getSubtaskCount());
+            }
+        }
+    }
+
+    @Override
+    public Epic compareAndUpdateEpicFields(Epic epic, long expectedVersion) {
+        long start = start();
+        try {
+            return delegate.compareAndUpdateEpicFields(epic, expectedVersion);
+        } catch (VersionConflictException e) {
+            metrics.recordConflict();
+            throw e;
+        } finally {
+            stop(Operation.UPDATE_EPIC, start);
+        }
+    }
+
+    @Override
+    public Subtask compareAndUpdateSubtask(Subtask subtask, long expectedVersion) {
+        long start = start();
+        try {
+            return delegate.compareAndUpdateSubtask(subtask, expectedVersion);
+        } catch (VersionConflictException e) {
+            metrics.recordConflict();
+            throw e;
+        } finally {
+            stop(Operation.UPDATE_SUBTASK, start);
+        }
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        long start = start();
+        Task task = null;
+        try {
+            task = delegate.getTaskByID(id);
+            return task;
+        } finally {
+            if (stop(Operation.GET_TASK, start)) {
+                metrics.recordLookup(task != null);
+            }
+        }
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        long start = start();
+        Epic epic = null;
+        try {
+            epic = delegate.getEpicByID(id);
+            return epic;
+        } finally {
+            if (stop(Operation.GET_EPIC, start)) {
+                metrics.recordLookup(epic != null);
+            }
+        }
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        long start = start();
+        Subtask subtask = null;
+        try {
+            subtask = delegate.getSubtaskByID(id);
+            return subtask;
+        } finally {
+            if (stop(Operation.GET_SUBTASK, start)) {
+                metrics.recordLookup(subtask != null);
+            }
+        }
+    }
+
+    @Override
+    public ArrayList<Task> getTasks() {
+        long start = start();
+        try {
+            return delegate.getTasks();
+        } finally {
+            stop(Operation.GET_TASKS, start);
+        }
+    }
+
+    @Override
+    public ArrayList<Epic> getEpics() {
+        long start = start();
+        try {
+            return delegate.getEpics();
+        } finally {
+            stop(Operation.GET_EPICS, start);
+        }
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasks() {
+        long start = start();
+        try {
+            return delegate.getSubtasks();
+        } finally {
+            stop(Operation.GET_SUBTASKS, start);
+        }
+    }
+
+    @Override
+    public Collection<Subtask> getEpicSubtasks(Epic epic) {
+        long start = start();
+        Collection<Subtask> subtasks = null;
+        try {
+            subtasks = delegate.getEpicSubtasks(epic);
+            return subtasks;
+        } finally {
+            if (stop(Operation.GET_EPIC_SUBTASKS, start) && subtasks != null) {
+                metrics.recordEpicSize(subtasks.size());
+            }
+        }
+    }
+
+    @Override
+    public void deleteTasks() {
+        long start = start();
+        try {
+            delegate.deleteTasks();
+        } finally {
+            stop(Operation.DELETE_TASKS, start);
+        }
+    }
+
+    @Override
+    public void deleteEpics() {
+        long start = start();
+        try {
+            delegate.deleteEpics();
+        } finally {
+            stop(Operation.DELETE_EPICS, start);
+        }
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        long start = start();
+        try {
+            delegate.deleteSubtasks();
+        } finally {
+            stop(Operation.DELETE_SUBTASKS, start);
+        }
+    }
+
+    @Override
+    public void deleteTaskByID(int id) {
+        long start = start();
+        try {
+            delegate.deleteTaskByID(id);
+        } finally {
+            stop(Operation.DELETE_TASK, start);
+        }
+    }
+
+    @Override
+    public void deleteEpicByID(int id) {
+        long start = start();
+        try {
+            delegate.deleteEpicByID(id);
+        } finally {
+            stop(Operation.DELETE_EPIC, start);
+        }
+    }
+
+    @Override
+    public void deleteSubtaskByID(int id) {
+        long start = start();
+        try {
+            delegate.deleteSubtaskByID(id);
+        } finally {
+            stop(Operation.DELETE_SUBTASK, start);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long start = start();
+        try {
+            return delegate.getHistory();
+        } finally {
+            stop(Operation.GET_HISTORY, start);
+        }
+    }
+
+    /**
+     * Выборка ленивая, поэтому замеряется только её построение; полное время
+     * выборки видно по {@link #page(TaskQuery)}.
+     */
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        long start = start();
+        try {
+            return delegate.query(query);
+        } finally {
+            stop(Operation.QUERY, start);
+        }
+    }
+
+    @Override
+    public List<Task> page(TaskQuery query) {
+        long start = start();
+        try {
+            return delegate.page(query);
+        } finally {
+            stop(Operation.QUERY, start);
+        }
+    }
+
+    @Override
+    public int countTasks(TaskType type, Status status) {
+        long start = start();
+        try {
+            return delegate.countTasks(type, status);
+        } finally {
+            stop(Operation.COUNT, start);
+        }
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskType type, Status status) {
+        long start = start();
+        try {
+            return delegate.getTasksByStatus(type, status);
+        } finally {
+            stop(Operation.QUERY, start);
+        }
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        long start = start();
+        try {
+            return delegate.search(query, limit);
+        } finally {
+            stop(Operation.SEARCH, start);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        long start = start();
+        try {
+            return delegate.getPrioritizedTasks();
+        } finally {
+            stop(Operation.QUERY, start);
+        }
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        long start = start();
+        try {
+            return delegate.snapshot();
+        } finally {
+            stop(Operation.SNAPSHOT, start);
+        }
+    }
+
+    @Override
+    public List<MutationResult> applyBatch(List<Mutation> mutations) {
+        long start = start();
+        try {
+            return delegate.applyBatch(mutations);
+        } finally {
+            stop(Operation.BATCH, start);
+        }
+    }
+
+    @Override
+    public Subscription subscribe(TaskEventListener listener) {
+        return delegate.subscribe(listener);
+    }
+
+    private long start() {
+        return metrics.isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    private boolean stop(Operation operation, long start) {
+        if (start == DISABLED) {
+            return false;
+        }
+        metrics.record(operation, System.nanoTime() - start);
+        return true;
+    }
+}
\ No newline at end of file
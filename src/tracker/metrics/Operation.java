@@ -0,0 +1,32 @@
+package tracker.metrics;
+
+/**
+ * Операции менеджера задач, для которых ведутся счётчики и гистограммы задержек.
+ */
+public enum Operation {
+    ADD_TASK,
+    ADD_EPIC,
+    ADD_SUBTASK,
+    UPDATE_TASK,
+    UPDATE_EPIC,
+    UPDATE_SUBTASK,
+    GET_TASK,
+    GET_EPIC,
+    GET_SUBTASK,
+    GET_TASKS,
+    GET_EPICS,
+    GET_SUBTASKS,
+    GET_EPIC_SUBTASKS,
+    DELETE_TASKS,
+    DELETE_EPICS,
+    DELETE_SUBTASKS,
+    DELETE_TASK,
+    DELETE_EPIC,
+    DELETE_SUBTASK,
+    GET_HISTORY,
+    QUERY,
+    COUNT,
+    SNAPSHOT,
+    SEARCH,
+    BATCH
+}
\ No newline at end of file
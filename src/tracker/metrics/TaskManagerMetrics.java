@@ -0,0 +1,181 @@
+package tracker.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Счётчики и гистограммы задержек по операциям, распределение размеров эпиков
+ * и попадания в историю. Читать метрики можно напрямую или через JMX.
+ */
+public class TaskManagerMetrics implements TaskManagerMetricsMXBean {
+    private final Map<Operation, Log2Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Log2Histogram epicSizes = new Log2Histogram();
+    private final LongAdder historyHits = new LongAdder();
+    private final LongAdder historyMisses = new LongAdder();
+    private final LongAdder versionConflicts = new LongAdder();
+    private volatile boolean enabled = true;
+    private ObjectName objectName;
+
+    public TaskManagerMetrics() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Log2Histogram());
+        }
+    }
+
+    void record(Operation operation, long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    void recordEpicSize(int size) {
+        epicSizes.record(size);
+    }
+
+    void recordLookup(boolean found) {
+        (found ? historyHits : historyMisses).increment();
+    }
+
+    void recordConflict() {
+        versionConflicts.increment();
+    }
+
+    public Log2Histogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    public long getCount(Operation operation) {
+        return latencies.get(operation).getCount();
+    }
+
+    public Log2Histogram getEpicSizes() {
+        return epicSizes;
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        return table(Log2Histogram::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getMeanNanos() {
+        return table(histogram -> Math.round(histogram.getMean()));
+    }
+
+    @Override
+    public Map<String, Long> getP50Nanos() {
+        return table(histogram -> histogram.getPercentile(0.5));
+    }
+
+    @Override
+    public Map<String, Long> getP99Nanos() {
+        return table(histogram -> histogram.getPercentile(0.99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxNanos() {
+        return table(Log2Histogram::getMax);
+    }
+
+    /**
+     * Обращения по ID, нашедшие задачу и записавшие её в историю.
+     */
+    @Override
+    public long getHistoryHits() {
+        return historyHits.sum();
+    }
+
+    @Override
+    public long getHistoryMisses() {
+        return historyMisses.sum();
+    }
+
+    /**
+     * Условные обновления, отклонённые из-за устаревшей версии.
+     */
+    @Override
+    public long getVersionConflicts() {
+        return versionConflicts.sum();
+    }
+
+    @Override
+    public long getEpicSizeP50() {
+        return epicSizes.getPercentile(0.5);
+    }
+
+    @Override
+    public long getEpicSizeP99() {
+        return epicSizes.getPercentile(0.99);
+    }
+
+    @Override
+    public long getEpicSizeMax() {
+        return epicSizes.getMax();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        for (Log2Histogram histogram : latencies.values()) {
+            histogram.reset();
+        }
+        epicSizes.reset();
+        historyHits.reset();
+        historyMisses.reset();
+        versionConflicts.reset();
+    }
+
+    /**
+     * Регистрирует метрики в платформенном MBean-сервере под именем
+     * {@code tracker:type=TaskManager,name=<name>}.
+     */
+    public synchronized ObjectName register(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("Metrics are already registered as " + objectName);
+        }
+        try {
+            ObjectName candidate = new ObjectName("tracker:type=TaskManager,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics " + name, e);
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister metrics " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    private Map<String, Long> table(ToLongFunction<Log2Histogram> value) {
+        Map<String, Long> table = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Log2Histogram> entry : latencies.entrySet()) {
+            table.put(entry.getKey().name(), value.applyAsLong(entry.getValue()));
+        }
+        return table;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package tracker.metrics;
+
+import java.util.Map;
+
+/**
+ * Метрики менеджера задач для JMX. Ключи таблиц — имена {@link Operation}.
+ */
+public interface TaskManagerMetricsMXBean {
+    Map<String, Long> getCounts();
+
+    Map<String, Long> getMeanNanos();
+
+    Map<String, Long> getP50Nanos();
+
+    Map<String, Long> getP99Nanos();
+
+    Map<String, Long> getMaxNanos();
+
+    long getHistoryHits();
+
+    long getHistoryMisses();
+
+    long getVersionConflicts();
+
+    long getEpicSizeP50();
+
+    long getEpicSizeP99();
+
+    long getEpicSizeMax();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void reset();
+}
\ No newline at end of file
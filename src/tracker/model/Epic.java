@@ -1,9 +1,24 @@
 package tracker.model;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class Epic extends Task {
-    private ArrayList<Subtask> subtaskList = new ArrayList<>();
+    private static final Status[] STATUSES = Status.values();
+
+    // Подзадачи по ID в порядке добавления: удаление и замена за O(1) без сравнения объектов.
+    private final Map<Integer, Member> members = new LinkedHashMap<>();
+    private final Collection<Subtask> subtasksView = new SubtasksView();
+    private final int[] statusCounts = new int[STATUSES.length];
+    // Сроки эпика по подзадачам: самое раннее начало, самое позднее окончание и сумма длительностей.
+    private LocalDateTime earliestStart;
+    private LocalDateTime latestEnd;
+    private Duration totalDuration = Duration.ZERO;
 
     public Epic(String name, String description) {
         super(name, description);
@@ -14,19 +29,175 @@ public class Epic extends Task {
     }
 
     public void addSubtask(Subtask subtask) {
-        subtaskList.add(subtask);
+        Member member = members.get(subtask.getId());
+        if (member == null) {
+            member = new Member(subtask);
+            members.put(subtask.getId(), member);
+            statusCounts[subtask.getStatus().ordinal()]++;
+            plan(member);
+        } else {
+            member.update(subtask);
+        }
+    }
+
+    /**
+     * Заменяет подзадачу с тем же ID, сохраняя её позицию.
+     * Возвращает false, если такой подзадачи в эпике нет.
+     */
+    public boolean replaceSubtask(Subtask subtask) {
+        Member member = members.get(subtask.getId());
+        if (member == null) {
+            return false;
+        }
+        member.update(subtask);
+        return true;
+    }
+
+    public Subtask removeSubtask(int subtaskID) {
+        Member member = members.remove(subtaskID);
+        if (member == null) {
+            return null;
+        }
+        statusCounts[member.countedStatus.ordinal()]--;
+        if (unplan(member)) {
+            recomputeBounds();
+        }
+        return member.subtask;
     }
 
     public void clearSubtasks() {
-        subtaskList.clear();
+        members.clear();
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = 0;
+        }
+        earliestStart = null;
+        latestEnd = null;
+        totalDuration = Duration.ZERO;
+    }
+
+    /**
+     * Пересчитывает счётчики статусов по текущим статусам подзадач — после того,
+     * как подзадачи меняли на месте в обход {@link #replaceSubtask(Subtask)}.
+     * Возвращает true, если статус хотя бы одной подзадачи расходился с учтённым.
+     */
+    public boolean recountStatuses() {
+        boolean changed = false;
+        for (Member member : members.values()) {
+            Status status = member.subtask.getStatus();
+            if (status != member.countedStatus) {
+                statusCounts[member.countedStatus.ordinal()]--;
+                statusCounts[status.ordinal()]++;
+                member.countedStatus = status;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public Subtask getSubtask(int subtaskID) {
+        Member member = members.get(subtaskID);
+        return member == null ? null : member.subtask;
+    }
+
+    public boolean containsSubtask(int subtaskID) {
+        return members.containsKey(subtaskID);
+    }
+
+    /**
+     * Подзадачи эпика в порядке добавления. Представление только для чтения
+     * и отражает последующие изменения эпика.
+     */
+    public Collection<Subtask> getSubtasks() {
+        return subtasksView;
     }
 
-    public ArrayList<Subtask> getSubtaskList() {
-        return subtaskList;
+    public int getSubtaskCount() {
+        return members.size();
     }
 
-    public void setSubtaskList(ArrayList<Subtask> subtaskList) {
-        this.subtaskList = subtaskList;
+    public int getSubtaskCount(Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    /**
+     * Статус эпика по счётчикам подзадач, O(1): IN_PROGRESS, если есть подзадача
+     * в работе; DONE, если все подзадачи выполнены; иначе NEW.
+     */
+    public Status calculateStatus() {
+        if (statusCounts[Status.IN_PROGRESS.ordinal()] > 0) {
+            return Status.IN_PROGRESS;
+        }
+        if (statusCounts[Status.DONE.ordinal()] == members.size()) {
+            return Status.DONE;
+        }
+        return Status.NEW;
+    }
+
+    /**
+     * Самое раннее начало подзадач эпика; null, если ни у одной начало не задано.
+     */
+    @Override
+    public LocalDateTime getStartTime() {
+        return earliestStart;
+    }
+
+    /**
+     * Самое позднее окончание подзадач эпика.
+     */
+    @Override
+    public LocalDateTime getEndTime() {
+        return latestEnd;
+    }
+
+    /**
+     * Сумма длительностей подзадач эпика.
+     */
+    @Override
+    public Duration getDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * Сроки эпика вычисляются по подзадачам, поэтому заданное значение игнорируется:
+     * код, работающий с эпиком как с задачей, может копировать поля без проверки типа.
+     */
+    @Override
+    public void setStartTime(LocalDateTime startTime) {
+    }
+
+    @Override
+    public void setDuration(Duration duration) {
+    }
+
+    /**
+     * Сверяет счётчики с полным перебором подзадач. Предназначен для отладки:
+     * вызывается через {@code assert} и работает только с ключом {@code -ea}.
+     */
+    public boolean verifyStatusCounters() {
+        int[] expected = new int[STATUSES.length];
+        for (Member member : members.values()) {
+            expected[member.subtask.getStatus().ordinal()]++;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != statusCounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Копия полей эпика, включая статус и версию, но без подзадач.
+     */
+    @Override
+    public Epic copy() {
+        Epic copy = new Epic(getId(), getName(), getDescription());
+        copy.setStatus(getStatus());
+        copy.setVersion(getVersion());
+        copy.earliestStart = earliestStart;
+        copy.latestEnd = latestEnd;
+        copy.totalDuration = totalDuration;
+        return copy;
     }
 
     @Override
@@ -35,8 +206,117 @@ public class Epic extends Task {
                 "name= " + getName() + '\'' +
                 ", description = " + getDescription() + '\'' +
                 ", id=" + getId() +
-                ", subtaskList.size = " + subtaskList.size() +
+                ", subtaskList.size = " + members.size() +
                 ", status = " + getStatus() +
+                ", startTime = " + earliestStart +
+                ", endTime = " + latestEnd +
                 '}';
     }
+
+    // Сроки обновляются за O(1); перебор подзадач нужен, только если ушло
+    // текущее начало или окончание эпика.
+    private void plan(Member member) {
+        totalDuration = totalDuration.plus(member.plannedDuration);
+        LocalDateTime start = member.plannedStart;
+        if (start != null) {
+            if (earliestStart == null || start.isBefore(earliestStart)) {
+                earliestStart = start;
+            }
+            if (latestEnd == null || member.plannedEnd.isAfter(latestEnd)) {
+                latestEnd = member.plannedEnd;
+            }
+        }
+    }
+
+    // Возвращает true, если после исключения подзадачи границы нужно пересчитать.
+    private boolean unplan(Member member) {
+        totalDuration = totalDuration.minus(member.plannedDuration);
+        return member.plannedStart != null
+                && (member.plannedStart.equals(earliestStart) || member.plannedEnd.equals(latestEnd));
+    }
+
+    private void recomputeBounds() {
+        earliestStart = null;
+        latestEnd = null;
+        for (Member member : members.values()) {
+            LocalDateTime start = member.plannedStart;
+            if (start != null) {
+                if (earliestStart == null || start.isBefore(earliestStart)) {
+                    earliestStart = start;
+                }
+                if (latestEnd == null || member.plannedEnd.isAfter(latestEnd)) {
+                    latestEnd = member.plannedEnd;
+                }
+            }
+        }
+    }
+
+    // Подзадача вместе со статусом и сроками, с которыми она учтена в эпике:
+    // подзадачу могут изменить на месте до вызова updateSubtask, поэтому
+    // прежние значения нельзя брать из самого объекта.
+    private final class Member {
+        private Subtask subtask;
+        private Status countedStatus;
+        private LocalDateTime plannedStart;
+        private LocalDateTime plannedEnd;
+        private Duration plannedDuration;
+
+        private Member(Subtask subtask) {
+            this.subtask = subtask;
+            this.countedStatus = subtask.getStatus();
+            capturePlan();
+        }
+
+        private void update(Subtask newSubtask) {
+            statusCounts[countedStatus.ordinal()]--;
+            subtask = newSubtask;
+            countedStatus = newSubtask.getStatus();
+            statusCounts[countedStatus.ordinal()]++;
+            boolean stale = unplan(this);
+            capturePlan();
+            if (stale) {
+                totalDuration = totalDuration.plus(plannedDuration);
+                recomputeBounds();
+            } else {
+                plan(this);
+            }
+        }
+
+        private void capturePlan() {
+            plannedStart = subtask.getStartTime();
+            plannedEnd = subtask.getEndTime();
+            plannedDuration = subtask.getDuration() == null ? Duration.ZERO : subtask.getDuration();
+        }
+    }
+
+    private final class SubtasksView extends AbstractCollection<Subtask> {
+        @Override
+        public Iterator<Subtask> iterator() {
+            Iterator<Member> iterator = members.values().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Subtask next() {
+                    return iterator.next().subtask;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return members.size();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof Subtask)) {
+                return false;
+            }
+            return members.containsKey(((Subtask) object).getId());
+        }
+    }
 }
\ No newline at end of file
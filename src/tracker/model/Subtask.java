@@ -18,6 +18,20 @@ public class Subtask extends Task {
         return epicID;
     }
 
+    @Override
+    public boolean contentEquals(Task task) {
+        return super.contentEquals(task) && epicID == ((Subtask) task).epicID;
+    }
+
+    @Override
+    public Subtask copy() {
+        Subtask copy = new Subtask(getId(), getName(), getDescription(), getStatus(), epicID);
+        copy.setVersion(getVersion());
+        copy.setStartTime(getStartTime());
+        copy.setDuration(getDuration());
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "Subtask{" +
@@ -26,6 +40,8 @@ public class Subtask extends Task {
                 ", id=" + getId() +
                 ", epicID=" + epicID +
                 ", status=" + getStatus() +
+                ", startTime=" + getStartTime() +
+                ", duration=" + getDuration() +
                 '}';
     }
 }
\ No newline at end of file
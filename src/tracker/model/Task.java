@@ -1,4 +1,6 @@
 package tracker.model;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Objects;
 public class Task {
 
@@ -6,6 +8,11 @@ public class Task {
     private String description;
     private int id;
     private Status status;
+    // Номер версии, который менеджер увеличивает при каждом сохранении; 0 — задача ещё не сохранена.
+    private long version;
+    // Плановое время: без начала задача не участвует в расписании, без длительности занимает миг.
+    private LocalDateTime startTime;
+    private Duration duration;
 
     public Task(int id, String name, String description, Status status) {
         this.id = id;
@@ -52,26 +59,80 @@ public class Task {
         this.status = status;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Время окончания — начало плюс длительность; null, если начало не задано.
+     */
+    public LocalDateTime getEndTime() {
+        if (startTime == null) {
+            return null;
+        }
+        return duration == null ? startTime : startTime.plus(duration);
+    }
+
+    /**
+     * Независимая копия задачи с теми же полями.
+     */
+    public Task copy() {
+        Task copy = new Task(id, name, description, status);
+        copy.setVersion(version);
+        copy.setStartTime(startTime);
+        copy.setDuration(duration);
+        return copy;
+    }
+
+    /**
+     * Задачи равны, если у них один класс и один ID: ID — идентичность задачи в менеджере.
+     * Задача без ID (0) равна только самой себе. Для сравнения полей — {@link #contentEquals(Task)}.
+     * Хэш следует за ID и меняется, когда менеджер его назначает, поэтому задачу без ID
+     * нельзя класть в HashSet или ключом в HashMap до add*: после назначения ID её там
+     * уже не найти.
+     */
     @Override
     public boolean equals(Object object) {
         if (this == object) return true;
         if (object == null || getClass() != object.getClass()) return false;
         Task task = (Task) object;
-        return id == task.id && Objects.equals(name, task.name) && Objects.equals(description, task.description)
-                && status == task.status;
+        return id != 0 && id == task.id;
     }
 
     @Override
     public int hashCode() {
-        int hash = 17;
-        if (name != null) {
-            hash = hash + name.hashCode();
-        }
-        hash = hash * 31;
-        if (description != null) {
-            hash = hash + description.hashCode();
-        }
-        return hash;
+        return id != 0 ? Integer.hashCode(id) : System.identityHashCode(this);
+    }
+
+    /**
+     * Совпадают ли все поля задачи, кроме версии.
+     */
+    public boolean contentEquals(Task task) {
+        if (this == task) return true;
+        if (task == null || getClass() != task.getClass()) return false;
+        return id == task.id && Objects.equals(name, task.name) && Objects.equals(description, task.description)
+                && status == task.status && Objects.equals(getStartTime(), task.getStartTime())
+                && Objects.equals(getDuration(), task.getDuration());
     }
 
     @Override
@@ -81,6 +142,8 @@ public class Task {
                 ", description='" + description + '\'' +
                 ", id=" + id +
                 ", status=" + status +
+                ", startTime=" + startTime +
+                ", duration=" + duration +
                 '}';
     }
 }
\ No newline at end of file
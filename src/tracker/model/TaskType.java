@@ -0,0 +1,16 @@
+package tracker.model;
+public enum TaskType {
+    TASK,
+    EPIC,
+    SUBTASK;
+
+    public static TaskType of(Task task) {
+        if (task instanceof Subtask) {
+            return SUBTASK;
+        }
+        if (task instanceof Epic) {
+            return EPIC;
+        }
+        return TASK;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Срез доски")
+class BoardSnapshotTest {
+
+    private TaskManager taskManager;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = Managers.getDefault();
+    }
+
+    @Test
+    @DisplayName("Срез не меняется вместе с доской")
+    void testSnapshotIsolation() {
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+
+        BoardSnapshot before = taskManager.snapshot();
+        subtask.setStatus(Status.DONE);
+        taskManager.updateSubtask(subtask);
+        taskManager.deleteTaskByID(task.getId());
+        Subtask subtask2 = new Subtask("Subtask 2", "Description", epic.getId());
+        subtask2.setStatus(Status.IN_PROGRESS);
+        taskManager.addSubtask(subtask2);
+        BoardSnapshot after = taskManager.snapshot();
+
+        assertEquals("Task", before.getTask(task.getId()).getName(), "Old snapshot should keep the deleted task");
+        assertEquals(Status.NEW, before.getEpic(epic.getId()).getStatus(), "Old snapshot should keep the old epic status");
+        assertEquals(Status.NEW, before.getSubtask(subtask.getId()).getStatus(), "Old snapshot should keep the old subtask");
+        assertEquals(1, before.getEpicSubtasks(epic.getId()).size(), "Old snapshot should keep old membership");
+
+        assertNull(after.getTask(task.getId()), "New snapshot should not contain the deleted task");
+        assertEquals(Status.IN_PROGRESS, after.getEpic(epic.getId()).getStatus(), "New snapshot should see the epic status");
+        assertEquals(2, after.getEpicSubtasks(epic.getId()).size(), "New snapshot should see the new subtask");
+    }
+
+    @Test
+    @DisplayName("Срез отдаёт копии")
+    void testSnapshotReturnsCopies() {
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        BoardSnapshot snapshot = taskManager.snapshot();
+        snapshot.getTask(task.getId()).setName("Changed");
+        task.setName("Changed too");
+        assertEquals("Task", snapshot.getTask(task.getId()).getName(), "Snapshot should not be affected by mutations");
+    }
+
+    @Test
+    @DisplayName("Неизменяемое отображение с ключами int")
+    void testPersistentIntMap() {
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        java.util.Map<Integer, Integer> expected = new java.util.HashMap<>();
+        Random random = new Random(7);
+        PersistentIntMap<Integer> previous = map;
+        int previousSize = 0;
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(5_000) * (random.nextBoolean() ? 1 : -70_001);
+            previous = map;
+            previousSize = expected.size();
+            if (random.nextInt(3) == 0) {
+                map = map.minus(key);
+                expected.remove(key);
+            } else {
+                map = map.plus(key, i);
+                expected.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size(), "Sizes should match");
+        for (java.util.Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Values should match");
+        }
+        assertEquals(expected.size(), map.values().size(), "Iteration should visit every entry");
+        assertEquals(previousSize, previous.size(), "Older versions should stay intact");
+    }
+}
\ No newline at end of file
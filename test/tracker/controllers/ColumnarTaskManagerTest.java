@@ -0,0 +1,228 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tracker.events.Subscription;
+import tracker.events.TaskEvent;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Поколоночный менеджер задач")
+class ColumnarTaskManagerTest {
+
+    private ColumnarTaskManager taskManager;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = Managers.getColumnar();
+    }
+
+    @Test
+    @DisplayName("Задачи восстанавливаются из столбцов")
+    void testViewsMatchAddedTasks() {
+        Task task = taskManager.addTask(new Task("Задача", "Описание ё"));
+        Epic epic = taskManager.addEpic(new Epic("Эпик", null));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Подзадача", "Описание", epic.getId()));
+
+        Task stored = taskManager.getTaskByID(task.getId());
+        assertNotSame(task, stored, "Manager should return a fresh view");
+        assertTrue(task.contentEquals(stored), "View should have the fields of the added task");
+        assertEquals(1, stored.getVersion(), "New task should have version 1");
+        assertNull(taskManager.getEpicByID(epic.getId()).getDescription(), "Null description should be preserved");
+        assertTrue(subtask.contentEquals(taskManager.getSubtaskByID(subtask.getId())),
+                "View should have the fields of the added subtask");
+        assertNull(taskManager.getTaskByID(epic.getId()), "Epic ID should not resolve to a task");
+        assertEquals(List.of(task, epic, subtask), taskManager.getHistory(), "Views should be recorded in history");
+        assertEquals(3, taskManager.size(), "Manager should hold three tasks");
+    }
+
+    @Test
+    @DisplayName("Начало и длительность в столбцах")
+    void testTimes() {
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        Epic epic = taskManager.addEpic(new Epic("Эпик", ""));
+        Subtask subtask = new Subtask("Подзадача", "", epic.getId());
+        subtask.setStartTime(nine);
+        subtask.setDuration(Duration.ofMinutes(45));
+        taskManager.addSubtask(subtask);
+        Task task = taskManager.addTask(new Task("Задача", ""));
+
+        assertTrue(subtask.contentEquals(taskManager.getSubtaskByID(subtask.getId())), "Times should be stored");
+        assertNull(taskManager.getTaskByID(task.getId()).getStartTime(), "Missing start should stay missing");
+        assertEquals(nine.plusMinutes(45), taskManager.getEpicByID(epic.getId()).getEndTime(),
+                "Epic times should be derived from subtasks");
+
+        Subtask moved = new Subtask(subtask.getId(), "Подзадача", "", Status.NEW, epic.getId());
+        moved.setStartTime(nine.plusHours(1));
+        taskManager.updateSubtask(moved);
+        assertEquals(List.of(taskManager.getSubtaskByID(subtask.getId())), taskManager.getPrioritizedTasks(),
+                "Update should replace the times");
+        assertNull(taskManager.getSubtaskByID(subtask.getId()).getDuration(), "Cleared duration should stay cleared");
+    }
+
+    @Test
+    @DisplayName("Статус и подзадачи эпика")
+    void testEpicStatusAndSubtasks() {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Epic other = taskManager.addEpic(new Epic("Other", "Description"));
+        Subtask first = taskManager.addSubtask(new Subtask("First", "Description", epic.getId()));
+        Subtask second = taskManager.addSubtask(new Subtask("Second", "Description", epic.getId()));
+        assertEquals(Status.NEW, taskManager.getEpicByID(epic.getId()).getStatus(), "Epic should be NEW");
+
+        first.setStatus(Status.DONE);
+        taskManager.updateSubtask(first);
+        assertEquals(Status.NEW, taskManager.getEpicByID(epic.getId()).getStatus(), "Epic should stay NEW");
+        second.setStatus(Status.DONE);
+        taskManager.updateSubtask(second);
+        assertEquals(Status.DONE, taskManager.getEpicByID(epic.getId()).getStatus(), "Epic should be DONE");
+        assertEquals(List.of(first, second), List.copyOf(taskManager.getEpicSubtasks(epic)),
+                "Subtasks should keep insertion order");
+
+        Subtask moved = new Subtask(second.getId(), "Second", "Description", Status.IN_PROGRESS, other.getId());
+        taskManager.updateSubtask(moved);
+        assertEquals(List.of(first), List.copyOf(taskManager.getEpicSubtasks(epic)), "Subtask should leave old epic");
+        assertEquals(Status.DONE, taskManager.getEpicByID(epic.getId()).getStatus(), "Old epic should be DONE");
+        assertEquals(Status.IN_PROGRESS, taskManager.getEpicByID(other.getId()).getStatus(),
+                "New epic should be IN_PROGRESS");
+        assertEquals(3, moved.getVersion(), "Subtask version should grow on each update");
+
+        taskManager.deleteSubtaskByID(first.getId());
+        assertEquals(Status.DONE, taskManager.getEpicByID(epic.getId()).getStatus(), "Empty epic should be DONE");
+        taskManager.deleteSubtasks();
+        assertEquals(Status.NEW, taskManager.getEpicByID(other.getId()).getStatus(),
+                "Epic should be reset after deleting subtasks");
+        assertTrue(taskManager.getSubtasks().isEmpty(), "Subtasks should be deleted");
+
+        taskManager.deleteEpicByID(epic.getId());
+        assertNull(taskManager.getEpicByID(epic.getId()), "Epic should be deleted");
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.addSubtask(new Subtask("Orphan", "Description", epic.getId())),
+                "Subtask of missing epic should be rejected");
+    }
+
+    @Test
+    @DisplayName("Обновление эпика принимает только его подзадачи")
+    void testUpdateEpicKeepsOwnSubtasks() {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Epic other = taskManager.addEpic(new Epic("Other", "Description"));
+        Subtask kept = taskManager.addSubtask(new Subtask("Kept", "Description", epic.getId()));
+        Subtask dropped = taskManager.addSubtask(new Subtask("Dropped", "Description", epic.getId()));
+        Subtask foreign = taskManager.addSubtask(new Subtask("Foreign", "Description", other.getId()));
+        Task deleted = taskManager.addTask(new Task("Deleted", "Description"));
+        taskManager.deleteTaskByID(deleted.getId());
+
+        Epic stolen = new Epic(epic.getId(), "Epic", "Description");
+        stolen.addSubtask(new Subtask(foreign.getId(), "Foreign", "Description", Status.DONE, other.getId()));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateEpic(stolen),
+                "Subtask of another epic should be rejected");
+        Epic mislinked = new Epic(epic.getId(), "Epic", "Description");
+        mislinked.addSubtask(new Subtask(kept.getId(), "Kept", "Description", Status.DONE, other.getId()));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateEpic(mislinked),
+                "Subtask pointing to another epic should be rejected");
+        Epic revived = new Epic(epic.getId(), "Epic", "Description");
+        revived.addSubtask(new Subtask(deleted.getId(), "Deleted", "Description", Status.NEW, epic.getId()));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateEpic(revived),
+                "ID of a deleted task should not be reused");
+        assertNull(taskManager.getSubtaskByID(deleted.getId()), "Rejected update should not store the subtask");
+
+        taskManager.getSubtaskByID(dropped.getId());
+        taskManager.getSubtaskByID(kept.getId());
+        Epic replaced = new Epic(epic.getId(), "Epic", "Description");
+        replaced.addSubtask(new Subtask(kept.getId(), "Kept", "Description", Status.IN_PROGRESS, epic.getId()));
+        taskManager.updateEpic(replaced);
+        assertEquals(Status.IN_PROGRESS, taskManager.getEpicByID(epic.getId()).getStatus());
+        assertNull(taskManager.getSubtaskByID(dropped.getId()), "Dropped subtask should be deleted");
+        assertFalse(taskManager.getHistory().contains(dropped), "Dropped subtask should leave history");
+        assertEquals(Status.NEW, taskManager.getEpicByID(other.getId()).getStatus(), "Other epic should be intact");
+    }
+
+    @Test
+    @DisplayName("Подписчик получает изменения столбцов")
+    void testEvents() throws InterruptedException {
+        List<TaskEvent> received = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(6);
+        Epic epic;
+        Subtask subtask;
+        try (Subscription subscription = taskManager.subscribe(events -> {
+            synchronized (received) {
+                received.addAll(events);
+            }
+            events.forEach(event -> latch.countDown());
+        })) {
+            epic = taskManager.addEpic(new Epic("Epic", "Description"));
+            subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+            subtask.setStatus(Status.IN_PROGRESS);
+            taskManager.updateSubtask(subtask);
+            taskManager.deleteEpicByID(epic.getId());
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Events should be delivered");
+            assertEquals(0, subscription.getDroppedEvents(), "No events should be dropped");
+        }
+
+        synchronized (received) {
+            assertEquals(6, received.size(), "Unexpected number of events");
+            assertEquals(TaskType.EPIC, received.get(0).getTaskType(), "Epic should be created first");
+            assertEquals(TaskType.SUBTASK, received.get(1).getTaskType(), "Subtask should be created second");
+            assertEquals(TaskEvent.Type.UPDATED, received.get(2).getType(), "Subtask should be updated");
+            assertEquals(subtask.getId(), received.get(2).getTask().getId(), "Event should carry the subtask");
+            TaskEvent statusChange = received.get(3);
+            assertEquals(TaskEvent.Type.EPIC_STATUS_CHANGED, statusChange.getType(), "Epic status should change");
+            assertEquals(Status.NEW, statusChange.getPreviousStatus(), "Previous epic status is wrong");
+            assertEquals(Status.IN_PROGRESS, statusChange.getStatus(), "New epic status is wrong");
+            assertEquals(TaskEvent.Type.DELETED, received.get(4).getType(), "Subtask should be deleted");
+            assertEquals(epic.getId(), received.get(5).getId(), "Epic should be deleted last");
+        }
+    }
+
+    @Test
+    @DisplayName("Выборки и условные обновления по столбцам")
+    void testQueryAndCompareAndUpdate() {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < 10; i++) {
+            Task task = taskManager.addTask(new Task("Task " + i, "Description"));
+            if (i % 2 == 0) {
+                task.setStatus(Status.DONE);
+                taskManager.updateTask(task);
+            }
+            taskManager.addSubtask(new Subtask("Subtask " + i, "Description", epic.getId()));
+        }
+        assertEquals(5, taskManager.countTasks(TaskType.TASK, Status.DONE), "Five tasks should be DONE");
+        assertEquals(10, taskManager.countTasks(TaskType.SUBTASK, Status.NEW), "Ten subtasks should be NEW");
+        List<String> names = taskManager.page(TaskQuery.all().type(TaskType.TASK).status(Status.DONE).limit(2))
+                .stream().map(Task::getName).collect(Collectors.toList());
+        assertEquals(List.of("Task 0", "Task 2"), names, "Query should filter by columns in ID order");
+        assertEquals(10, taskManager.page(TaskQuery.all().epic(epic.getId())).size(),
+                "Query by epic should list its subtasks");
+
+        Task task = taskManager.getTasks().get(1);
+        task.setName("Renamed");
+        Task updated = taskManager.compareAndUpdateTask(task, 1);
+        assertEquals(2, updated.getVersion(), "Version should grow after update");
+        assertThrows(VersionConflictException.class, () -> taskManager.compareAndUpdateTask(task, 1),
+                "Stale version should be rejected");
+        assertEquals("Renamed", taskManager.getTaskByID(task.getId()).getName(), "Name should be updated");
+
+        for (int i = 0; i < 20_000; i++) {
+            task.setName("Renamed " + i);
+            taskManager.updateTask(task);
+        }
+        assertEquals("Renamed 19999", taskManager.getTaskByID(task.getId()).getName(),
+                "Strings should survive arena compaction");
+        assertEquals("Subtask 3", taskManager.getSubtasks().get(3).getName(),
+                "Other strings should survive arena compaction");
+    }
+}
\ No newline at end of file
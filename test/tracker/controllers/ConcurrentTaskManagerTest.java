@@ -0,0 +1,255 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Потокобезопасный менеджер задач")
+class ConcurrentTaskManagerTest {
+    private static final int THREADS = 8;
+    private static final int SUBTASKS_PER_EPIC = 500;
+
+    private TaskManager taskManager;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = Managers.getConcurrent();
+    }
+
+    @Test
+    @DisplayName("Уникальные ID при параллельном добавлении")
+    void testUniqueIdsUnderConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(taskManager.addTask(new Task("Task", "Description")).getId());
+                }
+                return ids;
+            }));
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (Future<List<Integer>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executor.shutdown();
+        assertEquals(THREADS * 1000, ids.size(), "Every task should get a unique id");
+        assertEquals(THREADS * 1000, taskManager.getTasks().size(), "All tasks should be stored");
+    }
+
+    @Test
+    @DisplayName("Ленивые индексы, построенные во время записи, видят все задачи")
+    void testLazyIndexesUnderConcurrentAdds() throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(Managers.getDefaultHistory());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    manager.addTask(new Task("Task", "Description"));
+                }
+            }));
+        }
+        manager.search("task", 1);
+        manager.countReadyTasks();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(THREADS * 1000, manager.search("task", THREADS * 1000).size(), "Search should see every task");
+        assertEquals(THREADS * 1000, manager.countReadyTasks(), "Every new task should be ready");
+    }
+
+    @Test
+    @DisplayName("Расписание при параллельной записи задач со сроками и без")
+    void testScheduleUnderConcurrentWrites() throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(Managers.getDefaultHistory());
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    Task planned = new Task("Planned", "");
+                    planned.setStartTime(nine.plusMinutes(thread * 500L + i));
+                    planned.setDuration(Duration.ofMinutes(1));
+                    manager.addTask(planned);
+                    Task someday = manager.addTask(new Task("Someday", ""));
+                    if (i % 2 == 0) {
+                        manager.deleteTaskByID(planned.getId());
+                        manager.deleteTaskByID(someday.getId());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        List<Task> prioritized = manager.getPrioritizedTasks();
+        assertEquals(THREADS * 250, prioritized.size(), "Schedule should hold every remaining planned task");
+        for (int i = 1; i < prioritized.size(); i++) {
+            assertTrue(prioritized.get(i - 1).getStartTime().isBefore(prioritized.get(i).getStartTime()),
+                    "Schedule should stay ordered by start");
+        }
+        assertEquals(THREADS * 500, manager.getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Выборка подзадач эпика во время их изменения")
+    void testEpicQueryUnderConcurrentWrites() throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(Managers.getDefaultHistory());
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < 100; i++) {
+            manager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < 2000; i++) {
+                Subtask added = manager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+                manager.deleteSubtaskByID(added.getId());
+            }
+        });
+        while (!writer.isDone()) {
+            long count = manager.query(TaskQuery.all().epic(epic.getId()).limit(1000)).count();
+            assertTrue(count >= 100 && count <= 101, "Query should read a consistent copy");
+        }
+        writer.get();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Срез доски не видит промежуточных шагов операции")
+    void testSnapshotSeesWholeOperations() throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(Managers.getDefaultHistory());
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < 2000; i++) {
+                Subtask added = manager.addSubtask(
+                        new Subtask(0, "Subtask", "Description", Status.IN_PROGRESS, epic.getId()));
+                manager.deleteSubtaskByID(added.getId());
+                manager.applyBatch(List.of(
+                        Mutation.addTask(new Task("Rolled back", "Description")),
+                        Mutation.addSubtask(new Subtask("Orphan", "Description", 999))));
+            }
+        });
+        while (!writer.isDone()) {
+            BoardSnapshot snapshot = manager.snapshot();
+            boolean hasSubtask = !snapshot.getEpicSubtasks(epic.getId()).isEmpty();
+            assertEquals(hasSubtask, snapshot.getEpic(epic.getId()).getStatus() == Status.IN_PROGRESS,
+                    "Epic status should match its subtasks in the same snapshot");
+            assertEquals(0, snapshot.getTaskCount(), "Rolled back batch should not be visible");
+        }
+        writer.get();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("История при параллельных просмотрах")
+    void testHistoryUnderConcurrentReads() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(taskManager.addTask(new Task("Task " + i, "Description")));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    taskManager.getTaskByID(tasks.get(i % tasks.size()).getId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        Task last = tasks.get(tasks.size() - 1);
+        taskManager.getTaskByID(last.getId());
+        List<Task> history = taskManager.getHistory();
+        assertEquals(InMemoryHistoryManager.DEFAULT_CAPACITY, history.size(), "History should stay bounded");
+        assertEquals(last, history.get(history.size() - 1), "Latest view should be last in history");
+        assertEquals(history.size(), new HashSet<>(history).size(), "History should have no duplicates");
+    }
+
+    @Test
+    @DisplayName("Параллельная работа с подзадачами разных эпиков")
+    void testSubtasksOfDifferentEpicsInParallel() throws Exception {
+        List<Epic> epics = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            epics.add(taskManager.addEpic(new Epic("Epic " + t, "Description")));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (Epic epic : epics) {
+            executor.submit(() -> {
+                for (int i = 0; i < SUBTASKS_PER_EPIC; i++) {
+                    Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+                    subtask.setStatus(Status.DONE);
+                    taskManager.updateSubtask(subtask);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Workers should finish in time");
+
+        assertEquals(THREADS * SUBTASKS_PER_EPIC, taskManager.getSubtasks().size(), "All subtasks should be stored");
+        for (Epic epic : epics) {
+            assertEquals(SUBTASKS_PER_EPIC, taskManager.getEpicSubtasks(epic).size(), "Epic should contain all its subtasks");
+            assertEquals(Status.DONE, taskManager.getEpicByID(epic.getId()).getStatus(), "Epic status should be DONE");
+        }
+    }
+
+    @Test
+    @DisplayName("Оптимистичные обновления без потерь")
+    void testOptimisticUpdates() throws Exception {
+        Task counter = taskManager.addTask(new Task("Counter", "0"));
+        int increments = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < increments; i++) {
+                    while (true) {
+                        Task current = taskManager.snapshot().getTask(counter.getId());
+                        Task next = current.copy();
+                        next.setDescription(Integer.toString(Integer.parseInt(current.getDescription()) + 1));
+                        try {
+                            taskManager.compareAndUpdateTask(next, current.getVersion());
+                            break;
+                        } catch (VersionConflictException e) {
+                            // Прочитали устаревшую версию — повторяем.
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        Task result = taskManager.getTaskByID(counter.getId());
+        assertEquals(Integer.toString(THREADS * increments), result.getDescription(), "No increment should be lost");
+        assertEquals(1 + THREADS * increments, result.getVersion(), "Every write should bump the version once");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Граф зависимостей задач")
+class DependencyGraphTest {
+
+    @Test
+    @DisplayName("Готовность задач при смене статуса блокирующих")
+    void testReadySetFollowsStatuses() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.index(new Task(1, "Спроектировать", "", Status.NEW));
+        graph.index(new Task(2, "Реализовать", "", Status.NEW));
+        graph.index(new Task(3, "Проверить", "", Status.NEW));
+        graph.addDependency(2, 1);
+        graph.addDependency(3, 1);
+        graph.addDependency(3, 2);
+
+        assertEquals(1, graph.getReadyCount(), "Only the task without blockers should be ready");
+        assertTrue(graph.isReady(1));
+
+        graph.index(new Task(1, "Спроектировать", "", Status.DONE));
+        assertArrayEquals(new int[]{2}, graph.getReady(10), "Done task should unblock its dependents");
+        graph.index(new Task(2, "Реализовать", "", Status.IN_PROGRESS));
+        assertEquals(0, graph.getReadyCount(), "Task in progress should not be ready");
+        graph.index(new Task(2, "Реализовать", "", Status.DONE));
+        assertTrue(graph.isReady(3), "Task with all blockers done should be ready");
+
+        graph.index(new Task(1, "Спроектировать", "", Status.NEW));
+        assertFalse(graph.isReady(3), "Reopened blocker should block again");
+        assertTrue(graph.isReady(1));
+    }
+
+    @Test
+    @DisplayName("Отклонение циклических зависимостей")
+    void testCycleDetection() {
+        DependencyGraph graph = new DependencyGraph();
+        for (int id = 1; id <= 4; id++) {
+            graph.index(new Task(id, "Задача " + id, "", Status.NEW));
+        }
+        graph.addDependency(2, 1);
+        graph.addDependency(3, 2);
+        graph.addDependency(4, 3);
+
+        DependencyCycleException e = assertThrows(DependencyCycleException.class, () -> graph.addDependency(1, 4));
+        assertEquals(1, e.getTaskId());
+        assertEquals(4, e.getBlockerId());
+        assertThrows(DependencyCycleException.class, () -> graph.addDependency(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> graph.addDependency(2, 99));
+        assertEquals(3, graph.getEdgeCount(), "Rejected dependencies should not be stored");
+
+        graph.addDependency(4, 1);
+        graph.addDependency(4, 1);
+        assertEquals(4, graph.getEdgeCount(), "Repeated dependency should be stored once");
+        assertTrue(graph.removeDependency(4, 3));
+        assertFalse(graph.removeDependency(4, 3));
+        assertArrayEquals(new int[]{1}, graph.getBlockers(4));
+    }
+
+    @Test
+    @DisplayName("Зависимости в менеджере задач")
+    void testManagerDependencies() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Task design = manager.addTask(new Task("Спроектировать", "Схема"));
+        Epic release = manager.addEpic(new Epic("Релиз", "Версия 2"));
+        Subtask build = manager.addSubtask(new Subtask("Собрать", "Сборка", release.getId()));
+        Subtask publish = manager.addSubtask(new Subtask("Опубликовать", "Сайт", release.getId()));
+        manager.addDependency(build.getId(), design.getId());
+        manager.addDependency(publish.getId(), build.getId());
+
+        assertEquals(Set.of(design.getId(), release.getId()), readyIDs(manager),
+                "Only tasks without open blockers should be ready");
+
+        design.setStatus(Status.DONE);
+        manager.updateTask(design);
+        assertEquals(Set.of(release.getId(), build.getId()), readyIDs(manager));
+
+        manager.setSubtaskStatuses(List.of(release.getId()), Status.DONE);
+        assertTrue(readyIDs(manager).isEmpty(), "Bulk status changes should update the ready set");
+        assertEquals(0, manager.countReadyTasks());
+
+        manager.addTask(new Task("Отчёт", ""));
+        manager.deleteTaskByID(design.getId());
+        assertEquals(0, manager.getBlockers(build.getId()).length, "Deleted task should drop its dependencies");
+        manager.deleteEpics();
+        assertEquals(1, manager.countReadyTasks());
+        assertThrows(IllegalArgumentException.class, () -> manager.addDependency(build.getId(), 1));
+    }
+
+    private static Set<Integer> readyIDs(InMemoryTaskManager manager) {
+        return manager.getReadyTasks(100).stream().map(Task::getId).collect(Collectors.toSet());
+    }
+}
\ No newline at end of file
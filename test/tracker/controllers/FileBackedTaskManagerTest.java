@@ -0,0 +1,319 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Менеджер задач с сохранением в файл")
+class FileBackedTaskManagerTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("kanban");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("Восстановление из журнала")
+    void testRecoveryFromLog() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        Epic epic = manager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = manager.addSubtask(new Subtask("Подзадача", "Описание", epic.getId()));
+        Task removed = manager.addTask(new Task("Removed", "Description"));
+        subtask.setStatus(Status.DONE);
+        manager.updateSubtask(subtask);
+        manager.deleteTaskByID(removed.getId());
+        manager.getTaskByID(task.getId());
+        manager.getSubtaskByID(subtask.getId());
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(1, restored.getTasks().size(), "Deleted task should not be restored");
+        assertEquals("Описание", restored.getEpics().get(0).getDescription(), "Cyrillic text should survive");
+        assertEquals(Status.DONE, restored.getEpics().get(0).getStatus(), "Epic status should be restored");
+        assertEquals(1, restored.getEpicSubtasks(restored.getEpics().get(0)).size(), "Epic should keep its subtask");
+        List<Task> history = restored.getHistory();
+        assertEquals(2, history.size(), "History should be restored");
+        assertEquals(task.getId(), history.get(0).getId(), "History order should be restored");
+        assertEquals(subtask.getId(), history.get(1).getId(), "History order should be restored");
+        Task next = restored.addTask(new Task("Next", "Description"));
+        assertEquals(removed.getId() + 1, next.getId(), "ID sequence should continue after restart");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Снимок и обрезка журнала")
+    void testSnapshotCompaction() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 10);
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < 25; i++) {
+            manager.addSubtask(new Subtask("Subtask " + i, "Description", epic.getId()));
+        }
+        manager.getEpicByID(epic.getId());
+        manager.close();
+
+        assertTrue(Files.exists(directory.resolve(FileBackedTaskManager.SNAPSHOT_FILE)), "Snapshot should be written");
+        assertTrue(Files.size(directory.resolve(FileBackedTaskManager.LOG_FILE)) < 1000, "Log should be truncated");
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 10);
+        assertEquals(25, restored.getSubtasks().size(), "All subtasks should be restored");
+        assertEquals(1, restored.getHistory().size(), "History should be restored");
+        assertEquals(27, restored.addTask(new Task("Task", "Description")).getId(), "ID sequence should continue");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Недописанный хвост журнала")
+    void testTornLogTail() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        manager.addTask(new Task("Task", "Description"));
+        manager.close();
+        Files.write(directory.resolve(FileBackedTaskManager.LOG_FILE), new byte[]{0, 0, 0, 42, 1, 2},
+                StandardOpenOption.APPEND);
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(1, restored.getTasks().size(), "Valid records should be restored");
+        restored.addTask(new Task("Task 2", "Description"));
+        restored.close();
+
+        FileBackedTaskManager again = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(2, again.getTasks().size(), "Records after the truncated tail should be readable");
+        again.close();
+    }
+
+    @Test
+    @DisplayName("Версии задач после перезапуска")
+    void testVersionsSurviveRestart() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 3);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        for (int i = 0; i < 4; i++) {
+            task = manager.compareAndUpdateTask(task.copy(), task.getVersion());
+        }
+        Task stale = task.copy();
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 3);
+        assertEquals(5, restored.getTaskByID(task.getId()).getVersion(), "Version should survive snapshot and replay");
+        assertThrows(VersionConflictException.class, () -> restored.compareAndUpdateTask(stale, 4),
+                "Stale version should still be rejected after restart");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Восстановление после отклонённых добавлений")
+    void testRecoveryAfterRejectedAdds() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task planned = new Task("Планёрка", "Description");
+        planned.setStartTime(LocalDateTime.of(2026, 3, 2, 9, 0));
+        planned.setDuration(Duration.ofHours(1));
+        manager.addTask(planned);
+        Task clash = new Task("Внахлёст", "Description");
+        clash.setStartTime(LocalDateTime.of(2026, 3, 2, 9, 30));
+        assertThrows(TaskOverlapException.class, () -> manager.addTask(clash));
+        assertThrows(IllegalArgumentException.class, () -> manager.addSubtask(new Subtask("Подзадача", "", 99)));
+        Task last = manager.addTask(new Task("Task", "Description"));
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(2, restored.getTasks().size(), "Log with rejected adds should be replayed");
+        assertEquals("Task", restored.getTaskByID(last.getId()).getName(), "Logged IDs should be kept");
+        assertTrue(restored.addTask(new Task("Next", "")).getId() > last.getId(), "IDs should not be reused");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Просмотры не пишутся в журнал при чтении")
+    void testViewsDoNotWriteOnRead() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 3);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        long logSize = Files.size(directory.resolve(FileBackedTaskManager.LOG_FILE));
+        for (int i = 0; i < 100; i++) {
+            manager.getTaskByID(task.getId());
+        }
+        assertEquals(logSize, Files.size(directory.resolve(FileBackedTaskManager.LOG_FILE)),
+                "Reads should neither append nor compact");
+        manager.addTask(new Task("Task 2", "Description"));
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 3);
+        assertEquals(List.of(task), restored.getHistory(), "History should be written with the next change");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Запись на диске к возврату из метода")
+    void testWriteIsDurableOnReturn() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task task = manager.addTask(new Task("Task", "Description"));
+
+        // Без close: подтверждённая запись не должна оставаться в буфере.
+        FileBackedTaskManager reader = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(task.getName(), reader.getTaskByID(task.getId()).getName(),
+                "Acknowledged write should already be in the log");
+        reader.close();
+        manager.close();
+    }
+
+    @Test
+    @DisplayName("Ошибка журнала не оставляет память впереди диска")
+    void testFailedLogLeavesMemoryUnchanged() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        manager.close();
+
+        assertThrows(ManagerSaveException.class, () -> manager.deleteTaskByID(task.getId()));
+        assertNotNull(manager.getTaskByID(task.getId()), "Unlogged delete should not change memory");
+        assertThrows(ManagerSaveException.class,
+                () -> manager.addSubtask(new Subtask("Subtask", "Description", epic.getId())));
+        assertTrue(manager.getSubtasks().isEmpty(), "Unlogged add should be undone");
+        assertTrue(manager.getEpicSubtasks(manager.getEpicByID(epic.getId())).isEmpty());
+        assertThrows(ManagerSaveException.class, () -> manager.updateTask(new Task(task.getId(), "Renamed", "", Status.DONE)));
+        assertEquals("Task", manager.getTaskByID(task.getId()).getName(), "Failed log should reject later changes");
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(List.of(task), restored.getTasks(), "Disk should match memory");
+        assertTrue(restored.getSubtasks().isEmpty());
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Отклонённые после записи изменения пропускаются при повторе")
+    void testRejectedChangesReplay() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task morning = new Task("Планёрка", "Description");
+        morning.setStartTime(LocalDateTime.of(2026, 3, 2, 9, 0));
+        morning.setDuration(Duration.ofHours(1));
+        manager.addTask(morning);
+        Task other = manager.addTask(new Task("Другая", "Description"));
+        Task clash = new Task(other.getId(), "Внахлёст", "Description", Status.NEW);
+        clash.setStartTime(LocalDateTime.of(2026, 3, 2, 9, 30));
+        assertThrows(TaskOverlapException.class, () -> manager.updateTask(clash));
+        manager.addDependency(other.getId(), morning.getId());
+        assertThrows(DependencyCycleException.class, () -> manager.addDependency(morning.getId(), other.getId()));
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals("Другая", restored.getTaskByID(other.getId()).getName(), "Rejected update should stay rejected");
+        assertEquals(1, restored.getTaskByID(other.getId()).getVersion());
+        assertEquals(0, restored.getBlockers(morning.getId()).length, "Rejected dependency should stay rejected");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Откат пакета переживает перезапуск")
+    void testBatchRollbackSurvivesRestart() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        List<MutationResult> results = manager.applyBatch(List.of(
+                Mutation.deleteEpic(epic.getId()),
+                Mutation.addSubtask(new Subtask("Orphan", "Description", 999))));
+        assertTrue(results.get(0).isRolledBack(), "Deletion should be rolled back");
+        long version = manager.getSubtaskByID(subtask.getId()).getVersion();
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(epic.getId(), restored.getEpics().get(0).getId(), "Restored epic should keep its ID");
+        assertEquals(version, restored.getSubtaskByID(subtask.getId()).getVersion(), "Version should be replayed");
+        assertEquals(1, restored.getEpicSubtasks(restored.getEpics().get(0)).size());
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Массовая смена статусов переживает перезапуск вместе с версиями")
+    void testSubtaskStatusesSurviveRestart() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        manager.setSubtaskStatuses(List.of(epic.getId()), Status.DONE);
+        manager.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertEquals(Status.DONE, restored.getEpicByID(epic.getId()).getStatus(), "Epic status should be replayed");
+        assertEquals(2, restored.getEpicByID(epic.getId()).getVersion(), "Epic version should be replayed");
+        assertEquals(2, restored.getSubtaskByID(subtask.getId()).getVersion(), "Subtask version should be replayed");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Зависимости восстанавливаются из журнала и снимка")
+    void testDependenciesSurviveRestart() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task first = manager.addTask(new Task("First", "Description"));
+        Task second = manager.addTask(new Task("Second", "Description"));
+        Task third = manager.addTask(new Task("Third", "Description"));
+        manager.addDependency(second.getId(), first.getId());
+        manager.addDependency(third.getId(), first.getId());
+        manager.removeDependency(third.getId(), first.getId());
+        manager.close();
+
+        FileBackedTaskManager replayed = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertArrayEquals(new int[]{first.getId()}, replayed.getBlockers(second.getId()), "Logged dependency should be replayed");
+        assertEquals(0, replayed.getBlockers(third.getId()).length, "Removed dependency should stay removed");
+        replayed.compact();
+        replayed.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertArrayEquals(new int[]{first.getId()}, restored.getBlockers(second.getId()), "Snapshot should keep dependencies");
+        assertEquals(2, restored.countReadyTasks(), "Blocked task should not be ready");
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Начало и длительность восстанавливаются из журнала и снимка")
+    void testTimesSurviveRestart() {
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        FileBackedTaskManager manager = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        Task task = new Task("Планёрка", "Description");
+        task.setStartTime(nine);
+        task.setDuration(Duration.ofMinutes(30));
+        manager.addTask(task);
+        Epic epic = manager.addEpic(new Epic("Релиз", "Description"));
+        Subtask subtask = new Subtask("Сборка", "Description", epic.getId());
+        subtask.setStartTime(nine.plusHours(1));
+        subtask.setDuration(Duration.ofHours(2));
+        manager.addSubtask(subtask);
+        manager.close();
+
+        FileBackedTaskManager replayed = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertTrue(task.contentEquals(replayed.getTaskByID(task.getId())), "Logged times should be replayed");
+        assertEquals(nine.plusHours(3), replayed.getEpicByID(epic.getId()).getEndTime(), "Epic times should be derived");
+        replayed.compact();
+        replayed.close();
+
+        FileBackedTaskManager restored = new FileBackedTaskManager(Managers.getDefaultHistory(), directory, 1000);
+        assertTrue(subtask.contentEquals(restored.getSubtaskByID(subtask.getId())), "Snapshot should keep times");
+        assertEquals(2, restored.getPrioritizedTasks().size(), "Schedule should be rebuilt");
+        Task clash = new Task("Внахлёст", "Description");
+        clash.setStartTime(nine.plusMinutes(15));
+        assertThrows(TaskOverlapException.class, () -> restored.addTask(clash), "Restored times should block overlaps");
+        restored.close();
+    }
+}
\ No newline at end of file
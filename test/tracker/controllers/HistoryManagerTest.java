@@ -3,6 +3,7 @@ package tracker.controllers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import tracker.model.Status;
 import tracker.model.Task;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,11 +32,50 @@ class HistoryManagerTest {
     @DisplayName("Ограничение размера истории")
     void testHistorySize() {
         for (int i = 0; i < 15; i++) {
-            Task task = new Task("Задача " + i, "Описание " + i);
+            Task task = new Task(i, "Задача " + i, "Описание " + i, Status.NEW);
             historyManager.add(task);
         }
         List<Task> history = historyManager.getHistory();
         assertEquals(10, history.size(), "Размер истории должен быть ограничен 10 задачами");
+        assertEquals(5, history.get(0).getId(), "Oldest views should be evicted first");
+    }
+
+    @Test
+    @DisplayName("Повторный просмотр не дублирует задачу")
+    void testHistoryDeduplication() {
+        Task first = new Task(1, "Задача 1", "Описание 1", Status.NEW);
+        Task second = new Task(2, "Задача 2", "Описание 2", Status.NEW);
+        historyManager.add(first);
+        historyManager.add(second);
+        historyManager.add(first);
+        List<Task> history = historyManager.getHistory();
+        assertEquals(2, history.size(), "Repeated view should not duplicate the task");
+        assertEquals(second, history.get(0), "Second task should become the oldest view");
+        assertEquals(first, history.get(1), "Repeated view should move the task to the end");
+    }
+
+    @Test
+    @DisplayName("Удаление задачи из истории")
+    void testRemoveFromHistory() {
+        for (int i = 1; i <= 3; i++) {
+            historyManager.add(new Task(i, "Задача " + i, "Описание " + i, Status.NEW));
+        }
+        historyManager.remove(2);
+        historyManager.remove(42);
+        List<Task> history = historyManager.getHistory();
+        assertEquals(2, history.size(), "Removed task should disappear from history");
+        assertEquals(1, history.get(0).getId(), "Order of the remaining tasks should be kept");
+        assertEquals(3, history.get(1).getId(), "Order of the remaining tasks should be kept");
+    }
+
+    @Test
+    @DisplayName("Настраиваемая вместимость истории")
+    void testCustomCapacity() {
+        HistoryManager smallHistory = Managers.getDefaultHistory(3);
+        for (int i = 0; i < 5; i++) {
+            smallHistory.add(new Task(i, "Задача " + i, "Описание " + i, Status.NEW));
+        }
+        assertEquals(3, smallHistory.getHistory().size(), "History should be limited by the configured capacity");
     }
 
     @Test
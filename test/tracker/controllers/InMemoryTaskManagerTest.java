@@ -7,6 +7,10 @@ import tracker.model.Epic;
 import tracker.model.Status;
 import tracker.model.Subtask;
 import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Менеджер задач в памяти")
@@ -68,4 +72,241 @@ class InMemoryTaskManagerTest {
         assertNotNull(defaultHistory, "Default history manager should be initialized");
         assertTrue(defaultHistory instanceof InMemoryHistoryManager, "Default history manager should be an instance of InMemoryHistoryManager");
     }
+
+    @Test
+    @DisplayName("Обновление полей эпика сохраняет его подзадачи")
+    void testUpdateEpicFields() {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+
+        Epic updated = taskManager.updateEpicFields(new Epic(epic.getId(), "Renamed", "Description"));
+        assertEquals("Renamed", updated.getName(), "Epic fields should change");
+        assertEquals(List.of(subtask), new ArrayList<>(taskManager.getEpicSubtasks(updated)), "Subtasks should stay");
+        assertThrows(VersionConflictException.class,
+                () -> taskManager.compareAndUpdateEpicFields(new Epic(epic.getId(), "Stale", "Description"), 1));
+        assertNull(taskManager.updateEpicFields(new Epic(999, "Missing", "Description")), "Missing epic is not updated");
+    }
+
+    @Test
+    @DisplayName("Удаление отсутствующей задачи ничего не делает")
+    void testDeleteMissingByID() {
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        taskManager.deleteTaskByID(999);
+        taskManager.deleteEpicByID(999);
+        taskManager.deleteSubtaskByID(999);
+        assertEquals(List.of(task), taskManager.getTasks(), "Existing tasks should stay");
+    }
+
+    @Test
+    @DisplayName("Пакетное применение операций")
+    void testApplyBatch() {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask done = new Subtask("Subtask 1", "Description", epic.getId());
+        done.setStatus(Status.DONE);
+        Subtask inProgress = new Subtask("Subtask 2", "Description", epic.getId());
+        inProgress.setStatus(Status.IN_PROGRESS);
+        taskManager.addSubtask(inProgress);
+
+        List<MutationResult> results = taskManager.applyBatch(List.of(
+                Mutation.addSubtask(done),
+                Mutation.addTask(new Task("Task", "Description")),
+                Mutation.updateTask(new Task(12345, "Missing", "Description", Status.NEW)),
+                Mutation.deleteSubtask(inProgress.getId())));
+
+        assertEquals(4, results.size(), "Every mutation should get a result");
+        assertTrue(results.get(0).isApplied(), "Subtask should be added");
+        assertTrue(results.get(1).isApplied(), "Task should be added");
+        assertFalse(results.get(2).isApplied(), "Update of a missing task should not be applied");
+        assertNull(results.get(2).getError(), "Missing task is not an error");
+        assertTrue(results.get(3).isApplied(), "Subtask should be deleted");
+        assertEquals(Status.DONE, taskManager.getEpicByID(epic.getId()).getStatus(),
+                "Epic status should be recomputed after the batch");
+    }
+
+    @Test
+    @DisplayName("Откат пакета при ошибке операции")
+    void testApplyBatchRollsBack() {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        Task renamed = new Task(task.getId(), "Renamed", "Description", Status.DONE);
+        Subtask done = new Subtask(subtask.getId(), "Subtask", "Description", Status.DONE, epic.getId());
+
+        List<MutationResult> results = taskManager.applyBatch(List.of(
+                Mutation.addTask(new Task("Added", "Description")),
+                Mutation.updateTask(renamed),
+                Mutation.updateSubtask(done),
+                Mutation.deleteEpic(epic.getId()),
+                Mutation.addSubtask(new Subtask("Orphan", "Description", 999)),
+                Mutation.addTask(new Task("Never", "Description"))));
+
+        assertNotNull(results.get(4).getError(), "Failure should carry the error");
+        assertTrue(results.stream().noneMatch(MutationResult::isApplied), "Nothing should stay applied");
+        assertTrue(results.get(0).isRolledBack() && results.get(5).isRolledBack(),
+                "Earlier and later mutations should be marked as rolled back");
+        assertEquals(List.of(task), taskManager.getTasks(), "Added task should be removed");
+        assertEquals("Task", taskManager.getTaskByID(task.getId()).getName(), "Update should be undone");
+        assertNotNull(taskManager.getEpicByID(epic.getId()), "Deleted epic should be restored with its ID");
+        assertEquals(Status.NEW, taskManager.getSubtaskByID(subtask.getId()).getStatus(),
+                "Subtask should be restored to its state before the batch");
+        assertEquals(Status.NEW, taskManager.getEpicByID(epic.getId()).getStatus(), "Epic status should be restored");
+        assertEquals(1, taskManager.getEpicSubtasks(taskManager.getEpicByID(epic.getId())).size());
+        assertTrue(taskManager.getTaskByID(task.getId()).getVersion() > task.getVersion(),
+                "Versions should keep growing after a rollback");
+    }
+
+    @Test
+    @DisplayName("Постраничная выборка по ключу")
+    void testKeysetPaging() {
+        Epic source = taskManager.addEpic(new Epic("Source", "Description"));
+        Epic target = taskManager.addEpic(new Epic("Target", "Description"));
+        Subtask moved = taskManager.addSubtask(new Subtask("Moved", "Description", source.getId()));
+        Subtask first = taskManager.addSubtask(new Subtask("First", "Description", target.getId()));
+        Subtask second = taskManager.addSubtask(new Subtask("Second", "Description", target.getId()));
+        taskManager.updateSubtask(new Subtask(moved.getId(), "Moved", "Description", Status.NEW, target.getId()));
+
+        List<Task> page = taskManager.page(TaskQuery.all().epic(target.getId()).limit(2));
+        assertEquals(List.of(moved.getId(), first.getId()), page.stream().map(Task::getId).toList(),
+                "Epic subtasks should be paged in ID order");
+        List<Task> next = taskManager.page(TaskQuery.all().epic(target.getId()).after(first.getId()).limit(2));
+        assertEquals(List.of(second.getId()), next.stream().map(Task::getId).toList(), "Key should continue the page");
+
+        for (int i = 0; i < 6; i++) {
+            Task task = new Task("Task " + i, "Description");
+            task.setStatus(i % 3 == 0 ? Status.DONE : Status.NEW);
+            taskManager.addTask(task);
+        }
+        TaskQuery doneTasks = TaskQuery.all().type(TaskType.TASK).status(Status.DONE);
+        List<Task> done = taskManager.page(doneTasks.limit(1));
+        List<Task> rest = taskManager.page(doneTasks.limit(10).after(done.get(0).getId()));
+        assertEquals(1, rest.size(), "Status filter should page by ID key");
+        assertTrue(rest.get(0).getId() > done.get(0).getId());
+        assertTrue(taskManager.page(TaskQuery.all().status(Status.IN_PROGRESS)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Выборка задач с фильтрами и страницами")
+    void testQuery() {
+        for (int i = 0; i < 10; i++) {
+            Task task = new Task("Task " + i, "Description");
+            task.setStatus(i % 2 == 0 ? Status.DONE : Status.NEW);
+            taskManager.addTask(task);
+        }
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+
+        List<Task> done = taskManager.page(TaskQuery.all().type(TaskType.TASK).status(Status.DONE));
+        assertEquals(5, done.size(), "Only DONE tasks should be selected");
+        assertEquals(List.of(subtask), taskManager.page(TaskQuery.all().epic(epic.getId())),
+                "Epic query should return its subtasks");
+        assertEquals(1, taskManager.page(TaskQuery.all().type(TaskType.EPIC)).size(), "Type filter should apply");
+
+        List<Task> firstPage = taskManager.page(TaskQuery.all().limit(4));
+        List<Task> secondPage = taskManager.page(TaskQuery.all().after(firstPage.get(3).getId()).limit(4));
+        List<Task> offsetPage = taskManager.page(TaskQuery.all().offset(4).limit(4));
+        assertEquals(4, secondPage.size(), "Second page should be full");
+        assertEquals(5, secondPage.get(0).getId(), "Keyset page should continue after the cursor");
+        assertEquals(secondPage, offsetPage, "Keyset and offset pages should match");
+        assertEquals(12, taskManager.query(TaskQuery.all()).count(), "Unfiltered query should see every item");
+    }
+
+    @Test
+    @DisplayName("Индекс задач по статусам")
+    void testStatusIndex() {
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask1 = taskManager.addSubtask(new Subtask("Subtask 1", "Description", epic.getId()));
+        Subtask subtask2 = taskManager.addSubtask(new Subtask("Subtask 2", "Description", epic.getId()));
+        assertEquals(2, taskManager.countTasks(TaskType.SUBTASK, Status.NEW), "Both subtasks should be NEW");
+        assertEquals(4, taskManager.countTasks(null, Status.NEW), "All items should be NEW");
+
+        subtask1.setStatus(Status.IN_PROGRESS);
+        taskManager.updateSubtask(subtask1);
+        assertEquals(List.of(subtask1), taskManager.getTasksByStatus(TaskType.SUBTASK, Status.IN_PROGRESS),
+                "Updated subtask should move to IN_PROGRESS");
+        assertEquals(1, taskManager.countTasks(TaskType.EPIC, Status.IN_PROGRESS), "Epic status change should be indexed");
+
+        task.setStatus(Status.DONE);
+        taskManager.updateTask(task);
+        taskManager.deleteSubtaskByID(subtask1.getId());
+        assertEquals(1, taskManager.countTasks(TaskType.TASK, Status.DONE), "Task should be counted as DONE");
+        assertEquals(0, taskManager.countTasks(TaskType.SUBTASK, Status.IN_PROGRESS), "Deleted subtask should leave the index");
+        assertEquals(1, taskManager.countTasks(TaskType.EPIC, Status.NEW), "Epic should return to NEW");
+        assertEquals(List.of(subtask2), taskManager.page(TaskQuery.all().status(Status.NEW).type(TaskType.SUBTASK)),
+                "Status query should use the index");
+
+        taskManager.deleteEpics();
+        assertEquals(0, taskManager.countTasks(TaskType.SUBTASK, Status.NEW), "Subtasks should leave the index with epics");
+        assertEquals(0, taskManager.countTasks(TaskType.EPIC, Status.NEW), "Epics should leave the index");
+    }
+
+    @Test
+    @DisplayName("Параллельные массовые операции над эпиками")
+    void testParallelBulkOperations() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        BoardSnapshot empty = manager.snapshot();
+        int epicCount = ParallelBulk.LEAF_SIZE * 3;
+        List<Integer> evenEpics = new ArrayList<>();
+        for (int i = 0; i < epicCount; i++) {
+            Epic epic = manager.addEpic(new Epic("Epic " + i, "Description"));
+            manager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+            manager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+            if (i % 2 == 0) {
+                evenEpics.add(epic.getId());
+            }
+        }
+
+        List<Subtask> updated = manager.setSubtaskStatuses(evenEpics, Status.DONE);
+        assertEquals(epicCount, updated.size(), "Every subtask of the selected epics should change");
+        assertEquals(epicCount / 2, manager.countTasks(TaskType.EPIC, Status.DONE), "Selected epics should be DONE");
+        assertEquals(epicCount / 2, manager.snapshot().getEpics().stream()
+                .filter(epic -> epic.getStatus() == Status.DONE).count(), "Snapshot should see the new epic statuses");
+        for (Subtask subtask : updated) {
+            assertEquals(2, subtask.getVersion(), "Changed subtask should get a new version");
+        }
+        assertEquals(2, manager.getEpicByID(evenEpics.get(0)).getVersion(), "Epic with a new status should get a new version");
+        manager.setSubtaskStatuses(evenEpics, Status.DONE);
+        assertEquals(2, manager.getEpicByID(evenEpics.get(0)).getVersion(), "Unchanged epic should keep its version");
+
+        for (Subtask subtask : manager.getSubtasks()) {
+            subtask.setStatus(Status.IN_PROGRESS);
+        }
+        assertEquals(epicCount, manager.recalculateEpicStatuses(), "Every epic should change status");
+        assertEquals(epicCount, manager.countTasks(TaskType.EPIC, Status.IN_PROGRESS), "All epics should be IN_PROGRESS");
+        assertEquals(epicCount * 2, manager.countTasks(TaskType.SUBTASK, Status.IN_PROGRESS),
+                "In-place subtask changes should be reindexed");
+
+        manager.deleteSubtasks();
+        assertEquals(epicCount, manager.countTasks(TaskType.EPIC, Status.NEW), "Epics without subtasks should be NEW");
+        assertEquals(0, manager.snapshot().getSubtaskCount(), "Snapshot should lose all subtasks");
+        assertEquals(0, empty.getEpicCount(), "Earlier snapshot should stay empty");
+    }
+
+    @Test
+    @DisplayName("Условное обновление по версии")
+    void testCompareAndUpdate() {
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        assertEquals(1, task.getVersion(), "New task should start at version 1");
+
+        Task edit = task.copy();
+        edit.setName("Renamed");
+        assertEquals(2, taskManager.compareAndUpdateTask(edit, 1).getVersion(), "Update should bump the version");
+
+        Task stale = task.copy();
+        stale.setName("Stale");
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> taskManager.compareAndUpdateTask(stale, 1), "Stale version should be rejected");
+        assertEquals(2, conflict.getActualVersion(), "Conflict should report the current version");
+        assertEquals("Renamed", taskManager.getTaskByID(task.getId()).getName(), "Stale write should not apply");
+        assertEquals(1, ((InMemoryTaskManager) taskManager).getVersionConflicts(), "Conflict should be counted");
+        assertNull(taskManager.compareAndUpdateTask(new Task(99, "Missing", "", Status.NEW), 1),
+                "Missing task should give null");
+
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        subtask.setStatus(Status.DONE);
+        taskManager.compareAndUpdateSubtask(subtask, 1);
+        assertEquals(2, subtask.getVersion(), "Subtask version should be bumped");
+        assertEquals(1, epic.getVersion(), "Derived epic status should not bump the epic version");
+    }
 }
\ No newline at end of file
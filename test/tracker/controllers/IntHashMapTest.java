@@ -0,0 +1,72 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Хэш-таблица с ключами int")
+class IntHashMapTest {
+
+    private IntMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new IntHashMap<>();
+    }
+
+    @Test
+    @DisplayName("Добавление, замена и удаление")
+    void testPutGetRemove() {
+        assertNull(map.put(1, "one"), "New key should have no previous value");
+        assertEquals("one", map.put(1, "uno"), "Put should return the previous value");
+        assertEquals("uno", map.get(1), "Value should be replaced");
+        assertNull(map.replace(2, "two"), "Replace should ignore a missing key");
+        assertFalse(map.containsKey(2), "Replace should not insert a missing key");
+        assertEquals("uno", map.remove(1), "Remove should return the removed value");
+        assertNull(map.get(1), "Removed key should not be found");
+        assertTrue(map.isEmpty(), "Map should be empty");
+    }
+
+    @Test
+    @DisplayName("Согласованность с HashMap при случайных операциях")
+    void testRandomOperationsMatchHashMap() {
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "Remove results should match");
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value), "Put results should match");
+            }
+        }
+        assertEquals(expected.size(), map.size(), "Sizes should match");
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Values should match");
+        }
+        Set<String> values = new HashSet<>(map.values());
+        assertEquals(new HashSet<>(expected.values()), values, "Value views should match");
+    }
+
+    @Test
+    @DisplayName("Очистка")
+    void testClear() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        map.clear();
+        assertEquals(0, map.size(), "Map should be empty after clear");
+        assertFalse(map.values().iterator().hasNext(), "Values view should be empty after clear");
+        map.put(5, "five");
+        assertEquals("five", map.get(5), "Map should be usable after clear");
+    }
+}
\ No newline at end of file
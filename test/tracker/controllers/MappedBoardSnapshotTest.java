@@ -0,0 +1,117 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Снимок доски в отображаемом файле")
+class MappedBoardSnapshotTest {
+
+    private Path file;
+    private InMemoryTaskManager manager;
+    private Epic epic;
+    private Subtask subtask;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("board", ".snapshot");
+        manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        manager.addTask(new Task("Собрать чемодан", "Не забыть документы"));
+        epic = manager.addEpic(new Epic("Путешествие", null));
+        subtask = manager.addSubtask(new Subtask("Купить билеты", "Не забыть документы", epic.getId()));
+        manager.addSubtask(new Subtask("Забронировать отели", "Центр", epic.getId()));
+        subtask.setStatus(Status.IN_PROGRESS);
+        manager.updateSubtask(subtask);
+        manager.getSubtaskByID(subtask.getId());
+        manager.getTaskByID(1);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Ленивое чтение записей")
+    void testLazyLookup() {
+        MappedBoardSnapshot.write(manager, file);
+        MappedBoardSnapshot snapshot = MappedBoardSnapshot.open(file);
+
+        assertEquals(4, snapshot.size(), "Snapshot should contain every record");
+        assertEquals(Status.IN_PROGRESS, snapshot.getStatus(epic.getId()), "Status should be read without materializing");
+        assertArrayEquals(new int[]{subtask.getId(), subtask.getId() + 1}, snapshot.getEpicSubtaskIDs(epic.getId()),
+                "Epic adjacency should list subtask ids");
+        assertNull(snapshot.get(42), "Unknown id should not be found");
+
+        Epic loadedEpic = (Epic) snapshot.get(epic.getId());
+        assertNull(loadedEpic.getDescription(), "Null description should be preserved");
+        assertEquals(2, loadedEpic.getSubtaskCount(), "Epic should be materialized with its subtasks");
+        assertSame(snapshot.get(subtask.getId()), loadedEpic.getSubtask(subtask.getId()), "Records should be cached");
+    }
+
+    @Test
+    @DisplayName("Полное восстановление менеджера")
+    void testLoadInto() {
+        MappedBoardSnapshot.write(manager, file);
+        InMemoryTaskManager restored = new InMemoryTaskManager(Managers.getDefaultHistory());
+        MappedBoardSnapshot.open(file).loadInto(restored);
+
+        assertEquals(1, restored.getTasks().size(), "Tasks should be restored");
+        assertEquals(2, restored.getSubtasks().size(), "Subtasks should be restored");
+        assertEquals(Status.IN_PROGRESS, restored.getEpics().get(0).getStatus(), "Epic status should be restored");
+        assertEquals("Не забыть документы", restored.getSubtasks().get(0).getDescription(), "Strings should be restored");
+        assertEquals(2, restored.getHistory().size(), "History should be restored");
+        assertEquals(5, restored.addTask(new Task("Task", "Description")).getId(), "ID sequence should continue");
+    }
+
+    @Test
+    @DisplayName("Версии задач и зависимости в снимке")
+    void testVersionsAndDependencies() {
+        manager.addDependency(subtask.getId(), 1);
+        Task stale = manager.getTaskByID(1).copy();
+        manager.updateTask(new Task(1, "Собрать чемодан", "Документы", Status.NEW));
+        MappedBoardSnapshot.write(manager, file);
+        MappedBoardSnapshot snapshot = MappedBoardSnapshot.open(file);
+        assertEquals(2, snapshot.get(subtask.getId()).getVersion(), "Version should be read from the record");
+        assertArrayEquals(new int[]{1}, snapshot.getBlockers(subtask.getId()), "Blockers should be read lazily");
+
+        InMemoryTaskManager restored = new InMemoryTaskManager(Managers.getDefaultHistory());
+        snapshot.loadInto(restored);
+        assertEquals(2, restored.getTaskByID(1).getVersion(), "Versions should be restored");
+        assertNotNull(restored.compareAndUpdateTask(new Task(1, "Собрать чемодан", "", Status.DONE), 2),
+                "Current version should be accepted after loading");
+        assertThrows(VersionConflictException.class, () -> restored.compareAndUpdateTask(stale, 1));
+        assertArrayEquals(new int[]{1}, restored.getBlockers(subtask.getId()), "Dependencies should be restored");
+    }
+
+    @Test
+    @DisplayName("Начало и длительность в записях")
+    void testTimes() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0, 0, 500);
+        Subtask timed = new Subtask(subtask.getId(), "Купить билеты", "Не забыть документы", Status.IN_PROGRESS,
+                epic.getId());
+        timed.setStartTime(start);
+        timed.setDuration(Duration.ofMinutes(90));
+        manager.updateSubtask(timed);
+        MappedBoardSnapshot.write(manager, file);
+        InMemoryTaskManager restored = new InMemoryTaskManager(Managers.getDefaultHistory());
+        MappedBoardSnapshot.open(file).loadInto(restored);
+
+        assertTrue(timed.contentEquals(restored.getSubtaskByID(subtask.getId())), "Times should be restored");
+        assertNull(restored.getTaskByID(1).getStartTime(), "Missing start should stay missing");
+        assertEquals(start, restored.getEpicByID(epic.getId()).getStartTime(), "Epic times should be derived");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Расписание задач по времени начала")
+class ScheduleIndexTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Test
+    @DisplayName("Проверка пересечений при добавлении и обновлении")
+    void testOverlapChecks() {
+        TaskManager manager = Managers.getDefault();
+        Task morning = manager.addTask(planned(new Task("Планёрка", ""), NINE, 60));
+        Task noon = manager.addTask(planned(new Task("Созвон", ""), NINE.plusHours(3), 30));
+        manager.addTask(planned(new Task("Сразу после", ""), NINE.plusHours(1), 30));
+
+        TaskOverlapException e = assertThrows(TaskOverlapException.class,
+                () -> manager.addTask(planned(new Task("Внахлёст", ""), NINE.plusMinutes(30), 60)));
+        assertEquals(morning.getId(), e.getConflictingId());
+        assertThrows(TaskOverlapException.class,
+                () -> manager.addTask(planned(new Task("В то же время", ""), NINE.plusHours(3), 0)),
+                "Tasks starting at the same time should overlap even with zero duration");
+        assertThrows(TaskOverlapException.class,
+                () -> manager.addTask(planned(new Task("Накрывает", ""), NINE.plusHours(2), 120)));
+        assertEquals(3, manager.getTasks().size(), "Overlapping tasks should not be stored");
+
+        Task moved = planned(new Task(noon.getId(), "Созвон", "", noon.getStatus()), NINE.plusHours(3).plusMinutes(15), 30);
+        manager.updateTask(moved);
+        assertEquals(NINE.plusHours(3).plusMinutes(15), manager.getTaskByID(noon.getId()).getStartTime(),
+                "Task should not overlap its own previous time");
+        Task clash = planned(new Task(noon.getId(), "Созвон", "", noon.getStatus()), NINE, 15);
+        assertThrows(TaskOverlapException.class, () -> manager.updateTask(clash));
+        assertEquals(NINE.plusHours(3).plusMinutes(15), manager.getTaskByID(noon.getId()).getStartTime(),
+                "Rejected update should keep the stored task");
+    }
+
+    @Test
+    @DisplayName("Отклонённые изменения не оставляют следов в расписании")
+    void testRejectedChangesLeaveNoTrace() {
+        TaskManager manager = Managers.getDefault();
+        Epic epic = manager.addEpic(new Epic("Релиз", ""));
+        Subtask build = manager.addSubtask(planned(new Subtask("Сборка", "", epic.getId()), NINE, 60));
+        assertThrows(TaskOverlapException.class,
+                () -> manager.addSubtask(planned(new Subtask("Внахлёст", "", epic.getId()), NINE, 30)));
+        assertEquals(build.getId() + 1, manager.addTask(new Task("Следующая", "")).getId(),
+                "Rejected add should not consume an id");
+
+        Subtask orphan = planned(new Subtask(build.getId(), "Сборка", "", Status.NEW, 999), NINE.plusHours(5), 60);
+        assertThrows(IllegalArgumentException.class, () -> manager.updateSubtask(orphan));
+        assertEquals(List.of(build), manager.getPrioritizedTasks(), "Rejected move should keep the schedule");
+
+        Epic replaced = new Epic(epic.getId(), "Релиз", "");
+        replaced.addSubtask(planned(new Subtask(build.getId(), "Сборка", "", Status.NEW, epic.getId()), NINE.plusHours(2), 60));
+        manager.updateEpic(replaced);
+        assertEquals(NINE.plusHours(2), manager.getPrioritizedTasks().get(0).getStartTime(),
+                "Subtasks brought by an epic update should be rescheduled");
+    }
+
+    @Test
+    @DisplayName("Копия задачи из расписания не занимает её интервал")
+    void testCopyOfScheduledTask() {
+        TaskManager manager = Managers.getDefault();
+        Task morning = manager.addTask(planned(new Task("Планёрка", ""), NINE, 60));
+        assertThrows(TaskOverlapException.class, () -> manager.addTask(morning.copy()),
+                "A copy carrying the id of a scheduled task should still be checked for overlaps");
+        assertEquals(1, manager.getTasks().size(), "Overlapping copy should not be stored");
+
+        manager.deleteTaskByID(morning.getId());
+        Task again = manager.addTask(morning.copy());
+        assertEquals(List.of(again), manager.getPrioritizedTasks(),
+                "Copy should be scheduled once the original is gone");
+    }
+
+    @Test
+    @DisplayName("Список по приоритету и сроки эпика в менеджере")
+    void testPrioritizedListing() {
+        TaskManager manager = Managers.getDefault();
+        Epic epic = manager.addEpic(new Epic("Релиз", ""));
+        Subtask build = manager.addSubtask(planned(new Subtask("Сборка", "", epic.getId()), NINE.plusHours(2), 45));
+        Task review = manager.addTask(planned(new Task("Ревью", ""), NINE, 60));
+        manager.addTask(new Task("Когда-нибудь", ""));
+        Subtask deploy = manager.addSubtask(planned(new Subtask("Выкладка", "", epic.getId()), NINE.plusHours(4), 15));
+
+        assertEquals(List.of(review, build, deploy), manager.getPrioritizedTasks(),
+                "Tasks with a start time should be listed by start, epics excluded");
+        assertEquals(NINE.plusHours(2), manager.getEpicByID(epic.getId()).getStartTime());
+        assertEquals(NINE.plusHours(4).plusMinutes(15), manager.getEpicByID(epic.getId()).getEndTime());
+        assertEquals(Duration.ofMinutes(60), manager.getEpicByID(epic.getId()).getDuration());
+
+        manager.deleteTaskByID(review.getId());
+        manager.addTask(planned(new Task("Новое ревью", ""), NINE, 60));
+        manager.deleteSubtasks();
+        assertEquals(1, manager.getPrioritizedTasks().size(), "Deleted tasks should leave the schedule");
+        assertNull(manager.getEpicByID(epic.getId()).getStartTime());
+    }
+
+    private static <T extends Task> T planned(T task, LocalDateTime start, long minutes) {
+        task.setStartTime(start);
+        task.setDuration(Duration.ofMinutes(minutes));
+        return task;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Полнотекстовый индекс задач")
+class SearchIndexTest {
+
+    @Test
+    @DisplayName("Разбиение русского текста на слова")
+    void testTokenize() {
+        assertEquals(List.of("еще", "не", "елка", "v2"), SearchIndex.tokenize("Ещё не-Ёлка, v2!"),
+                "Words should be lower-cased with ё folded to е");
+        assertTrue(SearchIndex.tokenize(null).isEmpty(), "Null text should have no words");
+    }
+
+    @Test
+    @DisplayName("Поиск по началу слова и ранжирование")
+    void testPrefixSearchAndRanking() {
+        SearchIndex index = new SearchIndex();
+        Task inName = new Task(1, "Купить билеты", "На самолёт", Status.NEW);
+        Task inDescription = new Task(2, "Отпуск", "Купить билеты заранее", Status.NEW);
+        Task other = new Task(3, "Купить чемодан", "Большой", Status.NEW);
+        index.index(inName);
+        index.index(inDescription);
+        index.index(other);
+
+        assertEquals(List.of(inName, inDescription), index.search("купить БИЛ", 10),
+                "All query words should match, name matches should rank first");
+        assertEquals(List.of(inName), index.search("самолет", 10), "ё and е should match each other");
+        assertEquals(List.of(inName), index.search("купить", 1), "Result should be limited");
+        assertTrue(index.search("купить поезд", 10).isEmpty(), "Every query word should match");
+        assertTrue(index.search(" ,. ", 10).isEmpty(), "Query without words should find nothing");
+    }
+
+    @Test
+    @DisplayName("Инкрементальное обновление индекса")
+    void testIncrementalUpdates() {
+        SearchIndex index = new SearchIndex(4);
+        Epic epic = new Epic(1, "Переезд", "Офис");
+        Subtask subtask = new Subtask(2, "Упаковать мебель", "Столы", Status.NEW, 1);
+        index.index(epic);
+        index.index(subtask);
+
+        Subtask renamed = new Subtask(2, "Вывезти мебель", "Столы", Status.DONE, 1);
+        index.index(renamed);
+        assertTrue(index.search("упаковать", 10).isEmpty(), "Old words should be removed on update");
+        assertSame(renamed, index.search("вывезти", 10).get(0), "Index should return the updated task");
+
+        index.remove(TaskType.TASK, 2);
+        assertEquals(1, index.search("мебель", 10).size(), "Removal with a different type should be ignored");
+        index.remove(TaskType.SUBTASK, 2);
+        assertTrue(index.search("мебель", 10).isEmpty(), "Removed task should not be found");
+
+        index.clear(TaskType.EPIC);
+        assertTrue(index.search("офис", 10).isEmpty(), "Cleared tasks should not be found");
+        assertEquals(0, index.size(), "Index should be empty");
+    }
+
+    @Test
+    @DisplayName("Менеджер обновляет индекс при изменениях")
+    void testManagerMaintainsIndex() {
+        TaskManager manager = Managers.getDefault();
+        Epic epic = manager.addEpic(new Epic("Путешествие по Европе", "Главные достопримечательности"));
+        Subtask subtask = manager.addSubtask(new Subtask("Забронировать отели", "Центр", epic.getId()));
+        Task task = manager.addTask(new Task("Собрать чемодан", "Не забыть документы"));
+
+        assertEquals(List.of(subtask), manager.search("отел", 10), "Subtask should be found by prefix");
+        task.setName("Собрать рюкзак");
+        manager.updateTask(task);
+        assertTrue(manager.search("чемодан", 10).isEmpty(), "Renamed task should lose old words");
+        assertEquals(List.of(task), manager.search("рюкзак", 10), "Renamed task should be found by new words");
+
+        manager.deleteEpicByID(epic.getId());
+        assertTrue(manager.search("отели", 10).isEmpty(), "Subtasks of deleted epic should not be found");
+
+        TaskManager columnar = Managers.getColumnar();
+        Task stored = columnar.addTask(new Task("Собрать рюкзак", "Не забыть документы"));
+        assertEquals(List.of(stored), columnar.search("документ", 10),
+                "Manager without an index should search by the default implementation");
+    }
+}
\ No newline at end of file
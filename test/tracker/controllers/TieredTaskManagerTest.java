@@ -0,0 +1,140 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Менеджер задач с вытеснением в файл")
+class TieredTaskManagerTest {
+
+    private Path directory;
+    private TieredTaskManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("kanban");
+        manager = new TieredTaskManager(Managers.getDefaultHistory(), directory.resolve("cold.segment"), 100, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("Вытеснение выполненных задач и прозрачная загрузка")
+    void testEvictionAndTransparentLoad() {
+        Task done = manager.addTask(new Task(0, "Отчёт", "Выполнен", Status.DONE));
+        Task open = manager.addTask(new Task("Открытая", "В работе"));
+        Epic epic = manager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask first = manager.addSubtask(new Subtask(0, "Первая", "Описание", Status.DONE, epic.getId()));
+        Subtask second = manager.addSubtask(new Subtask(0, "Вторая", "Описание", Status.DONE, epic.getId()));
+
+        assertEquals(4, manager.evictCold(), "Done task and done epic with subtasks should be evicted");
+        assertEquals(1, manager.getHotCount(), "Only the open task should stay in memory");
+        assertEquals(4, manager.getColdCount(), "Evicted tasks should be counted");
+        assertEquals(2, manager.countTasks(TaskType.SUBTASK, Status.DONE), "Counts should include evicted tasks");
+        assertEquals(4, manager.getTasksByStatus(null, Status.DONE).size(),
+                "Status listing should include evicted tasks");
+        assertEquals(Set.of(done, open), new HashSet<>(manager.getTasks()), "Listing should include evicted tasks");
+        assertEquals(1, manager.getHotCount(), "Listing should not load evicted tasks");
+
+        Subtask loaded = manager.getSubtaskByID(second.getId());
+        assertTrue(second.contentEquals(loaded), "Evicted subtask should be loaded with its fields");
+        assertEquals(second.getVersion(), loaded.getVersion(), "Evicted subtask should keep its version");
+        assertEquals(4, manager.getHotCount(), "Epic should be loaded together with its subtasks");
+        Epic loadedEpic = manager.getEpicByID(epic.getId());
+        assertEquals(Status.DONE, loadedEpic.getStatus(), "Loaded epic should keep its status");
+        assertSame(loaded, loadedEpic.getSubtask(second.getId()), "Loaded epic should hold the loaded subtasks");
+
+        assertEquals(0, manager.evictCold(), "Recently viewed epic should not be evicted");
+        assertTrue(manager.getSubtasks().stream().anyMatch(first::contentEquals),
+                "Subtask should be listed after loading");
+    }
+
+    @Test
+    @DisplayName("Вытесненные задачи сохраняют начало и длительность")
+    void testEvictedTimes() {
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        Epic epic = manager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = new Subtask(0, "Подзадача", "Описание", Status.DONE, epic.getId());
+        subtask.setStartTime(nine);
+        subtask.setDuration(Duration.ofHours(1));
+        manager.addSubtask(subtask);
+        assertEquals(2, manager.evictCold(), "Done epic should be evicted with its subtask");
+
+        assertTrue(subtask.contentEquals(manager.getSubtaskByID(subtask.getId())), "Loaded subtask should keep its times");
+        assertEquals(nine.plusHours(1), manager.getEpicByID(epic.getId()).getEndTime(), "Loaded epic should derive its times");
+    }
+
+    @Test
+    @DisplayName("Изменение и удаление вытесненных задач")
+    void testUpdateAndDeleteEvicted() {
+        Task task = manager.addTask(new Task(0, "Отчёт", "Выполнен", Status.DONE));
+        Task other = manager.addTask(new Task(0, "Договор", "Подписан", Status.DONE));
+        Epic epic = manager.addEpic(new Epic("Эпик", "Описание"));
+        manager.addSubtask(new Subtask(0, "Подзадача", "Описание", Status.DONE, epic.getId()));
+        manager.getTaskByID(other.getId());
+        assertEquals(3, manager.evictCold(), "Done tasks except the viewed one should be evicted");
+
+        Task reopened = new Task(task.getId(), "Отчёт", "Переделать", Status.IN_PROGRESS);
+        Task updated = manager.compareAndUpdateTask(reopened, 1);
+        assertEquals(2, updated.getVersion(), "Evicted task should be updated against its stored version");
+        assertEquals(1, manager.countTasks(TaskType.TASK, Status.IN_PROGRESS), "Updated task should be reindexed");
+        assertEquals(1, manager.countTasks(TaskType.TASK, Status.DONE), "Only one task should stay done");
+
+        manager.deleteEpics();
+        assertEquals(0, manager.getColdCount(), "Deleted epics should leave the cold tier");
+        assertTrue(manager.getSubtasks().isEmpty(), "Subtasks of deleted epics should be gone");
+        manager.deleteTasks();
+        assertTrue(manager.getTasks().isEmpty(), "Tasks should be deleted");
+        assertTrue(manager.getHistory().isEmpty(), "Deleted tasks should leave history");
+    }
+
+    @Test
+    @DisplayName("Вытеснение при росте доски и сжатие файла")
+    void testAutomaticEvictionAndCompaction() {
+        TieredTaskManager large = new TieredTaskManager(Managers.getDefaultHistory(),
+                directory.resolve("large.segment"), 100, 10, 16);
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                large.addTask(new Task(0, "Задача " + i, "Описание задачи " + i, Status.DONE));
+            }
+            assertTrue(large.getHotCount() <= 100, "Hot tier should stay bounded");
+            assertEquals(20_000, large.countTasks(TaskType.TASK, Status.DONE), "All tasks should be counted");
+            long size = large.getSegmentSize();
+            for (int round = 0; round < 3; round++) {
+                for (int id = 1; id <= 20_000; id++) {
+                    assertNotNull(large.getTaskByID(id), "Every task should be loadable");
+                }
+                large.evictCold();
+            }
+            assertTrue(large.getSegmentSize() <= 2 * size, "Segment should be compacted after reloads");
+            assertEquals("Задача 123", large.query(TaskQuery.all().after(123).limit(1)).findFirst()
+                    .orElseThrow().getName(), "Query should read evicted tasks");
+        } finally {
+            large.close();
+        }
+    }
+}
\ No newline at end of file
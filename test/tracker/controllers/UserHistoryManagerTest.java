@@ -0,0 +1,66 @@
+package tracker.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.model.Task;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("История по пользователям")
+class UserHistoryManagerTest {
+
+    private static Task task(int id) {
+        Task task = new Task("Задача " + id, "Описание");
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    @DisplayName("Истории пользователей не пересекаются")
+    void testHistoriesAreSeparate() {
+        UserHistoryManager histories = new UserHistoryManager(10, 1000, 4);
+        HistoryManager alice = histories.forUser("alice");
+        HistoryManager bob = histories.forUser("bob");
+        alice.add(task(1));
+        bob.add(task(2));
+        alice.add(task(3));
+
+        assertEquals(List.of(1, 3), alice.getHistory().stream().map(Task::getId).toList(),
+                "В истории Алисы должны быть только её просмотры");
+        assertEquals(List.of(2), bob.getHistory().stream().map(Task::getId).toList(),
+                "В истории Боба должны быть только его просмотры");
+        assertTrue(histories.getHistory("carol").isEmpty(), "У нового пользователя история пуста");
+        assertEquals(2, histories.getUserCount(), "Чтение пустой истории не должно заводить пользователя");
+    }
+
+    @Test
+    @DisplayName("Вытеснение дольше всех неактивных пользователей")
+    void testIdleUsersAreEvicted() {
+        UserHistoryManager histories = new UserHistoryManager(3, 6, 1);
+        for (int id = 1; id <= 3; id++) {
+            histories.add("alice", task(id));
+            histories.add("bob", task(id));
+        }
+        histories.getHistory("alice");
+        histories.add("carol", task(1));
+
+        assertEquals(4, histories.getEntryCount(), "Вытесненная история должна освободить все свои записи");
+        assertTrue(histories.getHistory("bob").isEmpty(), "История Боба должна быть вытеснена первой");
+        assertEquals(3, histories.getHistory("alice").size(), "История Алисы должна сохраниться");
+    }
+
+    @Test
+    @DisplayName("Удаление задачи из историй всех пользователей")
+    void testRemoveEverywhere() {
+        UserHistoryManager histories = new UserHistoryManager(10, 1000, 4);
+        histories.add("alice", task(1));
+        histories.add("bob", task(1));
+        histories.add("bob", task(2));
+
+        histories.remove(1);
+
+        assertTrue(histories.getHistory("alice").isEmpty(), "Задача должна пропасть из истории Алисы");
+        assertEquals(1, histories.getHistory("bob").size(), "У Боба должна остаться одна задача");
+        assertEquals(1, histories.getEntryCount(), "Счётчик записей должен уменьшиться");
+    }
+}
\ No newline at end of file
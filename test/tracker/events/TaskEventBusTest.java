@@ -0,0 +1,82 @@
+package tracker.events;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.controllers.Managers;
+import tracker.controllers.TaskManager;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("События доски")
+class TaskEventBusTest {
+
+    @Test
+    @DisplayName("Подписчик получает изменения доски по порядку")
+    void testManagerEvents() throws InterruptedException {
+        TaskManager taskManager = Managers.getDefault();
+        List<TaskEvent> received = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(5);
+        try (Subscription subscription = taskManager.subscribe(events -> {
+            synchronized (received) {
+                received.addAll(events);
+            }
+            events.forEach(event -> latch.countDown());
+        })) {
+            Task task = taskManager.addTask(new Task("Task", "Description"));
+            Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+            Subtask subtask = new Subtask("Subtask", "Description", epic.getId());
+            subtask.setStatus(Status.IN_PROGRESS);
+            taskManager.addSubtask(subtask);
+            taskManager.deleteTaskByID(task.getId());
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Events should be delivered");
+            assertEquals(0, subscription.getDroppedEvents(), "No events should be dropped");
+        }
+
+        synchronized (received) {
+            assertEquals(5, received.size(), "Unexpected number of events");
+            assertEquals(TaskEvent.Type.CREATED, received.get(0).getType(), "Task should be created first");
+            assertEquals(TaskType.EPIC, received.get(1).getTaskType(), "Epic should be created second");
+            assertEquals(TaskType.SUBTASK, received.get(2).getTaskType(), "Subtask should be created third");
+            TaskEvent statusChange = received.get(3);
+            assertEquals(TaskEvent.Type.EPIC_STATUS_CHANGED, statusChange.getType(), "Epic status should change");
+            assertEquals(Status.NEW, statusChange.getPreviousStatus(), "Previous epic status is wrong");
+            assertEquals(Status.IN_PROGRESS, statusChange.getStatus(), "New epic status is wrong");
+            assertEquals(TaskEvent.Type.DELETED, received.get(4).getType(), "Task should be deleted");
+        }
+    }
+
+    @Test
+    @DisplayName("Медленный подписчик не задерживает публикацию")
+    void testSlowSubscriberDropsEvents() throws InterruptedException {
+        TaskEventBus bus = new TaskEventBus();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (Subscription subscription = bus.subscribe(events -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 4, 1)) {
+            bus.publish(TaskEvent.cleared(TaskType.TASK));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS), "Listener should receive the first event");
+            for (int i = 0; i < 10; i++) {
+                bus.publish(TaskEvent.deleted(TaskType.TASK, i));
+            }
+            assertEquals(6, subscription.getDroppedEvents(), "Events beyond the buffer should be dropped");
+            release.countDown();
+        }
+    }
+}
\ No newline at end of file
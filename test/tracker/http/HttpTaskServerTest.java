@@ -0,0 +1,189 @@
+package tracker.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.controllers.Managers;
+import tracker.controllers.TaskManager;
+import tracker.controllers.UserHistoryManager;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HTTP API")
+class HttpTaskServerTest {
+
+    private TaskManager taskManager;
+    private HttpTaskServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        taskManager = Managers.getConcurrent();
+        server = new HttpTaskServer(taskManager, new UserHistoryManager(10, 1000, 4),
+                new InetSocketAddress("localhost", 0));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Создание, чтение, обновление и удаление задачи")
+    void testTaskLifecycle() throws Exception {
+        HttpResponse<String> created = send("POST", "/tasks", "{\"name\":\"Task\",\"description\":\"Описание\"}");
+        assertEquals(201, created.statusCode(), "Task should be created");
+        assertTrue(created.body().contains("\"id\":1"), "Created task should get an id");
+        assertEquals("Описание", taskManager.getTaskByID(1).getDescription(), "Task should reach the manager");
+
+        HttpResponse<String> updated = send("POST", "/tasks",
+                "{\"id\":1,\"name\":\"Task\",\"description\":\"Описание\",\"status\":\"DONE\"}");
+        assertEquals(200, updated.statusCode(), "Task should be updated");
+        assertEquals(Status.DONE, taskManager.getTaskByID(1).getStatus(), "Status update should be applied");
+
+        assertTrue(updated.body().contains("\"version\":2"), "Update should bump the version");
+        assertEquals(409, send("POST", "/tasks", "{\"id\":1,\"name\":\"Stale\",\"version\":1}").statusCode(),
+                "Stale version should be rejected");
+        assertEquals(200, send("POST", "/tasks", "{\"id\":1,\"name\":\"Task\",\"status\":\"DONE\",\"version\":2}")
+                .statusCode(), "Current version should be accepted");
+
+        HttpResponse<String> fetched = send("GET", "/tasks/1", null);
+        assertEquals(200, fetched.statusCode(), "Task should be found");
+        assertTrue(fetched.body().contains("\"status\":\"DONE\""), "Fetched task should be updated");
+
+        assertEquals(204, send("DELETE", "/tasks/1", null).statusCode(), "Task should be deleted");
+        assertEquals(404, send("GET", "/tasks/1", null).statusCode(), "Deleted task should be gone");
+        assertEquals(404, send("DELETE", "/tasks/1", null).statusCode(), "Second delete should report 404");
+        assertEquals(404, send("POST", "/tasks", "{\"id\":7,\"name\":\"Task\"}").statusCode(),
+                "Updating a missing task should report 404");
+    }
+
+    @Test
+    @DisplayName("Начало и длительность задачи, пересечения по времени")
+    void testTaskTimes() throws Exception {
+        HttpResponse<String> created = send("POST", "/tasks",
+                "{\"name\":\"Планёрка\",\"startTime\":\"2026-03-02T09:00\",\"duration\":\"PT1H\"}");
+        assertEquals(201, created.statusCode(), "Planned task should be created");
+        assertEquals(LocalDateTime.of(2026, 3, 2, 9, 0), taskManager.getTaskByID(1).getStartTime(),
+                "Start time should reach the manager");
+        assertTrue(send("GET", "/tasks/1", null).body().contains("\"duration\":\"PT1H\""),
+                "Duration should be returned");
+        assertEquals(406, send("POST", "/tasks", "{\"name\":\"Внахлёст\",\"startTime\":\"2026-03-02T09:30\"}")
+                .statusCode(), "Overlapping task should be rejected");
+        assertEquals(400, send("POST", "/tasks", "{\"name\":\"Когда-то\",\"startTime\":\"завтра\"}")
+                .statusCode(), "Malformed start time should be rejected");
+        HttpResponse<String> multiline = send("POST", "/tasks",
+                "{\"name\":\"Когда-то\",\"startTime\":\"завтра\\nутром\\u0001\"}");
+        assertEquals(400, multiline.statusCode());
+        assertTrue(multiline.body().contains("завтра\\nутром\\u0001"),
+                "Control characters in the error should be escaped");
+        assertFalse(multiline.body().contains("\n"), "Error body should stay valid JSON");
+    }
+
+    @Test
+    @DisplayName("Эпики, подзадачи и потоковые списки")
+    void testEpicsAndListings() throws Exception {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < 3; i++) {
+            send("POST", "/subtasks", "{\"name\":\"Subtask " + i + "\",\"epicId\":" + epic.getId() + "}");
+        }
+        Subtask subtask = taskManager.getSubtasks().get(0);
+        send("POST", "/subtasks", "{\"id\":" + subtask.getId() + ",\"name\":\"Subtask\",\"epicId\":"
+                + epic.getId() + ",\"status\":\"IN_PROGRESS\"}");
+
+        assertEquals(3, count(send("GET", "/epics/" + epic.getId() + "/subtasks", null).body()),
+                "Epic should list its subtasks");
+        assertEquals(1, count(send("GET", "/subtasks?status=IN_PROGRESS", null).body()),
+                "Status filter should apply");
+        assertEquals(2, count(send("GET", "/subtasks?limit=2", null).body()), "Limit should apply");
+        assertTrue(send("GET", "/epics", null).body().contains("\"status\":\"IN_PROGRESS\""),
+                "Epic status should follow its subtasks");
+
+        HttpResponse<String> renamed = send("POST", "/epics",
+                "{\"id\":" + epic.getId() + ",\"name\":\"Renamed\",\"description\":\"Description\"}");
+        assertEquals(200, renamed.statusCode(), "Epic should be updated");
+        assertEquals(3, taskManager.getEpicSubtasks(taskManager.getEpicByID(epic.getId())).size(),
+                "Epic update should keep its subtasks");
+
+        assertEquals(404, send("POST", "/subtasks", "{\"name\":\"Orphan\",\"epicId\":999}").statusCode(),
+                "Subtask of a missing epic should be rejected");
+        assertEquals(400, send("POST", "/tasks", "{\"name\":").statusCode(), "Malformed JSON should be rejected");
+        assertEquals(400, send("GET", "/tasks/abc", null).statusCode(), "Non-numeric id should be rejected");
+        assertEquals(400, send("GET", "/tasks?status=LATE", null).statusCode(), "Unknown status should be rejected");
+        assertEquals(405, send("PUT", "/tasks", "{}").statusCode(), "Unsupported method should be rejected");
+    }
+
+    @Test
+    @DisplayName("История просмотров пользователя")
+    void testUserHistory() throws Exception {
+        Task first = taskManager.addTask(new Task("First", "Description"));
+        Task second = taskManager.addTask(new Task("Second", "Description"));
+        send("GET", "/tasks/" + first.getId(), null, "alice");
+        send("GET", "/tasks/" + second.getId(), null, "bob");
+
+        String aliceHistory = send("GET", "/history", null, "alice").body();
+        assertEquals(1, count(aliceHistory), "Alice should see only her view");
+        assertTrue(aliceHistory.contains("First"), "Alice should see the task she viewed");
+        assertEquals(2, count(send("GET", "/history", null).body()), "Shared history should contain both views");
+
+        send("DELETE", "/tasks/" + first.getId(), null);
+        assertEquals(0, count(send("GET", "/history", null, "alice").body()), "Deleted task should leave the history");
+    }
+
+    @Test
+    @DisplayName("Параллельные клиенты")
+    void testConcurrentClients() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            HttpRequest request = request("POST", "/tasks", "{\"name\":\"Task " + i + "\"}", null);
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.get().statusCode(), "Every request should succeed");
+        }
+        assertEquals(500, count(send("GET", "/tasks", null).body()), "Every task should be listed");
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return send(method, path, body, null);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String user) throws Exception {
+        return client.send(request(method, path, body, user), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body, String user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (user != null) {
+            builder.header(HttpTaskServer.USER_HEADER, user);
+        }
+        return builder.build();
+    }
+
+    private static int count(String json) {
+        int count = 0;
+        for (int i = json.indexOf("\"id\":"); i >= 0; i = json.indexOf("\"id\":", i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package tracker.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.controllers.Managers;
+import tracker.controllers.TaskManager;
+import tracker.model.Epic;
+import tracker.model.Status;
+import tracker.model.Subtask;
+import tracker.model.Task;
+import tracker.model.TaskType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Потоковые форматы задач")
+class TaskStreamsTest {
+
+    private static final String TRICKY = "Кавычки \" запятые, \\ перевод\nстроки\tи эмодзи \uD83D\uDE80";
+
+    private static TaskManager sampleBoard() {
+        TaskManager taskManager = Managers.getDefault();
+        taskManager.addTask(new Task(TRICKY, ""));
+        Epic epic = taskManager.addEpic(new Epic("Переезд", "Описание"));
+        Subtask subtask = new Subtask("Упаковать вещи", TRICKY, epic.getId());
+        subtask.setStatus(Status.DONE);
+        taskManager.addSubtask(subtask);
+        taskManager.addSubtask(new Subtask("Заказать машину", "", epic.getId()));
+        return taskManager;
+    }
+
+    private static List<Task> readAll(TaskReader reader) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (Task task = reader.read(); task != null; task = reader.read()) {
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    @DisplayName("JSON: выгрузка и загрузка доски")
+    void testJsonRoundTrip() throws IOException {
+        TaskManager source = sampleBoard();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        assertEquals(4, TaskTransfer.export(source, new TaskJsonWriter(bytes, 32)), "Every item should be exported");
+
+        List<Task> tasks = readAll(new TaskJsonReader(new ByteArrayInputStream(bytes.toByteArray()), null, 16));
+        assertEquals(4, tasks.size(), "Every item should be read back");
+        assertEquals(TRICKY, tasks.get(0).getName(), "Escapes and surrogate pairs should survive");
+        assertEquals(TaskType.EPIC, TaskType.of(tasks.get(1)), "Epic should come before its subtasks");
+        assertEquals(source.getSubtaskByID(3), tasks.get(2), "Subtask should keep all fields");
+        assertEquals(2, ((Subtask) tasks.get(3)).getEpicID(), "Subtask should keep its epic");
+    }
+
+    @Test
+    @DisplayName("CSV: выгрузка и загрузка доски с перепривязкой эпиков")
+    void testCsvImportRemapsEpics() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TaskTransfer.export(sampleBoard(), new TaskCsvWriter(bytes, 32));
+        String csv = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith(TaskCsvWriter.HEADER + "\n"), "CSV should start with the header");
+
+        TaskManager target = Managers.getDefault();
+        target.addTask(new Task("Уже была", ""));
+        int imported = TaskTransfer.importInto(new TaskCsvReader(new ByteArrayInputStream(bytes.toByteArray()), 16),
+                target);
+        assertEquals(4, imported, "Every item should be imported");
+        Epic epic = target.getEpics().get(0);
+        assertEquals(3, epic.getId(), "Imported epic should get a new id");
+        assertEquals(2, target.getEpicSubtasks(epic).size(), "Subtasks should follow their epic's new id");
+        Subtask packing = target.getSubtasks().stream()
+                .filter(subtask -> subtask.getName().equals("Упаковать вещи")).findFirst().orElseThrow();
+        assertEquals(TRICKY, packing.getDescription(), "Quoted fields should survive");
+        assertEquals(Status.NEW, epic.getStatus(), "Epic status should be recalculated from subtasks");
+    }
+
+    @Test
+    @DisplayName("Начало и длительность в JSON и CSV")
+    void testTimes() throws IOException {
+        TaskManager source = Managers.getDefault();
+        Task task = new Task("Планёрка", "");
+        task.setStartTime(LocalDateTime.of(2026, 3, 2, 9, 0));
+        task.setDuration(Duration.ofMinutes(90));
+        source.addTask(task);
+        Epic epic = source.addEpic(new Epic("Релиз", ""));
+        Subtask subtask = new Subtask("Сборка", "", epic.getId());
+        subtask.setDuration(Duration.ofMinutes(15));
+        source.addSubtask(subtask);
+
+        for (boolean json : new boolean[]{true, false}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            TaskTransfer.export(source, json ? new TaskJsonWriter(bytes) : new TaskCsvWriter(bytes));
+            InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+            List<Task> tasks = readAll(json ? new TaskJsonReader(in) : new TaskCsvReader(in));
+            assertTrue(task.contentEquals(tasks.get(0)), "Task times should survive");
+            assertTrue(subtask.contentEquals(tasks.get(2)), "Subtask duration without a start should survive");
+
+            TaskManager target = Managers.getDefault();
+            TaskTransfer.importInto(json ? new TaskJsonReader(new ByteArrayInputStream(bytes.toByteArray()))
+                    : new TaskCsvReader(new ByteArrayInputStream(bytes.toByteArray())), target);
+            assertEquals(Duration.ofMinutes(15), target.getSubtasks().get(0).getDuration(),
+                    "Imported subtask should keep its duration");
+        }
+        assertEquals(1, readAll(new TaskCsvReader(stream("id,type,name,status,description,epic\n1,TASK,A,NEW,\n"))).size(),
+                "CSV without time columns should still be read");
+        assertThrows(TaskFormatException.class, () -> readAll(new TaskCsvReader(stream("1,TASK,A,NEW,,,9:00,\n"))),
+                "Malformed start time should be rejected");
+    }
+
+    @Test
+    @DisplayName("Разбор объектов, незнакомых полей и ошибок")
+    void testJsonParsing() throws IOException {
+        String json = "{\"name\":\"A\",\"extra\":{\"nested\":[1,true,null,\"x\"]},\"id\":5}\n"
+                + "{\"type\":\"SUBTASK\",\"name\":\"\\u0411\",\"epicId\":5,\"status\":\"IN_PROGRESS\"}";
+        List<Task> tasks = readAll(new TaskJsonReader(stream(json), TaskType.TASK));
+        assertEquals(2, tasks.size(), "JSON lines should be read one by one");
+        assertEquals(5, tasks.get(0).getId(), "Fields after unknown ones should be read");
+        assertEquals("Б", tasks.get(1).getName(), "Unicode escapes should be decoded");
+        assertEquals(Status.IN_PROGRESS, tasks.get(1).getStatus(), "Status should be parsed");
+
+        assertThrows(TaskFormatException.class, () -> readAll(new TaskJsonReader(stream("[{\"name\":\"A\"},]"),
+                TaskType.TASK)), "Trailing comma should be rejected");
+        assertThrows(TaskFormatException.class, () -> readAll(new TaskJsonReader(stream("{\"id\":1}"),
+                TaskType.TASK)), "Missing name should be rejected");
+        assertThrows(TaskFormatException.class, () -> readAll(new TaskCsvReader(stream("1,TASK,A,LATE,\n"))),
+                "Unknown status should be rejected");
+        assertTrue(readAll(new TaskJsonReader(stream(" [ ] "))).isEmpty(), "Empty array should give no tasks");
+    }
+
+    @Test
+    @DisplayName("Чтение большого потока за один проход")
+    void testLargeStream() throws IOException {
+        int records = 200_000;
+        InputStream generated = new InputStream() {
+            private int record;
+            private byte[] current = new byte[0];
+            private int pos;
+
+            @Override
+            public int read() {
+                if (pos == current.length) {
+                    if (record == records) {
+                        return -1;
+                    }
+                    record++;
+                    current = (record + ",TASK,Задача " + record + ",NEW,,\r\n").getBytes(StandardCharsets.UTF_8);
+                    pos = 0;
+                }
+                return current[pos++] & 0xFF;
+            }
+        };
+        TaskReader reader = new TaskCsvReader(generated);
+        int count = 0;
+        Task last = null;
+        for (Task task = reader.read(); task != null; task = reader.read()) {
+            last = task;
+            count++;
+        }
+        assertEquals(records, count, "Every record should be read");
+        assertEquals("Задача " + records, last.getName(), "Last record should be decoded");
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package tracker.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import tracker.controllers.Managers;
+import tracker.model.Epic;
+import tracker.model.Subtask;
+import tracker.model.Task;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Метрики менеджера")
+class MetricsTaskManagerTest {
+
+    @Test
+    @DisplayName("Счётчики операций и попадания в историю")
+    void testOperationCounters() {
+        MetricsTaskManager taskManager = Managers.getInstrumented(Managers.getDefault());
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getId()));
+        taskManager.getTaskByID(task.getId());
+        taskManager.getTaskByID(100);
+        taskManager.getEpicSubtasks(epic);
+
+        TaskManagerMetrics metrics = taskManager.getMetrics();
+        assertEquals(1, metrics.getCount(Operation.ADD_TASK), "One task should be added");
+        assertEquals(2, metrics.getCount(Operation.ADD_SUBTASK), "Two subtasks should be added");
+        assertEquals(2, metrics.getCount(Operation.GET_TASK), "Two lookups should be counted");
+        assertEquals(1, metrics.getHistoryHits(), "Found task should count as a history hit");
+        assertEquals(1, metrics.getHistoryMisses(), "Missing task should count as a miss");
+        assertEquals(2, metrics.getEpicSizeMax(), "Epic size should be sampled");
+    }
+
+    @Test
+    @DisplayName("Выключенные метрики ничего не пишут")
+    void testDisabledMetrics() {
+        MetricsTaskManager taskManager = Managers.getInstrumented(Managers.getDefault());
+        taskManager.getMetrics().setEnabled(false);
+        taskManager.addTask(new Task("Task", "Description"));
+
+        assertEquals(0, taskManager.getMetrics().getCount(Operation.ADD_TASK), "Disabled metrics should not record");
+        assertEquals(1, taskManager.getTasks().size(), "Operation itself should still run");
+    }
+
+    @Test
+    @DisplayName("Процентили гистограммы")
+    void testHistogramPercentiles() {
+        Log2Histogram histogram = new Log2Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(10_000);
+
+        assertEquals(127, histogram.getPercentile(0.5), "Median should be the upper bound of its bucket");
+        assertEquals(127, histogram.getPercentile(0.99), "99th percentile should stay in the common bucket");
+        assertEquals(10_000, histogram.getPercentile(1.0), "Top percentile should be capped by the maximum");
+    }
+
+    @Test
+    @DisplayName("Метрики доступны через JMX")
+    void testJmxRegistration() throws Exception {
+        MetricsTaskManager taskManager = Managers.getInstrumented(Managers.getDefault());
+        taskManager.addTask(new Task("Task", "Description"));
+        ObjectName name = taskManager.getMetrics().register("test");
+        try {
+            Object hits = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "HistoryHits");
+            assertEquals(0L, hits, "JMX should expose history hits");
+        } finally {
+            taskManager.getMetrics().unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name), "Metrics should be unregistered");
+    }
+}
\ No newline at end of file
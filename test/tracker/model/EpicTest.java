@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import tracker.controllers.TaskManager;
 import tracker.controllers.Managers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Тесты для класса Epic")
@@ -61,4 +65,87 @@ class EpicTest {
 
         assertEquals(Status.DONE, taskManager.getEpicByID(addedEpic.getId()).getStatus(), "Epic status should be DONE if all subtasks are DONE");
     }
+
+    @Test
+    @DisplayName("Счётчики статусов подзадач")
+    void testEpicStatusCounters() {
+        TaskManager taskManager = Managers.getDefault();
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask1 = taskManager.addSubtask(new Subtask("Subtask 1", "Description 1", epic.getId()));
+        Subtask subtask2 = taskManager.addSubtask(new Subtask("Subtask 2", "Description 2", epic.getId()));
+
+        subtask1.setStatus(Status.IN_PROGRESS);
+        taskManager.updateSubtask(subtask1);
+        assertEquals(1, epic.getSubtaskCount(Status.IN_PROGRESS), "One subtask should be counted as IN_PROGRESS");
+        assertEquals(1, epic.getSubtaskCount(Status.NEW), "One subtask should be counted as NEW");
+        assertEquals(Status.IN_PROGRESS, epic.getStatus(), "Epic status should be IN_PROGRESS");
+
+        taskManager.deleteSubtaskByID(subtask1.getId());
+        assertEquals(0, epic.getSubtaskCount(Status.IN_PROGRESS), "Deleted subtask should not be counted");
+        assertEquals(Status.NEW, epic.getStatus(), "Epic status should be NEW after the IN_PROGRESS subtask is deleted");
+
+        subtask2.setStatus(Status.DONE);
+        taskManager.updateSubtask(subtask2);
+        assertEquals(Status.DONE, epic.getStatus(), "Epic status should be DONE");
+        assertTrue(epic.verifyStatusCounters(), "Counters should match a full rescan");
+    }
+
+    @Test
+    @DisplayName("Удаление и замена подзадачи по ID")
+    void testRemoveAndReplaceSubtaskById() {
+        Epic epic = new Epic(1, "Epic", "Description");
+        Subtask subtask1 = new Subtask(2, "Subtask", "Description", Status.NEW, 1);
+        Subtask subtask2 = new Subtask(3, "Subtask", "Description", Status.NEW, 1);
+        epic.addSubtask(subtask1);
+        epic.addSubtask(subtask2);
+
+        Subtask replacement = new Subtask(3, "Subtask", "Updated", Status.DONE, 1);
+        assertTrue(epic.replaceSubtask(replacement), "Existing subtask should be replaced");
+        assertSame(replacement, epic.getSubtask(3), "Replacement should be stored under the same id");
+
+        assertSame(subtask1, epic.removeSubtask(2), "Subtask should be removed by id, not by content");
+        assertFalse(epic.containsSubtask(2), "Removed subtask should not be present");
+        assertTrue(epic.containsSubtask(3), "Subtask with equal content should stay in the epic");
+        assertEquals(1, epic.getSubtasks().size(), "Epic should contain one subtask");
+        assertThrows(UnsupportedOperationException.class, () -> epic.getSubtasks().clear(),
+                "Subtask view should be read-only");
+    }
+
+    @Test
+    @DisplayName("Сроки эпика по подзадачам")
+    void testEpicTimesFromSubtasks() {
+        LocalDateTime monday = LocalDateTime.of(2026, 3, 2, 9, 0);
+        Epic epic = new Epic(1, "Epic", "Description");
+        Subtask early = new Subtask(2, "Subtask", "Description", Status.NEW, 1);
+        early.setStartTime(monday);
+        early.setDuration(Duration.ofHours(2));
+        Subtask late = new Subtask(3, "Subtask", "Description", Status.NEW, 1);
+        late.setStartTime(monday.plusDays(1));
+        late.setDuration(Duration.ofHours(3));
+        epic.addSubtask(early);
+        epic.addSubtask(late);
+        epic.addSubtask(new Subtask(4, "Subtask", "Unscheduled", Status.NEW, 1));
+
+        assertEquals(monday, epic.getStartTime(), "Epic should start with its earliest subtask");
+        assertEquals(monday.plusDays(1).plusHours(3), epic.getEndTime(), "Epic should end with its latest subtask");
+        assertEquals(Duration.ofHours(5), epic.getDuration(), "Epic duration should be the sum of subtask durations");
+
+        Subtask moved = new Subtask(3, "Subtask", "Description", Status.NEW, 1);
+        moved.setStartTime(monday.plusHours(4));
+        moved.setDuration(Duration.ofHours(1));
+        epic.replaceSubtask(moved);
+        assertEquals(monday.plusHours(5), epic.getEndTime(), "End should be recomputed when the latest subtask moves");
+        assertEquals(Duration.ofHours(3), epic.getDuration());
+
+        epic.removeSubtask(2);
+        assertEquals(monday.plusHours(4), epic.getStartTime(), "Start should be recomputed when the earliest subtask goes");
+        assertEquals(monday.plusHours(5), epic.copy().getEndTime(), "Copy should keep the derived times");
+        epic.clearSubtasks();
+        assertNull(epic.getStartTime());
+        assertEquals(Duration.ZERO, epic.getDuration());
+        epic.setStartTime(monday);
+        epic.setDuration(Duration.ofHours(1));
+        assertNull(epic.getStartTime(), "Setting the start should not override derived times");
+        assertEquals(Duration.ZERO, epic.getDuration(), "Setting the duration should not override derived times");
+    }
 }
\ No newline at end of file
@@ -24,6 +24,37 @@ class TaskTest {
         assertEquals(subtask1, subtask2, "Subtasks with the same id should be equal");
     }
 
+    @Test
+    @DisplayName("Равенство задач с одним ID и разным содержимым")
+    void testTaskEqualityIgnoresContent() {
+        Task task1 = new Task(1, "Task 1", "Description 1", Status.NEW);
+        Task task2 = new Task(1, "Task 2", "Description 2", Status.DONE);
+        assertEquals(task1, task2, "Tasks with the same id should be equal regardless of content");
+        assertEquals(task1.hashCode(), task2.hashCode(), "Equal tasks should have equal hash codes");
+        assertFalse(task1.contentEquals(task2), "Tasks with different content should not be content-equal");
+        assertNotEquals(task1, new Subtask(1, "Task 1", "Description 1", Status.NEW, 2),
+                "Task and subtask with the same id should not be equal");
+    }
+
+    @Test
+    @DisplayName("Сравнение содержимого подзадач")
+    void testSubtaskContentEquality() {
+        Subtask subtask1 = new Subtask(1, "Subtask 1", "Description 1", Status.NEW, 1);
+        assertTrue(subtask1.contentEquals(new Subtask(1, "Subtask 1", "Description 1", Status.NEW, 1)),
+                "Subtasks with the same fields should be content-equal");
+        assertFalse(subtask1.contentEquals(new Subtask(1, "Subtask 1", "Description 1", Status.NEW, 2)),
+                "Subtasks of different epics should not be content-equal");
+    }
+
+    @Test
+    @DisplayName("Несохранённые задачи равны только себе")
+    void testUnsavedTasksEqualOnlyThemselves() {
+        Task task1 = new Task("Task", "Description");
+        Task task2 = new Task("Task", "Description");
+        assertEquals(task1, task1, "Task should be equal to itself");
+        assertNotEquals(task1, task2, "Unsaved tasks should not be equal to each other");
+    }
+
     @Test
     @DisplayName("Неизменяемость задачи после добавления в менеджер")
     void testTaskImmutabilityAfterAddingToManager() {